@@ -0,0 +1,102 @@
+package com.dietcoach.project.client.ai;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * AI skeleton 호출 latency 모델.
+ *
+ * 최근 maxSamples 건의 (요청 일수, latency, 응답 크기)를 모아서
+ * latency(ms) = fixedMs + perDayMs * days 를 최소제곱으로 맞춘다.
+ * fixedMs 는 프롬프트 처리 등 호출당 고정 비용, perDayMs 는 출력 토큰 생성 비용에 해당.
+ */
+@Component
+public class AiLatencyModel {
+
+    private final int minSamples;
+
+    private final int[] days;
+    private final long[] latencyMs;
+    private final long[] outputBytes;
+    private int count;
+    private int next;
+
+    public AiLatencyModel(
+            @Value("${mealplan.chunking.max-samples:100}") int maxSamples,
+            @Value("${mealplan.chunking.min-samples:5}") int minSamples
+    ) {
+        int size = Math.max(2, maxSamples);
+        this.days = new int[size];
+        this.latencyMs = new long[size];
+        this.outputBytes = new long[size];
+        this.minSamples = Math.max(2, minSamples);
+    }
+
+    /**
+     * @param fitted  샘플이 부족하거나 일수가 다양하지 않으면 false (호출부는 기본 청크 사용)
+     * @param r2      결정계수 (모델 설명력)
+     */
+    public record Fit(boolean fitted, int samples, double fixedMs, double perDayMs, double r2,
+                      double bytesPerDay, int minDays, int maxDays) {
+
+        public double predictMs(int chunkDays) {
+            return fixedMs + perDayMs * chunkDays;
+        }
+    }
+
+    public synchronized void record(int chunkDays, long elapsedMs, long responseBytes) {
+        if (chunkDays <= 0 || elapsedMs < 0) return;
+        days[next] = chunkDays;
+        latencyMs[next] = elapsedMs;
+        outputBytes[next] = Math.max(0, responseBytes);
+        next = (next + 1) % days.length;
+        count = Math.min(count + 1, days.length);
+    }
+
+    public synchronized Fit fit() {
+        if (count == 0) return new Fit(false, 0, 0, 0, 0, 0, 0, 0);
+
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0, sumBytesPerDay = 0;
+        int minDays = Integer.MAX_VALUE, maxDays = 0;
+        for (int i = 0; i < count; i++) {
+            double x = days[i];
+            double y = latencyMs[i];
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+            sumBytesPerDay += (double) outputBytes[i] / days[i];
+            minDays = Math.min(minDays, days[i]);
+            maxDays = Math.max(maxDays, days[i]);
+        }
+        double meanY = sumY / count;
+        double bytesPerDay = sumBytesPerDay / count;
+
+        double denom = count * sumXX - sumX * sumX;
+        if (count < minSamples || denom == 0) {
+            // 일수가 전부 같으면 기울기를 알 수 없음 -> 평균 latency 만 제공
+            return new Fit(false, count, meanY, 0, 0, bytesPerDay, minDays, maxDays);
+        }
+
+        double slope = (count * sumXY - sumX * sumY) / denom;
+        double intercept = (sumY - slope * sumX) / count;
+        // 음수 계수는 노이즈 -> 0 으로 제한
+        if (slope < 0) {
+            slope = 0;
+            intercept = meanY;
+        } else if (intercept < 0) {
+            intercept = 0;
+            slope = sumXY / sumXX;
+        }
+
+        double ssTot = 0, ssRes = 0;
+        for (int i = 0; i < count; i++) {
+            double predicted = intercept + slope * days[i];
+            ssTot += (latencyMs[i] - meanY) * (latencyMs[i] - meanY);
+            ssRes += (latencyMs[i] - predicted) * (latencyMs[i] - predicted);
+        }
+        double r2 = ssTot == 0 ? 1.0 : 1.0 - ssRes / ssTot;
+
+        return new Fit(true, count, intercept, slope, r2, bytesPerDay, minDays, maxDays);
+    }
+}
@@ -0,0 +1,297 @@
+package com.dietcoach.project.client.ai;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gemini skeleton 요청 body 구성.
+ *
+ * - COMPACT(기본): 규칙/실행 단계/스키마 같은 고정 문구는 systemInstruction 으로 한 번만 만들어 캐시하고,
+ *   청크마다 바뀌는 값(일수, 시작일, 칼로리, 목표, 끼니, 선호, 알레르기)만 user 메시지로 보낸다.
+ *   스키마는 한 줄 타입 표기, 서비스에서 쓰지 않는 reasoning / 예산 필드는 제외 -> 입력/출력 토큰 모두 감소
+ * - FULL: 기존 방식 (system + 전체 user 프롬프트를 하나의 user 메시지로)
+ * - 플랜 연장은 payload 의 avoidMenus(직전 메뉴)를 user 메시지에 avoid=[...] 로 추가
+ * - 끼니 교체(replaceMeal)는 모드와 관계없이 한 끼 전용 prefix + 한 끼 스키마 (하루치 대비 출력 약 1/3)
+ *
+ * 토큰 수는 tokenizer 없이 근사치로 계산 (ASCII 4자 ≈ 1토큰, 한글 등은 1자 ≈ 1토큰).
+ */
+@Slf4j
+@Component
+public class AiPromptBuilder {
+
+    public enum Mode { COMPACT, FULL }
+
+    private static final String SYSTEM_RULES = """
+            Role: Professional Clinical Dietitian & Budget Analyst.
+            Constraint: You must think step-by-step to calculate nutrition and cost before outputting JSON.
+
+            Rules:
+            1. VARIETY: NEVER repeat the same 'menuName' or same meal combination across the plan. Do not use the same ingredient twice in one meal (e.g. no Chicken Breast twice in Lunch).
+            2. CALORIE PRECISION: 'actualTotalKcal' MUST be the exact sum of all ingredients' 'kcal' in that day.
+            3. STANDARD DATA: Use standard nutritional data for COOKED food (e.g., Cooked Rice 100g = ~130kcal, Cooked Chicken Breast 100g = ~110kcal, Veggies 100g = ~30kcal).
+            4. ALLERGY SAFETY: Strictly exclude ingredients based on the provided allergy list. If Milk is listed, exclude: milk, cheese, yogurt, butter, cream, and any dairy.
+            5. PORTION REALISM: For high-calorie goals (e.g., 2800kcal), increase portion sizes (e.g., 200-300g of rice, 150-200g of protein) instead of adding unrealistic side dishes.
+            6. JSON ONLY: No markdown, no conversational text. Return only the raw JSON.
+            7. DATA TYPE: Ensure 'grams', 'kcal', 'targetKcal', 'actualTotalKcal', and 'estimatedCostKrw' are NUMBERS, not strings.
+            8. LANGUAGE: All names and reasoning must be in Korean (Hangul).
+            """;
+
+    // COMPACT 고정 prefix: 값이 들어갈 자리는 user 메시지의 키 이름으로 참조
+    private static final String COMPACT_SYSTEM = """
+            Role: clinical dietitian. Output one JSON object only (no markdown). Names in Korean.
+            Rules:
+            1. No repeated menuName or meal combination in the plan, none from avoid; no ingredient twice in one meal.
+            2. Use standard COOKED nutrition (rice 100g~130kcal, chicken breast 100g~110kcal, veggies 100g~30kcal).
+            3. Exclude every allergy ingredient (milk -> also cheese, yogurt, butter, cream, dairy).
+            4. Meal split: BREAKFAST 30% / LUNCH 40% / DINNER 30% of targetKcal.
+            5. Day kcal sum must be within kcalRange; actualTotalKcal = exact sum of ingredient kcal. Adjust grams, not dish count.
+            6. If targetKcal >= 2500: at least 200g rice/carb and 150g protein per meal.
+            7. Follow theme; grams/kcal/dayIndex are integers.
+            Schema: {"days":[{"dayIndex":int,"planDate":"yyyy-MM-dd","validation":{"targetKcal":int,"actualTotalKcal":int},"meals":[{"mealTime":"BREAKFAST|LUNCH|DINNER|SNACK","menuName":str,"ingredients":[{"name":str,"grams":int,"kcal":int}]}]}]}
+            """;
+
+    // 한 끼 생성용 고정 prefix
+    private static final String MEAL_SYSTEM = """
+            Role: clinical dietitian. Create ONE meal. Output one JSON object only (no markdown). Names in Korean.
+            Rules:
+            1. menuName must differ from every menu in avoid; no ingredient twice in the meal.
+            2. Use standard COOKED nutrition (rice 100g~130kcal, chicken breast 100g~110kcal, veggies 100g~30kcal).
+            3. Exclude every allergy ingredient (milk -> also cheese, yogurt, butter, cream, dairy).
+            4. Ingredient kcal sum must be within kcalRange. Adjust grams, not dish count.
+            5. Follow theme; grams/kcal are integers.
+            Schema: {"mealTime":"BREAKFAST|LUNCH|DINNER|SNACK","menuName":str,"ingredients":[{"name":str,"grams":int,"kcal":int}]}
+            """;
+
+    private final Mode mode;
+    private final boolean logComparison;
+    private final int compactSystemTokens;
+    private final int mealSystemTokens;
+
+    public AiPromptBuilder(
+            @Value("${mealplan.ai-prompt.mode:COMPACT}") String mode,
+            @Value("${mealplan.ai-prompt.log-comparison:true}") boolean logComparison
+    ) {
+        this.mode = "FULL".equalsIgnoreCase(mode) ? Mode.FULL : Mode.COMPACT;
+        this.logComparison = logComparison;
+        this.compactSystemTokens = estimateTokens(COMPACT_SYSTEM);
+        this.mealSystemTokens = estimateTokens(MEAL_SYSTEM);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public boolean logComparison() {
+        return logComparison;
+    }
+
+    /** Gemini generateContent body (설정된 모드) */
+    public Map<String, Object> buildBody(Map<String, Object> payload) {
+        return mode == Mode.FULL ? fullBody(payload) : compactBody(payload);
+    }
+
+    Map<String, Object> compactBody(Map<String, Object> payload) {
+        return Map.of(
+                "systemInstruction", Map.of("parts", List.of(Map.of("text", COMPACT_SYSTEM))),
+                "contents", List.of(Map.of(
+                        "role", "user",
+                        "parts", List.of(Map.of("text", compactUserPrompt(payload))))),
+                "generationConfig", Map.of("response_mime_type", "application/json"));
+    }
+
+    Map<String, Object> fullBody(Map<String, Object> payload) {
+        String combinedPrompt = SYSTEM_RULES + "\n\n" + fullUserPrompt(payload);
+        if (!avoidSuffix(payload).isEmpty()) {
+            combinedPrompt += "\nDo not reuse these recent menus: " + payload.get("avoidMenus");
+        }
+        return Map.of(
+                "contents", List.of(Map.of(
+                        "role", "user",
+                        "parts", List.of(Map.of("text", combinedPrompt)))),
+                "generationConfig", Map.of("response_mime_type", "application/json"));
+    }
+
+    /** 청크마다 바뀌는 값만 */
+    String compactUserPrompt(Map<String, Object> payload) {
+        int targetKcal = targetKcal(payload);
+        String goalType = goalType(payload);
+        return "days=" + payload.get("totalDays")
+                + " startDate=" + payload.get("startDate")
+                + " targetKcal=" + targetKcal
+                + " kcalRange=" + (int) (targetKcal * 0.97) + "-" + (int) (targetKcal * 1.03)
+                + " goal=" + goalType
+                + " theme=" + compactTheme(goalType)
+                + " mealsPerDay=" + payload.get("mealsPerDay")
+                + " preferences=" + payload.get("preferences")
+                + " allergies=" + payload.get("allergies")
+                + avoidSuffix(payload);
+    }
+
+    /** 플랜 연장 시 직전 메뉴 (avoidMenus) 가 있을 때만 붙임 */
+    private static String avoidSuffix(Map<String, Object> payload) {
+        Object avoid = payload.get("avoidMenus");
+        if (!(avoid instanceof List<?> list) || list.isEmpty()) return "";
+        return " avoid=" + list;
+    }
+
+    /**
+     * 한 끼 생성 body.
+     * payload 에 mealTime, mealTargetKcal, avoidMenus(그날 이미 있는/교체 전 메뉴) 가 추가로 필요.
+     */
+    public Map<String, Object> buildMealBody(Map<String, Object> payload) {
+        return Map.of(
+                "systemInstruction", Map.of("parts", List.of(Map.of("text", MEAL_SYSTEM))),
+                "contents", List.of(Map.of(
+                        "role", "user",
+                        "parts", List.of(Map.of("text", mealUserPrompt(payload))))),
+                "generationConfig", Map.of("response_mime_type", "application/json"));
+    }
+
+    String mealUserPrompt(Map<String, Object> payload) {
+        int mealKcal = toInt(payload.get("mealTargetKcal"), targetKcal(payload));
+        String goalType = goalType(payload);
+        return "mealTime=" + payload.get("mealTime")
+                + " date=" + payload.get("startDate")
+                + " targetKcal=" + mealKcal
+                + " kcalRange=" + (int) (mealKcal * 0.95) + "-" + (int) (mealKcal * 1.05)
+                + " goal=" + goalType
+                + " theme=" + compactTheme(goalType)
+                + " preferences=" + payload.get("preferences")
+                + " allergies=" + payload.get("allergies")
+                + " avoid=" + payload.getOrDefault("avoidMenus", List.of());
+    }
+
+    public int estimateMealInputTokens(Map<String, Object> payload) {
+        return mealSystemTokens + estimateTokens(mealUserPrompt(payload));
+    }
+
+    /** 현재 모드의 입력 토큰 근사치 (systemInstruction 포함) */
+    public int estimateInputTokens(Map<String, Object> payload) {
+        if (mode == Mode.FULL) return estimateTokens(SYSTEM_RULES) + estimateTokens(fullUserPrompt(payload));
+        return compactSystemTokens + estimateTokens(compactUserPrompt(payload));
+    }
+
+    public static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 0x80) ascii++;
+            else other++;
+        }
+        return (ascii + 3) / 4 + other;
+    }
+
+    private String fullUserPrompt(Map<String, Object> payload) {
+        int targetKcal = targetKcal(payload);
+        int lowerBound = (int) (targetKcal * 0.97);
+        int upperBound = (int) (targetKcal * 1.03);
+        String goalType = goalType(payload);
+
+        // 테마 및 세부 지침 정의
+        String themeInfo = switch (goalType) {
+            case "LOSE_WEIGHT" -> "다이어트 (체지방 감량, 고단백, 저탄수화물, 풍부한 식이섬유)";
+            case "GAIN_WEIGHT" -> "벌크업 (근육 및 체중 증량, 고단백, 고복합탄수화물, 높은 칼로리 밀도)";
+            default -> "유지 (건강한 균형식, 탄단지 5:3:2 비율 준수)";
+        };
+
+        return """
+                Create a %d-day meal skeleton from startDate=%s.
+
+                [Target User Data]
+                - Daily Goal: %d kcal (Target Tolerance: ±3%%)
+                - Goal Type: %s
+                - Diet Theme: %s
+                - Meals Per Day: %s (Ratio: Breakfast 30%% / Lunch 40%% / Dinner 30%%)
+                - Preferences: %s
+                - Allergies: %s
+
+                [High Calorie Rule]
+                IF targetKcal >= 2500:
+                  - YOU MUST INCLUDE: at least 200g of Rice/Carb AND 150g of Protein per meal.
+                  - Do not output small portions like 100g for main dishes.
+
+                [Execution Step-by-Step]
+                1. Calculate: First, determine the target kcal for each meal.
+                2. Selection: Choose diverse Korean ingredients based on the Diet Theme (%s).
+                3. Quantify: If targetKcal >= 2500, set Rice to 200g+ and Meat to 150g+. Adjust 'grams' to ensure total kcal reaches %d.
+                4. Verify: Sum all ingredient kcal for each day. If it is not within %d-%d kcal, re-adjust the portions before generating.
+                5. Diversity Check: Scan the plan to ensure no menu name is repeated.
+
+                [Schema]
+                {
+                  "days": [
+                    {
+                      "dayIndex": 1,
+                      "planDate": "yyyy-MM-dd",
+                      "validation": {
+                        "targetKcal": %d,
+                        "actualTotalKcal": 0,
+                        "estimatedCostKrw": 0,
+                        "isBudgetSafe": true
+                      },
+                      "meals": [
+                        {
+                          "mealTime": "BREAKFAST/LUNCH/DINNER/SNACK",
+                          "menuName": "Korean Menu Name",
+                          "reasoning": "Explain why this fits the theme and budget",
+                          "ingredients": [
+                            {"name": "Korean Name", "grams": 0, "kcal": 0}
+                          ]
+                        }
+                      ]
+                    }
+                  ]
+                }
+
+                Return JSON only.
+                """
+                .formatted(
+                        payload.get("totalDays"),
+                        payload.get("startDate"),
+                        targetKcal,
+                        goalType,
+                        themeInfo,
+                        payload.get("mealsPerDay"),
+                        payload.get("preferences"),
+                        payload.get("allergies"),
+                        themeInfo,
+                        targetKcal,
+                        lowerBound,
+                        upperBound,
+                        targetKcal);
+    }
+
+    private static String compactTheme(String goalType) {
+        return switch (goalType) {
+            case "LOSE_WEIGHT" -> "다이어트(고단백,저탄수,고식이섬유)";
+            case "GAIN_WEIGHT" -> "벌크업(고단백,고복합탄수,고칼로리밀도)";
+            default -> "유지(균형식,탄단지5:3:2)";
+        };
+    }
+
+    private static int targetKcal(Map<String, Object> payload) {
+        return toInt(payload.getOrDefault("targetCaloriesPerDay", 2000), 2000);
+    }
+
+    private static int toInt(Object v, int defaultValue) {
+        if (v == null) return defaultValue;
+        if (v instanceof Number n) return n.intValue();
+        try {
+            return Integer.parseInt(v.toString().trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static String goalType(Map<String, Object> payload) {
+        Object v = payload.getOrDefault("goalType", "MAINTAIN");
+        return v == null ? "MAINTAIN" : v.toString().toUpperCase(Locale.ROOT);
+    }
+}
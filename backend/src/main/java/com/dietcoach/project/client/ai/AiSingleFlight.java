@@ -0,0 +1,78 @@
+package com.dietcoach.project.client.ai;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 동일 요청 AI skeleton 호출 single-flight.
+ *
+ * - 같은 key 로 진행 중인 호출이 있으면 새로 호출하지 않고 그 CompletableFuture 결과를 같이 기다림
+ * - 첫 호출(leader)이 끝나면 key 를 비움 -> 이후 요청은 AiSkeletonCache 에서 hit
+ * - leader 실패 시 대기 중이던 요청도 같은 예외로 실패 (재시도는 각 호출자 몫)
+ */
+@Slf4j
+@Component
+public class AiSingleFlight {
+
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<String, CompletableFuture<AiMonthlySkeletonResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public AiSingleFlight(@Value("${mealplan.ai-coalesce.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public record Stats(long leaders, long coalesced, int inFlight) {
+    }
+
+    public AiMonthlySkeletonResponse execute(String key, Supplier<AiMonthlySkeletonResponse> call) {
+        if (!enabled) return call.get();
+
+        CompletableFuture<AiMonthlySkeletonResponse> mine = new CompletableFuture<>();
+        CompletableFuture<AiMonthlySkeletonResponse> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            long c = coalesced.incrementAndGet();
+            log.info("[AI_COALESCE] joined in-flight call key={} coalesced={} leaders={}", key, c, leaders.get());
+            return await(existing);
+        }
+
+        leaders.incrementAndGet();
+        try {
+            AiMonthlySkeletonResponse response = call.get();
+            mine.complete(response);
+            return response;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(leaders.get(), coalesced.get(), inFlight.size());
+    }
+
+    private AiMonthlySkeletonResponse await(CompletableFuture<AiMonthlySkeletonResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.dietcoach.project.client.ai;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse.AiDaySkeleton;
+import com.dietcoach.project.common.cache.SimpleTtlCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AI 식단 skeleton 시맨틱 캐시.
+ *
+ * - key: 칼로리 버킷(기본 50kcal) / mealsPerDay / goalType / 알레르기 / 선호 (정규화 후 정렬)
+ * - value: 같은 프로필로 생성된 날짜들의 pool (AI 응답이 쌓일수록 커짐, maxPoolDays 까지)
+ * - pool 이 minPoolDays 이상이면 hit: startDate(epochDay) 기준으로 회전한 구간을 잘라서 반환
+ *   -> 같은 플랜의 주차별 청크(7일 간격)는 서로 다른 날짜를 받고, 다른 사용자와는 pool 을 공유
+ *   재생성(payload 에 rotationSeed)은 같은 startDate 라도 기존 구간과 겹치지 않게 더 밀어서 반환
+ * - payload 에 avoidMenus(플랜 연장 시 직전 메뉴)가 있으면 그 메뉴가 들어간 날짜는 pool 에서 제외
+ * - 엔트리 수 제한 + TTL 은 SimpleTtlCache("ai.skeleton")
+ *   hit/miss 는 pool 크기/avoidMenus 까지 반영해서 여기서 정하고 cache.gets 에 한 번만 집계 (put 의 pool 조회는 집계 안 함)
+ */
+@Slf4j
+@Component
+public class AiSkeletonCache {
+
+    private final boolean enabled;
+    private final int calorieBucket;
+    private final int minPoolDays;
+    private final int maxPoolDays;
+
+    /** fingerprint -> 날짜 pool (불변 리스트, put 시 교체하면서 TTL 갱신) */
+    private final SimpleTtlCache<List<AiDaySkeleton>> pools;
+
+    public AiSkeletonCache(
+            @Value("${mealplan.ai-cache.enabled:true}") boolean enabled,
+            @Value("${mealplan.ai-cache.calorie-bucket:50}") int calorieBucket,
+            @Value("${mealplan.ai-cache.max-entries:500}") int maxEntries,
+            @Value("${mealplan.ai-cache.ttl-minutes:360}") long ttlMinutes,
+            @Value("${mealplan.ai-cache.min-pool-days:28}") int minPoolDays,
+            @Value("${mealplan.ai-cache.max-pool-days:60}") int maxPoolDays,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.calorieBucket = Math.max(1, calorieBucket);
+        this.minPoolDays = Math.max(1, minPoolDays);
+        this.maxPoolDays = Math.max(this.minPoolDays, maxPoolDays);
+        this.pools = SimpleTtlCache.<List<AiDaySkeleton>>builder("ai.skeleton")
+                .maximumSize(Math.max(1, maxEntries))
+                .ttl(Duration.ofMinutes(Math.max(1, ttlMinutes)))
+                .build();
+        this.pools.bindTo(meterRegistry);
+    }
+
+    public record Stats(long hits, long misses, long evictions, int entries) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    /** pool 이 충분하면 요청 구간만큼 회전된 skeleton, 아니면 null */
+    public AiMonthlySkeletonResponse get(Map<String, Object> payload) {
+        if (!enabled) return null;
+
+        String key = fingerprint(payload);
+        int totalDays = toInt(payload.get("totalDays"), 7);
+        LocalDate startDate = parseDate(payload.get("startDate"));
+
+        List<AiDaySkeleton> pool = pools.peek(key)
+                .filter(p -> p.size() >= Math.max(minPoolDays, totalDays))
+                .orElse(null);
+
+        // 플랜 연장: 직전 메뉴가 들어간 날짜는 빼고, 남은 날짜가 모자라면 miss
+        Set<String> avoid = avoidMenus(payload);
+        if (pool != null && !avoid.isEmpty()) {
+            pool = pool.stream().filter(d -> !containsMenu(d, avoid)).toList();
+            if (pool.size() < totalDays) pool = null;
+        }
+
+        pools.recordGet(pool != null);
+        if (pool == null) {
+            SimpleTtlCache.Stats s = pools.stats();
+            log.info("[AI_CACHE] miss key={} hits={} misses={}", key, s.hits(), s.misses());
+            return null;
+        }
+
+        int offset = (int) Math.floorMod(startDate.toEpochDay() + seedShift(payload.get("rotationSeed"), totalDays, pool.size()),
+                (long) pool.size());
+        List<AiDaySkeleton> window = new ArrayList<>(totalDays);
+        for (int i = 0; i < totalDays; i++) {
+            AiDaySkeleton src = pool.get((offset + i) % pool.size());
+            window.add(AiDaySkeleton.builder()
+                    .dayIndex(i + 1)
+                    .planDate(startDate.plusDays(i).toString())
+                    .validation(src.getValidation())
+                    .meals(src.getMeals())
+                    .totalCalories(src.getTotalCalories())
+                    .build());
+        }
+
+        SimpleTtlCache.Stats s = pools.stats();
+        log.info("[AI_CACHE] hit key={} poolDays={} offset={} hits={} misses={}", key, pool.size(), offset, s.hits(), s.misses());
+        return AiMonthlySkeletonResponse.builder().days(window).build();
+    }
+
+    /** AI 응답의 날짜들을 해당 프로필 pool 에 추가 (maxPoolDays 초과분은 오래된 것부터 제거) */
+    public void put(Map<String, Object> payload, AiMonthlySkeletonResponse response) {
+        if (!enabled || response == null || response.getDays() == null || response.getDays().isEmpty()) return;
+
+        String key = fingerprint(payload);
+        synchronized (pools) {
+            List<AiDaySkeleton> pool = new ArrayList<>(pools.peek(key).orElse(List.of()));
+            for (AiDaySkeleton day : response.getDays()) {
+                if (day != null && day.getMeals() != null && !day.getMeals().isEmpty()) pool.add(day);
+            }
+            if (pool.size() > maxPoolDays) pool = pool.subList(pool.size() - maxPoolDays, pool.size());
+            pools.put(key, List.copyOf(pool));
+        }
+    }
+
+    public Stats stats() {
+        SimpleTtlCache.Stats s = pools.stats();
+        return new Stats(s.hits(), s.misses(), s.evictions(), s.size());
+    }
+
+    String fingerprint(Map<String, Object> payload) {
+        int kcal = toInt(payload.get("targetCaloriesPerDay"), 2000);
+        int bucket = (int) Math.round(kcal / (double) calorieBucket) * calorieBucket;
+        return "kcal=" + bucket
+                + "|meals=" + toInt(payload.get("mealsPerDay"), 3)
+                + "|goal=" + Objects.toString(payload.get("goalType"), "MAINTAIN").toUpperCase(Locale.ROOT)
+                + "|allergies=" + normalize(payload.get("allergies"))
+                + "|prefs=" + normalize(payload.get("preferences"));
+    }
+
+    /**
+     * 재생성 요청의 추가 회전량. seed 가 없으면 0 (같은 startDate 면 같은 구간).
+     * pool 이 충분하면 [totalDays, poolSize - totalDays] 에서 골라 원래 구간과 한 날짜도 겹치지 않게 하고,
+     * 모자라면 최소 1일은 밀어서 같은 구간이 그대로 나오지 않게 한다.
+     */
+    static int seedShift(Object seed, int totalDays, int poolSize) {
+        if (seed == null || poolSize <= 1) return 0;
+        int s = toInt(seed, 0);
+        int disjoint = poolSize - 2 * totalDays + 1;
+        if (disjoint > 0) return totalDays + Math.floorMod(s, disjoint);
+        return 1 + Math.floorMod(s, poolSize - 1);
+    }
+
+    static Set<String> avoidMenus(Map<String, Object> payload) {
+        if (!(payload.get("avoidMenus") instanceof Collection<?> c) || c.isEmpty()) return Set.of();
+        Set<String> menus = new HashSet<>();
+        for (Object v : c) {
+            if (v != null && !v.toString().isBlank()) menus.add(v.toString().trim());
+        }
+        return menus;
+    }
+
+    static boolean containsMenu(AiDaySkeleton day, Set<String> menus) {
+        if (day.getMeals() == null) return false;
+        for (AiMonthlySkeletonResponse.AiMealSkeleton meal : day.getMeals()) {
+            if (meal.getMenuName() != null && menus.contains(meal.getMenuName().trim())) return true;
+        }
+        return false;
+    }
+
+    private static String normalize(Object value) {
+        if (!(value instanceof Collection<?> c) || c.isEmpty()) return "";
+        return String.join(",", c.stream()
+                .filter(Objects::nonNull)
+                .map(v -> v.toString().trim().toLowerCase(Locale.ROOT))
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .sorted()
+                .toList());
+    }
+
+    private static int toInt(Object v, int defaultValue) {
+        if (v instanceof Number n) return n.intValue();
+        if (v == null) return defaultValue;
+        try {
+            return Integer.parseInt(v.toString().trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static LocalDate parseDate(Object v) {
+        if (v == null) return LocalDate.now();
+        try {
+            return LocalDate.parse(v.toString());
+        } catch (Exception e) {
+            return LocalDate.now();
+        }
+    }
+}
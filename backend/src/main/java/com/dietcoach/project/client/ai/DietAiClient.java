@@ -1,17 +1,25 @@
 package com.dietcoach.project.client.ai;
 
-import java.util.List;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 
 import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.dietcoach.project.common.concurrent.CircuitBreaker;
+import com.dietcoach.project.common.concurrent.CircuitOpenException;
+import com.dietcoach.project.common.concurrent.IoLimiter;
+import com.dietcoach.project.common.concurrent.RequestTimeout;
+import com.dietcoach.project.common.metrics.MealPlanMetrics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,8 +28,19 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class DietAiClient {
 
+  // 한 끼 생성 호출의 서킷 타임아웃 latency bucket (skeleton 일수 bucket 과 분리)
+  private static final String MEAL_LATENCY_BUCKET = "meal";
+
   private final RestClient gmsOpenAiRestClient; // ✅ AiHttpConfig 빈 주입
   private final ObjectMapper objectMapper;
+  private final IoLimiter ioLimiter;
+  private final AiSkeletonCache skeletonCache;
+  private final GeminiResponseParser responseParser;
+  private final AiSingleFlight singleFlight;
+  private final CircuitBreaker circuitBreaker;
+  private final AiLatencyModel latencyModel;
+  private final AiPromptBuilder promptBuilder;
+  private final MealPlanMetrics metrics;
 
   @Value("${gms.openai.api-key:}")
   private String apiKey;
@@ -30,17 +49,43 @@ public class DietAiClient {
   private String model;
 
   public AiMonthlySkeletonResponse generateMonthlySkeleton(Map<String, Object> payload) {
+    return generateMonthlySkeleton(payload, true);
+  }
+
+  /**
+   * @param useCache false 면 skeleton 캐시를 건너뛰고 항상 AI 호출 (라이브러리 갱신용)
+   */
+  public AiMonthlySkeletonResponse generateMonthlySkeleton(Map<String, Object> payload, boolean useCache) {
     boolean keyPresent = apiKey != null && !apiKey.isBlank();
     int keyLen = (apiKey == null ? 0 : apiKey.length());
     log.info("[AI] generateMonthlySkeleton start model={}, apiKeyPresent={}, keyLen={}, keys={}",
         model, keyPresent, keyLen, payload.keySet());
+    // 같은 프로필(칼로리 버킷/끼니/목표/알레르기/선호)로 쌓인 skeleton pool 이 있으면 AI 호출 생략
+    AiMonthlySkeletonResponse cached = useCache ? skeletonCache.get(payload) : null;
+    if (cached != null) return cached;
+
+    // 같은 프로필/구간으로 이미 진행 중인 호출이 있으면 그 결과를 공유
+    return singleFlight.execute(flightKey(payload), () -> callWithRetry(payload));
+  }
+
+  private AiMonthlySkeletonResponse callWithRetry(Map<String, Object> payload) {
     // 1회 retry 포함 (총 2회 시도)
     try {
-      return callOnce(payload);
+      AiMonthlySkeletonResponse response = callOnce(payload);
+      skeletonCache.put(payload, response);
+      return response;
+    } catch (CircuitOpenException open) {
+      throw open;
     } catch (Exception first) {
       log.warn("[AI] first attempt failed: {}", first.getMessage());
+      // 실패가 누적돼 서킷이 열렸거나 probe 중이면 재시도하지 않고 바로 fallback
+      if (!circuitBreaker.isClosed()) {
+        throw new RuntimeException("AI_CALL_FAILED", first);
+      }
       try {
-        return callOnce(payload);
+        AiMonthlySkeletonResponse response = callOnce(payload);
+        skeletonCache.put(payload, response);
+        return response;
       } catch (Exception second) {
         log.warn("[AI] second attempt failed: {}", second.getMessage());
         throw new RuntimeException("AI_CALL_FAILED", second);
@@ -48,174 +93,150 @@ public class DietAiClient {
     }
   }
 
+  /** 캐시 fingerprint + 요청 구간 (응답의 planDate 가 구간에 따라 달라지므로) */
+  private String flightKey(Map<String, Object> payload) {
+    return skeletonCache.fingerprint(payload)
+        + "|start=" + payload.get("startDate")
+        + "|days=" + payload.get("totalDays")
+        + "|seed=" + payload.get("rotationSeed")
+        + "|avoid=" + payload.get("avoidMenus");
+  }
+
   private AiMonthlySkeletonResponse callOnce(Map<String, Object> payload) throws Exception {
-    String system = """
-        Role: Professional Clinical Dietitian & Budget Analyst.
-        Constraint: You must think step-by-step to calculate nutrition and cost before outputting JSON.
-
-        Rules:
-        1. VARIETY: NEVER repeat the same 'menuName' or same meal combination across the plan. Do not use the same ingredient twice in one meal (e.g. no Chicken Breast twice in Lunch).
-        2. CALORIE PRECISION: 'actualTotalKcal' MUST be the exact sum of all ingredients' 'kcal' in that day.
-        3. STANDARD DATA: Use standard nutritional data for COOKED food (e.g., Cooked Rice 100g = ~130kcal, Cooked Chicken Breast 100g = ~110kcal, Veggies 100g = ~30kcal).
-        4. ALLERGY SAFETY: Strictly exclude ingredients based on the provided allergy list. If Milk is listed, exclude: milk, cheese, yogurt, butter, cream, and any dairy.
-        5. PORTION REALISM: For high-calorie goals (e.g., 2800kcal), increase portion sizes (e.g., 200-300g of rice, 150-200g of protein) instead of adding unrealistic side dishes.
-        6. JSON ONLY: No markdown, no conversational text. Return only the raw JSON.
-        7. DATA TYPE: Ensure 'grams', 'kcal', 'targetKcal', 'actualTotalKcal', and 'estimatedCostKrw' are NUMBERS, not strings.
-        8. LANGUAGE: All names and reasoning must be in Korean (Hangul).
-        """;
-
-    String userPrompt = toUserPrompt(payload);
-    String combinedPrompt = system + "\n\n" + userPrompt;
-
-    // Gemini Native Payload Structure
-    Map<String, Object> body = Map.of(
-        "contents", List.of(
-            Map.of(
-                "role", "user",
-                "parts", List.of(Map.of("text", combinedPrompt)))),
-        "generationConfig", Map.of(
-            "response_mime_type", "application/json"));
+    // 고정 prefix(systemInstruction)는 캐시된 문자열, 청크별 값만 user 메시지로
+    Map<String, Object> body = promptBuilder.buildBody(payload);
+    String reqBody = objectMapper.writeValueAsString(body);
+    logRequestSize(payload, reqBody);
+
+    // 응답 body 를 String 으로 받지 않고 InputStream 에서 바로 skeleton 까지 파싱
+    int totalDays = toInt(payload.get("totalDays"));
+    return postGenerateContent("skeleton", latencyBucket(totalDays), reqBody, (counted, startMs) -> {
+      AiMonthlySkeletonResponse parsed = responseParser.parseSkeleton(counted);
+      // 청크 크기 자동 조정용 latency 샘플 (요청 일수, 소요 시간, 응답 크기)
+      latencyModel.record(totalDays, System.currentTimeMillis() - startMs, counted.count);
+      return parsed;
+    });
+  }
 
+  /**
+   * 한 끼만 생성 (replaceMeal 용). 하루치를 만들고 버리는 대신 한 끼 스키마로 요청해서 출력 토큰/지연을 줄인다.
+   * 사용자가 같은 끼니를 다시 바꾸는 요청이라 skeleton 캐시 / single-flight / 재시도는 쓰지 않고,
+   * 실패하면 호출부가 하루 생성 경로로 fallback 한다. (서킷/동시성 제한은 동일하게 적용)
+   * 적응형 타임아웃의 latency 는 "meal" bucket 에 따로 모은다. (잦은 한 끼 호출이 skeleton 타임아웃을 끌어내리지 않게)
+   */
+  public AiMonthlySkeletonResponse.AiMealSkeleton generateMealSkeleton(Map<String, Object> payload) throws Exception {
+    Map<String, Object> body = promptBuilder.buildMealBody(payload);
     String reqBody = objectMapper.writeValueAsString(body);
-    log.info("[AI] request body size={}", reqBody.length());
+    log.info("[AI] meal request mealTime={} body size={} inputTokens~{}",
+        payload.get("mealTime"), reqBody.length(), promptBuilder.estimateMealInputTokens(payload));
+
+    return postGenerateContent("meal", MEAL_LATENCY_BUCKET, reqBody, (counted, startMs) -> {
+      AiMonthlySkeletonResponse.AiMealSkeleton meal = responseParser.parseMeal(counted);
+      log.info("[AI] meal response bytes={} tookMs={}", counted.count, System.currentTimeMillis() - startMs);
+      return meal;
+    });
+  }
 
-    // Call Gemini API (Fixed to match GMS Guideline)
-    String respBody = gmsOpenAiRestClient.post()
-        .uri(uriBuilder -> uriBuilder
-            .path("/generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent")
-            .queryParam("key", apiKey)
-            .build())
-        .contentType(MediaType.APPLICATION_JSON)
-        .body(reqBody)
-        .retrieve()
-        .body(String.class);
-
-    if (respBody == null || respBody.isBlank()) {
-      throw new RuntimeException("AI response empty");
-    }
+  @FunctionalInterface
+  private interface ResponseReader<T> {
+    T read(CountingInputStream body, long startMs) throws IOException;
+  }
 
-    // Parse Gemini Response
-    JsonNode root = objectMapper.readTree(respBody);
+  /**
+   * skeleton 요청 일수별 latency bucket (1, 2, 3~4, 5~8, 9~16, 17~).
+   * bucket 안에서 일수 차이가 2배 이내라 p95 * multiplier 가 가장 긴 호출도 덮는다.
+   */
+  static String latencyBucket(int totalDays) {
+    if (totalDays > 16) return "days-17+";
+    int upper = 1;
+    while (upper < totalDays) upper <<= 1;
+    return "days-" + upper;
+  }
 
-    // Structure: candidates[0].content.parts[0].text
-    JsonNode candidates = root.path("candidates");
-    if (candidates.isEmpty()) {
-      throw new RuntimeException("AI candidates empty");
+  /**
+   * @param kind 지표 태그 (skeleton | meal), permit 대기 시간도 포함해서 측정
+   * @param latencyBucket 서킷 타임아웃 latency 구분 (호출 크기)
+   */
+  private <T> T postGenerateContent(String kind, String latencyBucket, String reqBody, ResponseReader<T> reader) {
+    Timer.Sample sample = metrics.start();
+    String outcome = "error";
+    try {
+      T result = callGemini(latencyBucket, reqBody, reader);
+      outcome = "success";
+      return result;
+    } catch (CircuitOpenException e) {
+      outcome = "circuit_open";
+      throw e;
+    } finally {
+      metrics.recordAiCall(sample, kind, outcome);
     }
+  }
 
-    String content = candidates.get(0).path("content").path("parts").get(0).path("text").asText();
+  private <T> T callGemini(String latencyBucket, String reqBody, ResponseReader<T> reader) {
+    // Call Gemini API (Fixed to match GMS Guideline)
+    // 서킷 OPEN 이면 호출 없이 CircuitOpenException, 타임아웃은 같은 bucket 의 최근 latency 기반으로 요청 자체에 건다
+    // (generateContent 는 생성이 끝나야 응답을 보내서 response timeout 이 사실상 전체 deadline)
+    // (permit 을 쥔 스레드에서 직접 호출 -> 타임아웃 후 남는 호출 없이 Gemini 동시성이 limiter 안에 머묾)
+    return ioLimiter.call(IoLimiter.Stage.GEMINI, () -> {
+      long startMs = System.currentTimeMillis(); // permit 대기 시간은 제외
+      return circuitBreaker.call(latencyBucket, timeoutMs -> RequestTimeout.with(timeoutMs, () -> gmsOpenAiRestClient.post()
+          .uri(uriBuilder -> uriBuilder
+              .path("/generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent")
+              .queryParam("key", apiKey)
+              .build())
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(reqBody)
+          .exchange((request, response) -> {
+            if (response.getStatusCode().isError()) {
+              throw new RestClientResponseException("AI http error", response.getStatusCode(),
+                  response.getStatusText(), response.getHeaders(), response.getBody().readAllBytes(), null);
+            }
+            return reader.read(new CountingInputStream(response.getBody()), startMs);
+          })));
+    });
+  }
 
-    if (content == null || content.isBlank()) {
-      throw new RuntimeException("AI content empty");
+  private static int toInt(Object v) {
+    if (v instanceof Number n) return n.intValue();
+    try {
+      return v == null ? 0 : Integer.parseInt(v.toString().trim());
+    } catch (NumberFormatException e) {
+      return 0;
     }
+  }
 
-    String json = extractJsonOnly(content);
-
-    log.info("[AI] json preview={}", json.length() > 200 ? json.substring(0, 200) : json);
+  /** 응답 body 크기 측정용 */
+  private static final class CountingInputStream extends FilterInputStream {
+    private long count;
 
-    return objectMapper.readValue(json, AiMonthlySkeletonResponse.class);
-  }
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
 
-  private String toUserPrompt(Map<String, Object> payload) {
-    int targetKcal = (int) payload.getOrDefault("targetCaloriesPerDay", 2000);
-    int lowerBound = (int) (targetKcal * 0.97);
-    int upperBound = (int) (targetKcal * 1.03);
-    String goalType = (String) payload.getOrDefault("goalType", "MAINTAIN");
-
-    // 테마 및 세부 지침 정의
-    String themeInfo = switch (goalType) {
-      case "LOSE_WEIGHT" -> "다이어트 (체지방 감량, 고단백, 저탄수화물, 풍부한 식이섬유)";
-      case "GAIN_WEIGHT" -> "벌크업 (근육 및 체중 증량, 고단백, 고복합탄수화물, 높은 칼로리 밀도)";
-      default -> "유지 (건강한 균형식, 탄단지 5:3:2 비율 준수)";
-    };
-
-    return """
-        Create a %d-day meal skeleton from startDate=%s.
-
-        [Target User Data]
-        - Daily Goal: %d kcal (Target Tolerance: ±3%%)
-        - Goal Type: %s
-        - Diet Theme: %s
-        - Meals Per Day: %s (Ratio: Breakfast 30%% / Lunch 40%% / Dinner 30%%)
-        - Preferences: %s
-        - Allergies: %s
-
-        [High Calorie Rule]
-        IF targetKcal >= 2500:
-          - YOU MUST INCLUDE: at least 200g of Rice/Carb AND 150g of Protein per meal.
-          - Do not output small portions like 100g for main dishes.
-
-        [Execution Step-by-Step]
-        1. Calculate: First, determine the target kcal for each meal.
-        2. Selection: Choose diverse Korean ingredients based on the Diet Theme (%s).
-        3. Quantify: If targetKcal >= 2500, set Rice to 200g+ and Meat to 150g+. Adjust 'grams' to ensure total kcal reaches %d.
-        4. Verify: Sum all ingredient kcal for each day. If it is not within %d-%d kcal, re-adjust the portions before generating.
-        5. Diversity Check: Scan the plan to ensure no menu name is repeated.
-
-        [Schema]
-        {
-          "days": [
-            {
-              "dayIndex": 1,
-              "planDate": "yyyy-MM-dd",
-              "validation": {
-                "targetKcal": %d,
-                "actualTotalKcal": 0,
-                "estimatedCostKrw": 0,
-                "isBudgetSafe": true
-              },
-              "meals": [
-                {
-                  "mealTime": "BREAKFAST/LUNCH/DINNER/SNACK",
-                  "menuName": "Korean Menu Name",
-                  "reasoning": "Explain why this fits the theme and budget",
-                  "ingredients": [
-                    {"name": "Korean Name", "grams": 0, "kcal": 0}
-                  ]
-                }
-              ]
-            }
-          ]
-        }
-
-        Return JSON only.
-        """
-        .formatted(
-            payload.get("totalDays"),
-            payload.get("startDate"),
-            targetKcal,
-            goalType,
-            themeInfo,
-            payload.get("mealsPerDay"),
-            payload.get("preferences"),
-            payload.get("allergies"),
-            themeInfo,
-            targetKcal,
-            lowerBound,
-            upperBound,
-            targetKcal);
-  }
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) count++;
+      return b;
+    }
 
-  /**
-   * 모델이 가끔 ```json ... ``` 같은 펜스를 붙이는 경우 제거
-   * + 앞뒤 잡텍스트가 섞여도 JSON object 부분만 최대한 추출
-   */
-  private String extractJsonOnly(String s) {
-    String t = s.trim();
-
-    // ```json ... ``` or ``` ... ```
-    if (t.startsWith("```")) {
-      t = t.replaceFirst("^```(json)?", "").trim();
-      if (t.endsWith("```"))
-        t = t.substring(0, t.length() - 3).trim();
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) count += n;
+      return n;
     }
+  }
 
-    // JSON object 범위만 잘라내기 (첫 '{' ~ 마지막 '}')
-    int start = t.indexOf('{');
-    int end = t.lastIndexOf('}');
-    if (start >= 0 && end > start) {
-      return t.substring(start, end + 1).trim();
+  private void logRequestSize(Map<String, Object> payload, String reqBody) throws Exception {
+    int tokens = promptBuilder.estimateInputTokens(payload);
+    if (promptBuilder.mode() == AiPromptBuilder.Mode.COMPACT && promptBuilder.logComparison()) {
+      int fullSize = objectMapper.writeValueAsString(promptBuilder.fullBody(payload)).length();
+      log.info("[AI] request body size={} (full={}, -{}%) inputTokens~{} mode={}",
+          reqBody.length(), fullSize, Math.round(100.0 * (fullSize - reqBody.length()) / fullSize),
+          tokens, promptBuilder.mode());
+      return;
     }
-    return t;
+    log.info("[AI] request body size={} inputTokens~{} mode={}", reqBody.length(), tokens, promptBuilder.mode());
   }
 }
@@ -0,0 +1,106 @@
+package com.dietcoach.project.client.ai;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gemini generateContent 응답을 스트리밍으로 파싱.
+ *
+ * 응답 전체를 String -> JsonNode 트리 -> text String -> substring 으로 복사하지 않고,
+ * InputStream 위에서 candidates[0].content.parts[0].text 까지 토큰만 건너뛴 뒤
+ * text 토큰의 char 버퍼를 그대로 skeleton 파서 입력으로 넘긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeminiResponseParser {
+
+    private static final int PREVIEW_LENGTH = 200;
+
+    private final ObjectMapper objectMapper;
+
+    public AiMonthlySkeletonResponse parseSkeleton(InputStream in) throws IOException {
+        return parseText(in, AiMonthlySkeletonResponse.class);
+    }
+
+    /** 끼니 단위 생성 응답 ({"mealTime", "menuName", "ingredients"}) */
+    public AiMonthlySkeletonResponse.AiMealSkeleton parseMeal(InputStream in) throws IOException {
+        return parseText(in, AiMonthlySkeletonResponse.AiMealSkeleton.class);
+    }
+
+    private <T> T parseText(InputStream in, Class<T> type) throws IOException {
+        try (JsonParser p = objectMapper.getFactory().createParser(in)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("AI response empty");
+            }
+            // Structure: candidates[0].content.parts[0].text
+            if (!seekField(p, "candidates")
+                    || p.currentToken() != JsonToken.START_ARRAY
+                    || p.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("AI candidates empty");
+            }
+            if (!seekField(p, "content") || p.currentToken() != JsonToken.START_OBJECT
+                    || !seekField(p, "parts") || p.currentToken() != JsonToken.START_ARRAY
+                    || p.nextToken() != JsonToken.START_OBJECT
+                    || !seekField(p, "text") || p.currentToken() != JsonToken.VALUE_STRING) {
+                throw new RuntimeException("AI content empty");
+            }
+
+            // 버퍼는 다음 토큰 전까지만 유효 -> 여기서 바로 파싱
+            char[] chars = p.getTextCharacters();
+            int offset = p.getTextOffset();
+            int end = offset + p.getTextLength();
+
+            // 모델이 ```json 펜스나 잡텍스트를 붙여도 첫 '{' ~ 마지막 '}' 만 사용
+            int start = offset;
+            while (start < end && chars[start] != '{') start++;
+            int last = end - 1;
+            while (last > start && chars[last] != '}') last--;
+            if (start >= end || last <= start) {
+                if (isBlank(chars, offset, end)) throw new RuntimeException("AI content empty");
+                start = offset;
+                last = end - 1;
+            }
+            int length = last - start + 1;
+
+            if (log.isInfoEnabled()) {
+                log.info("[AI] json preview={}", new String(chars, start, Math.min(length, PREVIEW_LENGTH)));
+            }
+            try (JsonParser text = objectMapper.getFactory().createParser(chars, start, length)) {
+                return objectMapper.readValue(text, type);
+            }
+        }
+    }
+
+    /**
+     * 현재 object 안에서 name 필드를 찾아 그 값 토큰에 위치시킨다. 다른 필드 값은 skipChildren 으로 건너뜀.
+     */
+    private boolean seekField(JsonParser p, String name) throws IOException {
+        JsonToken t;
+        while ((t = p.nextToken()) != null && t != JsonToken.END_OBJECT) {
+            if (t != JsonToken.FIELD_NAME) continue;
+            boolean match = name.equals(p.currentName());
+            p.nextToken();
+            if (match) return true;
+            p.skipChildren();
+        }
+        return false;
+    }
+
+    private boolean isBlank(char[] chars, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(chars[i])) return false;
+        }
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package com.dietcoach.project.client.shopping;
 
+import com.dietcoach.project.common.concurrent.IoLimiter;
 import com.dietcoach.project.domain.ShoppingProduct;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +31,7 @@ public class ElevenstShoppingClient implements ShoppingClient {
 
     private final RestTemplate restTemplate;
     private final ProductWeightParser weightParser;
+    private final IoLimiter ioLimiter;
 
     @Value("${elevenst.api.base-url:}")
     private String baseUrl;
@@ -133,7 +135,8 @@ public class ElevenstShoppingClient implements ShoppingClient {
         URI uri = builder.build().encode(StandardCharsets.UTF_8).toUri();
         log.debug("[11st] Request URI: {}", uri);
 
-        String response = restTemplate.getForObject(uri, String.class);
+        String response = ioLimiter.call(IoLimiter.Stage.ELEVENST,
+                () -> restTemplate.getForObject(uri, String.class));
         if (response == null || response.isBlank())
             return List.of();
 
@@ -0,0 +1,457 @@
+package com.dietcoach.project.common.cache;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 크기/가중치 제한 + 빈도 기반 교체(W-TinyLFU) 로컬 캐시.
+ *
+ * - window LRU(가중치 1%) -> main SLRU(probation 20% / protected 80%)
+ * - window 에서 밀려난 후보는 count-min sketch 빈도로 main 의 희생자와 비교해서 더 자주 쓰인 쪽만 남김
+ *   -> 한 번 훑고 지나가는 키(새 재료명, 다른 가격 버킷)가 자주 쓰는 키를 밀어내지 않음
+ * - sketch 는 sampleSize 마다 절반으로 줄여(aging) 예전 인기 키가 계속 남지 않게 함
+ * - maximumSize(엔트리 수) / maximumWeight(weigher 합) 중 먼저 닿는 쪽으로 제한
+ * - expireAfterWrite: 조회 시 만료 확인 + 공유 daemon 스레드가 주기적으로 만료 항목 정리
+ * - hit/miss/eviction/expiration 통계
+ *
+ * 모든 연산은 하나의 lock 으로 직렬화 (캐시당 수천 개 규모, 값 계산은 lock 밖에서 호출부가 수행)
+ */
+@Slf4j
+public class BoundedCache<K, V> implements AutoCloseable {
+
+    private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "bounded-cache-sweeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private enum Queue { WINDOW, PROBATION, PROTECTED }
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        int weight;
+        long expireAt;
+        Queue queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value, int weight, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /** 접근 순서 이중 연결 리스트 (head = 가장 오래 전 접근) */
+    private static final class AccessOrder<K, V> {
+        Node<K, V> head;
+        Node<K, V> tail;
+        long weight;
+
+        void addLast(Node<K, V> n) {
+            n.prev = tail;
+            n.next = null;
+            if (tail == null) head = n;
+            else tail.next = n;
+            tail = n;
+            weight += n.weight;
+        }
+
+        void remove(Node<K, V> n) {
+            if (n.prev == null) head = n.next;
+            else n.prev.next = n.next;
+            if (n.next == null) tail = n.prev;
+            else n.next.prev = n.prev;
+            n.prev = null;
+            n.next = null;
+            weight -= n.weight;
+        }
+
+        void moveToLast(Node<K, V> n) {
+            remove(n);
+            addLast(n);
+        }
+    }
+
+    public record Stats(String name, long hits, long misses, long evictions, long expirations,
+                        int size, long weightedSize) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final String name;
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final long windowMaxWeight;
+    private final long protectedMaxWeight;
+    private final long ttlMillis;
+    private final ToIntBiFunction<K, V> weigher;
+    private final LongSupplier clock;
+    private final FrequencySketch sketch;
+
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+    private final AccessOrder<K, V> protectedQueue = new AccessOrder<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    private final ScheduledFuture<?> sweepTask;
+
+    private BoundedCache(Builder<K, V> b) {
+        this.name = b.name;
+        this.maximumSize = b.maximumSize;
+        this.maximumWeight = b.maximumWeight;
+        long capacity = b.maximumWeight != Long.MAX_VALUE ? b.maximumWeight : b.maximumSize;
+        this.windowMaxWeight = Math.max(1, capacity / 100);
+        this.protectedMaxWeight = Math.max(1, (long) ((capacity - windowMaxWeight) * 0.8));
+        this.ttlMillis = b.expireAfterWrite == null ? Long.MAX_VALUE : b.expireAfterWrite.toMillis();
+        this.weigher = b.weigher;
+        this.clock = b.clock;
+        // sketch 폭은 예상 엔트리 수 기준 (가중치만 지정하면 가중치 합, 최대 2^16)
+        this.sketch = new FrequencySketch((int) Math.min(Math.min(b.maximumSize, b.maximumWeight), 1 << 16));
+        this.sweepTask = b.sweepInterval != null ? scheduleSweep(this, b.sweepInterval) : null;
+    }
+
+    public static <K, V> Builder<K, V> builder(String name) {
+        return new Builder<>(name);
+    }
+
+    /** 없거나 만료면 null */
+    public V get(K key) {
+        return get(key, true);
+    }
+
+    /**
+     * get 과 같지만 hit/miss 를 집계하지 않음 (빈도/접근 순서는 반영).
+     * 호출부가 값 내용까지 보고 hit 여부를 정하면 recordGet 으로 직접 집계한다.
+     */
+    public V getWithoutStats(K key) {
+        return get(key, false);
+    }
+
+    public void recordGet(boolean hit) {
+        synchronized (this) {
+            if (hit) hits++;
+            else misses++;
+        }
+    }
+
+    private V get(K key, boolean recordStats) {
+        synchronized (this) {
+            sketch.increment(key);
+            Node<K, V> n = data.get(key);
+            if (n == null) {
+                if (recordStats) misses++;
+                return null;
+            }
+            if (clock.getAsLong() >= n.expireAt) {
+                unlink(n);
+                expirations++;
+                if (recordStats) misses++;
+                return null;
+            }
+            if (recordStats) hits++;
+            onAccess(n);
+            return n.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlMillis);
+    }
+
+    /** 항목별 TTL (Long.MAX_VALUE 면 만료 없음) */
+    public void put(K key, V value, long entryTtlMillis) {
+        int weight = Math.max(1, weigher.applyAsInt(key, value));
+        long expireAt = entryTtlMillis == Long.MAX_VALUE ? Long.MAX_VALUE : clock.getAsLong() + entryTtlMillis;
+        synchronized (this) {
+            Node<K, V> n = data.get(key);
+            if (n != null) {
+                // 가중치 변경분 반영 후 접근으로 취급
+                accessOrder(n.queue).weight += weight - n.weight;
+                n.value = value;
+                n.weight = weight;
+                n.expireAt = expireAt;
+                onAccess(n);
+            } else {
+                sketch.increment(key);
+                n = new Node<>(key, value, weight, expireAt);
+                n.queue = Queue.WINDOW;
+                data.put(key, n);
+                window.addLast(n);
+            }
+            evict();
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (this) {
+            Node<K, V> n = data.get(key);
+            if (n != null) unlink(n);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            data.clear();
+            window.head = window.tail = null;
+            probation.head = probation.tail = null;
+            protectedQueue.head = protectedQueue.tail = null;
+            window.weight = probation.weight = protectedQueue.weight = 0;
+        }
+    }
+
+    /** 만료 항목 정리, 정리한 개수 반환 (백그라운드 sweeper 가 주기적으로 호출) */
+    public int cleanUp() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        synchronized (this) {
+            Iterator<Node<K, V>> it = data.values().iterator();
+            while (it.hasNext()) {
+                Node<K, V> n = it.next();
+                if (now >= n.expireAt) {
+                    accessOrder(n.queue).remove(n);
+                    it.remove();
+                    removed++;
+                }
+            }
+            expirations += removed;
+        }
+        return removed;
+    }
+
+    public Stats stats() {
+        synchronized (this) {
+            return new Stats(name, hits, misses, evictions, expirations, data.size(), weightedSize());
+        }
+    }
+
+    public int size() {
+        synchronized (this) {
+            return data.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (sweepTask != null) sweepTask.cancel(false);
+    }
+
+    // ---------------------------------------------------------------------
+
+    private long weightedSize() {
+        return window.weight + probation.weight + protectedQueue.weight;
+    }
+
+    private AccessOrder<K, V> accessOrder(Queue q) {
+        return switch (q) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            case PROTECTED -> protectedQueue;
+        };
+    }
+
+    private void onAccess(Node<K, V> n) {
+        switch (n.queue) {
+            case WINDOW -> window.moveToLast(n);
+            case PROTECTED -> protectedQueue.moveToLast(n);
+            case PROBATION -> {
+                // probation 에서 다시 쓰이면 protected 로 승격, 넘치면 protected 의 가장 오래된 항목을 probation 으로
+                probation.remove(n);
+                n.queue = Queue.PROTECTED;
+                protectedQueue.addLast(n);
+                while (protectedQueue.weight > protectedMaxWeight && protectedQueue.head != n) {
+                    Node<K, V> demoted = protectedQueue.head;
+                    protectedQueue.remove(demoted);
+                    demoted.queue = Queue.PROBATION;
+                    probation.addLast(demoted);
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        // window 초과분은 main(probation) 후보로 이동
+        while (window.weight > windowMaxWeight && window.head != null) {
+            Node<K, V> candidate = window.head;
+            window.remove(candidate);
+            candidate.queue = Queue.PROBATION;
+            probation.addLast(candidate);
+        }
+
+        while (data.size() > maximumSize || weightedSize() > maximumWeight) {
+            Node<K, V> victim = probation.head != null ? probation.head
+                    : protectedQueue.head != null ? protectedQueue.head
+                    : window.head;
+            Node<K, V> candidate = probation.tail;
+            Node<K, V> evicted = victim;
+            // admission: window 에서 막 넘어온 후보가 희생자보다 자주 쓰였을 때만 희생자를 내보냄
+            if (candidate != null && candidate != victim && victim.queue == Queue.PROBATION) {
+                evicted = sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+            }
+            unlink(evicted);
+            evictions++;
+        }
+    }
+
+    private void unlink(Node<K, V> n) {
+        accessOrder(n.queue).remove(n);
+        data.remove(n.key);
+    }
+
+    private static ScheduledFuture<?> scheduleSweep(BoundedCache<?, ?> cache, Duration interval) {
+        // 캐시를 강하게 잡지 않음: 캐시가 GC 되면 다음 실행에서 스스로 취소
+        WeakReference<BoundedCache<?, ?>> ref = new WeakReference<>(cache);
+        AtomicReference<ScheduledFuture<?>> self = new AtomicReference<>();
+        String name = cache.name;
+        long ms = Math.max(1, interval.toMillis());
+        ScheduledFuture<?> future = SWEEPER.scheduleWithFixedDelay(() -> {
+            BoundedCache<?, ?> c = ref.get();
+            if (c == null) {
+                ScheduledFuture<?> f = self.get();
+                if (f != null) f.cancel(false);
+                return;
+            }
+            try {
+                int removed = c.cleanUp();
+                if (removed > 0 && log.isDebugEnabled()) log.debug("[CACHE] sweep name={} expired={} stats={}", name, removed, c.stats());
+            } catch (Exception e) {
+                log.warn("[CACHE] sweep failed name={} reason={}", name, e.getMessage());
+            }
+        }, ms, ms, TimeUnit.MILLISECONDS);
+        self.set(future);
+        return future;
+    }
+
+    /**
+     * 4개 해시 행의 count-min sketch (카운터 상한 15).
+     * 증가 횟수가 sampleSize 에 닿으면 전체를 절반으로 줄여 최근 빈도 위주로 유지.
+     */
+    static final class FrequencySketch {
+        private static final int[] SEEDS = {0x97cb3127, 0x7b9a4c1d, 0x2f6e1e0b, 0x5bd1e995};
+        private static final int MAX_COUNT = 15;
+
+        private final int[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int width = Integer.highestOneBit(Math.max(16, expectedEntries) - 1) << 1;
+            this.table = new int[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * width;
+        }
+
+        int frequency(Object key) {
+            int h = spread(key);
+            int min = MAX_COUNT;
+            for (int i = 0; i < SEEDS.length; i++) {
+                min = Math.min(min, table[i][index(h, i)]);
+            }
+            return min;
+        }
+
+        void increment(Object key) {
+            int h = spread(key);
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int idx = index(h, i);
+                if (table[i][idx] < MAX_COUNT) {
+                    table[i][idx]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) reset();
+        }
+
+        private void reset() {
+            for (int[] row : table) {
+                for (int j = 0; j < row.length; j++) row[j] >>>= 1;
+            }
+            additions /= 2;
+        }
+
+        private int index(int h, int row) {
+            int x = (h ^ SEEDS[row]) * 0x9e3779b9;
+            return (x ^ (x >>> 16)) & mask;
+        }
+
+        private static int spread(Object key) {
+            int h = key.hashCode();
+            return h ^ (h >>> 16);
+        }
+    }
+
+    public static final class Builder<K, V> {
+        private final String name;
+        private long maximumSize = Long.MAX_VALUE;
+        private long maximumWeight = Long.MAX_VALUE;
+        private ToIntBiFunction<K, V> weigher = (k, v) -> 1;
+        private Duration expireAfterWrite;
+        private Duration sweepInterval = Duration.ofMinutes(1);
+        private LongSupplier clock = System::currentTimeMillis;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder<K, V> maximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder<K, V> maximumWeight(long maximumWeight, ToIntBiFunction<K, V> weigher) {
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(Duration ttl) {
+            this.expireAfterWrite = ttl;
+            return this;
+        }
+
+        /** 기본 1분. null 이면 백그라운드 정리 없음 (조회 시 만료 확인만) */
+        public Builder<K, V> sweepInterval(Duration interval) {
+            this.sweepInterval = interval;
+            return this;
+        }
+
+        /** 테스트용 시계 (epoch millis) */
+        public Builder<K, V> clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public BoundedCache<K, V> build() {
+            if (maximumSize == Long.MAX_VALUE && maximumWeight == Long.MAX_VALUE) {
+                throw new IllegalStateException("BoundedCache requires maximumSize or maximumWeight: " + name);
+            }
+            if (maximumSize <= 0 || maximumWeight <= 0) {
+                throw new IllegalArgumentException("cache bounds must be positive: " + name);
+            }
+            return new BoundedCache<>(this);
+        }
+    }
+}
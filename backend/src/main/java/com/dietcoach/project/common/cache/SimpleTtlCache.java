@@ -1,27 +1,343 @@
 package com.dietcoach.project.common.cache;
 
-import java.time.Instant;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
 
-public class SimpleTtlCache<V> {
-    private static class Entry<V> {
-        V value; long expireAt;
-        Entry(V v, long e) { value=v; expireAt=e; }
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * String key 로컬 TTL 캐시 (loader / refresh-ahead 포함).
+ *
+ * - 저장/교체/만료는 BoundedCache (크기·가중치 제한, W-TinyLFU, 조회 시 만료 확인 + 백그라운드 정리)
+ * - get(key, loader): miss 면 key 당 한 번만 계산, 동시에 같은 key 를 요청한 스레드는 그 결과를 같이 기다림
+ *   (loader 가 null 을 반환하면 캐시하지 않음, 예외는 대기자 모두에게 전달)
+ * - refresh-ahead: TTL 의 refreshAheadRatio 가 지난 항목은 기존 값을 바로 반환하고 백그라운드에서 다시 계산
+ *   -> 인기 key 는 만료로 인한 miss 없이 계속 갱신됨. 갱신 실패 시 기존 값이 남은 TTL 동안 유지
+ * - stale-while-revalidate: maxStale 을 주면 TTL 이 지난 뒤에도 maxStale 까지는 기존 값을 바로 반환하고
+ *   백그라운드에서 다시 계산 (갱신은 key 당 하나만). maxStale 도 지나면 일반 miss 처럼 동기 로딩
+ *   get(key) (loader 없음) 는 TTL 안의 값만 반환
+ * - stats(): hit/miss/eviction/expiration/load/refresh, bindTo(registry) 로 주입받은 MeterRegistry 에 cache.* 로 노출
+ *   (Spring 빈은 생성 후 bindTo, management 포트의 /actuator/prometheus 에서 조회. bindTo 하지 않으면 등록 안 함)
+ */
+@Slf4j
+public class SimpleTtlCache<V> implements AutoCloseable {
+
+    private record Entry<V>(V value, long writtenAt, long ttlMillis) {
     }
-    private final ConcurrentHashMap<String, Entry<V>> map = new ConcurrentHashMap<>();
 
-    public Optional<V> get(String key) {
-        Entry<V> e = map.get(key);
-        if (e == null) return Optional.empty();
-        if (Instant.now().toEpochMilli() > e.expireAt) {
-            map.remove(key);
-            return Optional.empty();
+    public record Stats(String name, long hits, long misses, long evictions, long expirations, int size,
+                        long staleHits, long loads, long loadFailures, long coalesced, long refreshes, long refreshFailures) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final String name;
+    private final long ttlMillis;
+    private final double refreshAheadRatio;
+    private final long maxStaleMillis;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+    private final BoundedCache<String, Entry<V>> store;
+    private final ConcurrentHashMap<String, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    // 백그라운드 갱신 중인 key (동기 로딩은 이걸 기다리지 않음 -> executor 가 작업을 버려도 miss 경로는 막히지 않음)
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    // bindTo 로 등록한 meter (close 시 제거)
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+    private volatile MeterRegistry registry;
+
+    private SimpleTtlCache(Builder<V> b) {
+        this.name = b.name;
+        this.ttlMillis = b.ttl.toMillis();
+        this.refreshAheadRatio = b.refreshAheadRatio;
+        this.maxStaleMillis = b.maxStale.toMillis();
+        this.refreshExecutor = b.refreshExecutor;
+        this.clock = b.clock;
+
+        BoundedCache.Builder<String, Entry<V>> store = BoundedCache.<String, Entry<V>>builder(b.name)
+                .maximumSize(b.maximumSize)
+                .sweepInterval(b.sweepInterval)
+                .clock(b.clock);
+        if (b.weigher != null) {
+            ToIntFunction<V> weigher = b.weigher;
+            store.maximumWeight(b.maximumWeight, (k, e) -> k.length() + weigher.applyAsInt(e.value()));
         }
-        return Optional.ofNullable(e.value);
+        this.store = store.build();
+    }
+
+    public static <V> Builder<V> builder(String name) {
+        return new Builder<>(name);
+    }
+
+    public Optional<V> get(String key) {
+        Entry<V> e = store.get(key);
+        return e == null || isStale(e, clock.getAsLong()) ? Optional.empty() : Optional.ofNullable(e.value());
+    }
+
+    /**
+     * get 과 같지만 cache.gets(hit/miss) 에 집계하지 않음.
+     * 값이 있어도 호출부 조건(예: 크기)에 따라 miss 로 보는 캐시는 peek 후 recordGet 으로 직접 집계한다.
+     */
+    public Optional<V> peek(String key) {
+        Entry<V> e = store.getWithoutStats(key);
+        return e == null || isStale(e, clock.getAsLong()) ? Optional.empty() : Optional.ofNullable(e.value());
+    }
+
+    public void recordGet(boolean hit) {
+        store.recordGet(hit);
+    }
+
+    public void put(String key, V value) {
+        put(key, value, ttlMillis);
     }
 
     public void put(String key, V value, long ttlMillis) {
-        map.put(key, new Entry<>(value, Instant.now().toEpochMilli() + ttlMillis));
+        if (value == null) return;
+        // 저장소에는 stale 구간까지 보관
+        long retainMillis = ttlMillis >= Long.MAX_VALUE - maxStaleMillis ? Long.MAX_VALUE : ttlMillis + maxStaleMillis;
+        store.put(key, new Entry<>(value, clock.getAsLong(), ttlMillis), retainMillis);
+    }
+
+    /**
+     * 캐시 값 또는 loader 결과. 같은 key 의 동시 miss 는 loader 를 한 번만 호출한다.
+     * 캐시된 값이 refresh-ahead 구간이거나 TTL 이 지났지만 maxStale 안이면 그대로 반환하고 백그라운드에서 다시 읽는다.
+     */
+    public V get(String key, Function<String, V> loader) {
+        V cached = getIfPresent(key, loader);
+        if (cached != null) return cached;
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = loading.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+        try {
+            V value = load(key, loader);
+            mine.complete(value);
+            return value;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    /**
+     * get(key, loader) 와 같지만 miss 면 로딩하지 않고 null (호출부가 여러 key 를 모아서 직접 로딩할 때).
+     * stale / refresh-ahead 구간이면 loader 로 백그라운드 갱신은 한다.
+     */
+    public V getIfPresent(String key, Function<String, V> loader) {
+        Entry<V> e = store.get(key);
+        if (e == null) return null;
+
+        long now = clock.getAsLong();
+        if (isStale(e, now)) {
+            staleHits.incrementAndGet();
+            refreshAsync(key, loader);
+        } else if (refreshAheadRatio < 1.0 && now - e.writtenAt() >= (long) (e.ttlMillis() * refreshAheadRatio)) {
+            refreshAsync(key, loader);
+        }
+        return e.value();
+    }
+
+    public void invalidate(String key) {
+        store.invalidate(key);
+    }
+
+    public int cleanUp() {
+        return store.cleanUp();
+    }
+
+    public Stats stats() {
+        BoundedCache.Stats s = store.stats();
+        return new Stats(name, s.hits(), s.misses(), s.evictions(), s.expirations(), s.size(),
+                staleHits.get(), loads.get(), loadFailures.get(), coalesced.get(), refreshes.get(), refreshFailures.get());
+    }
+
+    @Override
+    public void close() {
+        store.close();
+        MeterRegistry bound = registry;
+        if (bound != null) meters.forEach(bound::remove);
+        meters.clear();
+    }
+
+    // ---------------------------------------------------------------------
+
+    private V load(String key, Function<String, V> loader) {
+        loads.incrementAndGet();
+        try {
+            V value = loader.apply(key);
+            put(key, value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            loadFailures.incrementAndGet();
+            throw ex;
+        }
+    }
+
+    private static boolean isStale(Entry<?> e, long now) {
+        return e.ttlMillis() != Long.MAX_VALUE && now - e.writtenAt() >= e.ttlMillis();
+    }
+
+    private void refreshAsync(String key, Function<String, V> loader) {
+        if (!refreshing.add(key)) return;   // 이미 갱신 중
+        refreshes.incrementAndGet();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, loader);
+                } catch (Throwable t) {
+                    refreshFailures.incrementAndGet();
+                    log.warn("[CACHE] refresh failed name={} key={} reason={}", name, key, t.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException rejected) {
+            // executor 포화: 이번 갱신은 건너뜀 (기존 값은 TTL 까지 유지)
+            refreshFailures.incrementAndGet();
+            refreshing.remove(key);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    /**
+     * cache.* 지표를 registry 에 등록 (캐시당 한 번, close 시 제거)
+     */
+    public void bindTo(MeterRegistry registry) {
+        if (this.registry != null) {
+            throw new IllegalStateException("cache metrics already bound: " + name);
+        }
+        this.registry = registry;
+        meters.add(FunctionCounter.builder("cache.gets", this, c -> c.stats().hits())
+                .tag("cache", name).tag("result", "hit").register(registry));
+        meters.add(FunctionCounter.builder("cache.gets", this, c -> c.stats().misses())
+                .tag("cache", name).tag("result", "miss").register(registry));
+        meters.add(FunctionCounter.builder("cache.evictions", this, c -> c.stats().evictions())
+                .tag("cache", name).register(registry));
+        meters.add(FunctionCounter.builder("cache.expirations", this, c -> c.stats().expirations())
+                .tag("cache", name).register(registry));
+        meters.add(FunctionCounter.builder("cache.loads", this, c -> c.loads.get() - c.loadFailures.get())
+                .tag("cache", name).tag("result", "success").register(registry));
+        meters.add(FunctionCounter.builder("cache.loads", this, c -> c.loadFailures.get())
+                .tag("cache", name).tag("result", "failure").register(registry));
+        meters.add(FunctionCounter.builder("cache.refreshes", this, c -> c.refreshes.get())
+                .tag("cache", name).register(registry));
+        meters.add(FunctionCounter.builder("cache.stale.served", this, c -> c.staleHits.get())
+                .tag("cache", name).register(registry));
+        meters.add(Gauge.builder("cache.size", this, c -> c.store.size())
+                .tag("cache", name).register(registry));
+    }
+
+    public static final class Builder<V> {
+        private final String name;
+        private long maximumSize = 10_000;
+        private long maximumWeight = Long.MAX_VALUE;
+        private ToIntFunction<V> weigher;
+        private Duration ttl = Duration.ofHours(1);
+        private double refreshAheadRatio = 1.0;
+        private Executor refreshExecutor = ForkJoinPool.commonPool();
+        private Duration maxStale = Duration.ZERO;
+        private Duration sweepInterval = Duration.ofMinutes(1);
+        private LongSupplier clock = System::currentTimeMillis;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder<V> maximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /** 값 가중치 합 제한 (key 길이도 더해짐) */
+        public Builder<V> maximumWeight(long maximumWeight, ToIntFunction<V> weigher) {
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        public Builder<V> ttl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * @param ratio TTL 대비 이 비율이 지난 뒤 조회되면 백그라운드 갱신 (예: 0.8). 1.0 이면 사용 안 함
+         */
+        public Builder<V> refreshAhead(double ratio, Executor executor) {
+            this.refreshAheadRatio = ratio;
+            this.refreshExecutor = executor;
+            return this;
+        }
+
+        /**
+         * TTL 이 지난 값을 최대 maxStale 동안 반환하면서 백그라운드 갱신 (갱신 executor 는 refreshAhead 와 공유)
+         */
+        public Builder<V> staleWhileRevalidate(Duration maxStale, Executor executor) {
+            this.maxStale = maxStale;
+            this.refreshExecutor = executor;
+            return this;
+        }
+
+        public Builder<V> sweepInterval(Duration sweepInterval) {
+            this.sweepInterval = sweepInterval;
+            return this;
+        }
+
+        public Builder<V> clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public SimpleTtlCache<V> build() {
+            if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+                throw new IllegalArgumentException("ttl must be positive: " + name);
+            }
+            if (maxStale == null || maxStale.isNegative()) {
+                throw new IllegalArgumentException("maxStale must not be negative: " + name);
+            }
+            if (refreshAheadRatio <= 0 || refreshAheadRatio > 1.0) {
+                throw new IllegalArgumentException("refreshAheadRatio must be in (0, 1]: " + name);
+            }
+            return new SimpleTtlCache<>(this);
+        }
     }
 }
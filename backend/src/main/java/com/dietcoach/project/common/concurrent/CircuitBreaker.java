@@ -0,0 +1,234 @@
+package com.dietcoach.project.common.concurrent;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 외부 호출용 서킷 브레이커 + 적응형 타임아웃.
+ *
+ * - CLOSED: 최근 windowSize 건의 실패율이 failureRateThreshold 이상이면 (minCalls 이상일 때) OPEN
+ * - OPEN: openMs 동안 호출 없이 바로 CircuitOpenException -> 호출부 fallback
+ * - HALF_OPEN: openMs 경과 후 probe 1건만 통과, 성공하면 CLOSED / 실패하면 다시 OPEN
+ * - 타임아웃: 최근 성공 latency 의 percentile * multiplier (min~max 로 clamp), 샘플 부족 시 max
+ *   latency 는 호출 크기 bucket(예: 요청 일수 구간, 한 끼 호출)별로 따로 모은다.
+ *   -> 짧은 호출이 몰려도 긴 호출의 타임아웃이 floor 까지 내려가지 않음 (실패율 window 는 공유)
+ *   타임아웃으로 끝난 호출은 걸린 시간을 하한 샘플로 넣어서 다음 타임아웃이 다시 올라가게 한다.
+ *   호출부에 넘겨서 요청 자체에 건다 (RequestTimeout -> HTTP response timeout). 호출은 현재 스레드에서 실행되고,
+ *   타임아웃만큼 걸려서 실패한 호출은 timeout 으로 집계한다.
+ *   (별도 스레드에서 future.get(timeout) 으로 끊으면 HTTP 호출은 read timeout 까지 계속 돌아서
+ *    동시성 제한 permit 이 먼저 풀리고 executor 스레드도 묶인다)
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public record Settings(
+            int windowSize,
+            int minCalls,
+            double failureRateThreshold,
+            long openMs,
+            int latencySamples,
+            double timeoutPercentile,
+            double timeoutMultiplier,
+            long minTimeoutMs,
+            long maxTimeoutMs
+    ) {
+    }
+
+    /** @param timeoutMs bucket -> 현재 타임아웃 */
+    public record Stats(State state, int calls, int failures, double failureRate,
+                        Map<String, Long> timeoutMs, long rejected, long timeouts) {
+    }
+
+    public static final String DEFAULT_BUCKET = "default";
+
+    private final String name;
+    private final Settings settings;
+    private final LongSupplier clock;
+
+    // rolling window (true = 실패)
+    private final boolean[] outcomes;
+    private int outcomeCount;
+    private int outcomeNext;
+    private int failureCount;
+
+    // bucket 별 최근 성공 latency
+    private final Map<String, LatencyWindow> latencies = new HashMap<>();
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private long rejected;
+    private long timeouts;
+
+    public CircuitBreaker(String name, Settings settings) {
+        this(name, settings, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String name, Settings settings, LongSupplier clock) {
+        this.name = name;
+        this.settings = settings;
+        this.clock = clock;
+        this.outcomes = new boolean[Math.max(1, settings.windowSize())];
+    }
+
+    public <T> T call(LongFunction<T> call) {
+        return call(DEFAULT_BUCKET, call);
+    }
+
+    /**
+     * @param bucket latency 샘플/타임아웃을 나누는 호출 크기 구분 (같은 bucket 안의 호출끼리만 비교)
+     * @param call 현재 타임아웃(ms)을 받아서 요청에 적용하는 호출 (예: RequestTimeout.with(timeoutMs, ...))
+     */
+    public <T> T call(String bucket, LongFunction<T> call) {
+        boolean probe = acquirePermission();
+        long timeoutMs = currentTimeoutMs(bucket);
+        long startNs = System.nanoTime();
+
+        try {
+            T result = call.apply(timeoutMs);
+            onSuccess(bucket, probe, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs));
+            return result;
+        } catch (RuntimeException | Error e) {
+            long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+            if (tookMs < timeoutMs) {
+                onFailure(probe);
+                throw e;
+            }
+            synchronized (this) {
+                timeouts++;
+                // 실제 latency 는 tookMs 이상 -> 하한으로 넣어서 타임아웃이 낮게 고정되지 않게
+                window(bucket).add(tookMs);
+            }
+            onFailure(probe);
+            log.warn("[CIRCUIT] timeout name={} bucket={} timeoutMs={} tookMs={}", name, bucket, timeoutMs, tookMs);
+            throw new IllegalStateException("CIRCUIT_TIMEOUT name=" + name + " timeoutMs=" + timeoutMs, e);
+        }
+    }
+
+    /** 지금 호출하면 통과되는 상태인지 (재시도 여부 판단용) */
+    public synchronized boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public long currentTimeoutMs() {
+        return currentTimeoutMs(DEFAULT_BUCKET);
+    }
+
+    /** bucket 샘플이 부족하면 max (다른 크기의 호출 latency 로 추정하지 않음) */
+    public synchronized long currentTimeoutMs(String bucket) {
+        LatencyWindow window = latencies.get(bucket);
+        if (window == null || window.count < Math.min(window.values.length, Math.max(1, settings.minCalls()))) {
+            return settings.maxTimeoutMs();
+        }
+        long[] sorted = Arrays.copyOf(window.values, window.count);
+        Arrays.sort(sorted);
+        int idx = (int) Math.ceil(settings.timeoutPercentile() * sorted.length) - 1;
+        long percentile = sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+        long adaptive = (long) (percentile * settings.timeoutMultiplier());
+        return Math.max(settings.minTimeoutMs(), Math.min(settings.maxTimeoutMs(), adaptive));
+    }
+
+    public synchronized Stats stats() {
+        double rate = outcomeCount == 0 ? 0.0 : (double) failureCount / outcomeCount;
+        Map<String, Long> timeoutMs = new LinkedHashMap<>();
+        latencies.keySet().stream().sorted().forEach(bucket -> timeoutMs.put(bucket, currentTimeoutMs(bucket)));
+        return new Stats(state, outcomeCount, failureCount, rate, timeoutMs, rejected, timeouts);
+    }
+
+    /** @return half-open probe 로 통과했으면 true */
+    private synchronized boolean acquirePermission() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= settings.openMs()) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+            log.info("[CIRCUIT] half-open name={}", name);
+        }
+        if (state == State.CLOSED) return false;
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        rejected++;
+        throw new CircuitOpenException(name);
+    }
+
+    private synchronized void onSuccess(String bucket, boolean probe, long latencyMs) {
+        window(bucket).add(latencyMs);
+
+        if (probe) {
+            resetWindow();
+            state = State.CLOSED;
+            probeInFlight = false;
+            log.info("[CIRCUIT] closed name={} probeLatencyMs={}", name, latencyMs);
+            return;
+        }
+        record(false);
+    }
+
+    private synchronized void onFailure(boolean probe) {
+        if (probe) {
+            open("probe failed");
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && outcomeCount >= settings.minCalls()
+                && (double) failureCount / outcomeCount >= settings.failureRateThreshold()) {
+            open("failureRate=" + failureCount + "/" + outcomeCount);
+        }
+    }
+
+    private void record(boolean failure) {
+        if (outcomeCount == outcomes.length && outcomes[outcomeNext]) failureCount--;
+        outcomes[outcomeNext] = failure;
+        if (failure) failureCount++;
+        outcomeNext = (outcomeNext + 1) % outcomes.length;
+        outcomeCount = Math.min(outcomeCount + 1, outcomes.length);
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        probeInFlight = false;
+        log.warn("[CIRCUIT] open name={} reason={} openMs={}", name, reason, settings.openMs());
+    }
+
+    private LatencyWindow window(String bucket) {
+        return latencies.computeIfAbsent(bucket, b -> new LatencyWindow(Math.max(1, settings.latencySamples())));
+    }
+
+    private static final class LatencyWindow {
+        private final long[] values;
+        private int count;
+        private int next;
+
+        LatencyWindow(int size) {
+            this.values = new long[size];
+        }
+
+        void add(long latencyMs) {
+            values[next] = latencyMs;
+            next = (next + 1) % values.length;
+            count = Math.min(count + 1, values.length);
+        }
+    }
+
+    private void resetWindow() {
+        Arrays.fill(outcomes, false);
+        outcomeCount = 0;
+        outcomeNext = 0;
+        failureCount = 0;
+    }
+}
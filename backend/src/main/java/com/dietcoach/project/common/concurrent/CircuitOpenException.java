@@ -0,0 +1,11 @@
+package com.dietcoach.project.common.concurrent;
+
+/**
+ * 서킷이 OPEN 이라 외부 호출을 시도하지 않았음을 나타냄. 호출부는 바로 fallback 경로로 빠진다.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String name) {
+        super("CIRCUIT_OPEN name=" + name);
+    }
+}
@@ -0,0 +1,65 @@
+package com.dietcoach.project.common.concurrent;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 외부 API 단계별 동시 호출 수 제한.
+ *
+ * ioExecutor(가상 스레드)로 fan-out 하면 동시 요청 수가 사실상 무제한이 되므로,
+ * 11번가 / GMS(리랭커) / Gemini 각각의 rate limit 에 맞춰 세마포어로 묶는다.
+ * permit 대기가 acquire-timeout 을 넘으면 IllegalStateException -> 호출부의 기존 fallback 경로로 빠진다.
+ */
+@Slf4j
+@Component
+public class IoLimiter {
+
+    public enum Stage { ELEVENST, GMS, GEMINI }
+
+    private final Map<Stage, Semaphore> permits = new EnumMap<>(Stage.class);
+    private final long acquireTimeoutMs;
+
+    public IoLimiter(
+            @Value("${mealplan.io.limits.elevenst:8}") int elevenstLimit,
+            @Value("${mealplan.io.limits.gms:4}") int gmsLimit,
+            @Value("${mealplan.io.limits.gemini:4}") int geminiLimit,
+            @Value("${mealplan.io.acquire-timeout-ms:30000}") long acquireTimeoutMs
+    ) {
+        permits.put(Stage.ELEVENST, new Semaphore(Math.max(1, elevenstLimit), true));
+        permits.put(Stage.GMS, new Semaphore(Math.max(1, gmsLimit), true));
+        permits.put(Stage.GEMINI, new Semaphore(Math.max(1, geminiLimit), true));
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    public <T> T call(Stage stage, Supplier<T> call) {
+        Semaphore semaphore = permits.get(stage);
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("IO_LIMIT_INTERRUPTED stage=" + stage, e);
+        }
+        if (!acquired) {
+            log.warn("[IO_LIMIT] acquire timeout stage={} waitMs={}", stage, acquireTimeoutMs);
+            throw new IllegalStateException("IO_LIMIT_TIMEOUT stage=" + stage);
+        }
+        try {
+            return call.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public int available(Stage stage) {
+        return permits.get(stage).availablePermits();
+    }
+}
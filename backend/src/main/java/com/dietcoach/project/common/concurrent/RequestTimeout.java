@@ -0,0 +1,35 @@
+package com.dietcoach.project.common.concurrent;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드에서 보내는 HTTP 요청 1건의 response timeout.
+ *
+ * CircuitBreaker 의 적응형 타임아웃을 별도 스레드의 future.get(timeout) 대신 요청 자체에 걸기 위한 것.
+ * -> 타임아웃이 나면 HTTP 호출이 실제로 끝나므로 동시성 permit / 스레드가 read timeout 까지 묶이지 않는다.
+ * HttpContext 팩토리(AiHttpConfig)가 요청을 만들 때 읽는다. (RestClient 는 호출 스레드에서 동기 실행)
+ */
+public final class RequestTimeout {
+
+    private static final ThreadLocal<Long> TIMEOUT_MS = new ThreadLocal<>();
+
+    private RequestTimeout() {
+    }
+
+    public static <T> T with(long timeoutMs, Supplier<T> call) {
+        Long previous = TIMEOUT_MS.get();
+        TIMEOUT_MS.set(timeoutMs);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) TIMEOUT_MS.remove();
+            else TIMEOUT_MS.set(previous);
+        }
+    }
+
+    /** 지정된 값이 없으면 defaultMs, 있으면 defaultMs 를 넘지 않는 값 */
+    public static long current(long defaultMs) {
+        Long timeoutMs = TIMEOUT_MS.get();
+        return timeoutMs == null ? defaultMs : Math.min(timeoutMs, defaultMs);
+    }
+}
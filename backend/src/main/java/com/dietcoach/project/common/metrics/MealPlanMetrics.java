@@ -0,0 +1,86 @@
+package com.dietcoach.project.common.metrics;
+
+import java.time.Duration;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 식단 생성 파이프라인 Micrometer 지표 (/actuator/prometheus).
+ *
+ * - mealplan.create            플랜 생성 전체 (mode=AI|LIBRARY, outcome)
+ * - mealplan.chunk.generate    청크 생성+저장 (stage=sync|async, source=skeleton|template)
+ * - mealplan.ai.call           Gemini 호출 1회 (kind=skeleton|meal, outcome=success|error|circuit_open)
+ * - mealplan.template.fallback skeleton 없이 템플릿으로 채운 날짜 수 (context)
+ * - mealplan.items.inserted    저장한 meal_items 행 수
+ * - mealplan.chunk.lag         비동기 청크 enqueue -> 완료까지 (outcome=done|failed)
+ *
+ * 히스토그램(p50/p95/p99 용 bucket)은 management.metrics.distribution.percentiles-histogram.mealplan 으로 켠다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MealPlanMetrics {
+
+    private final MeterRegistry registry;
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void recordCreate(Timer.Sample sample, String mode, String outcome) {
+        sample.stop(Timer.builder("mealplan.create")
+                .description("Monthly meal plan creation")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    public void recordChunk(Timer.Sample sample, String stage, String source) {
+        sample.stop(Timer.builder("mealplan.chunk.generate")
+                .description("Meal plan chunk generation and save")
+                .tag("stage", stage)
+                .tag("source", source)
+                .register(registry));
+    }
+
+    public void recordAiCall(Timer.Sample sample, String kind, String outcome) {
+        sample.stop(Timer.builder("mealplan.ai.call")
+                .description("Gemini generateContent call")
+                .tag("kind", kind)
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    public void templateFallback(String context, int days) {
+        if (days <= 0) return;
+        Counter.builder("mealplan.template.fallback")
+                .description("Days filled from the static template")
+                .baseUnit("days")
+                .tag("context", context)
+                .register(registry)
+                .increment(days);
+    }
+
+    public void itemsInserted(int count) {
+        if (count <= 0) return;
+        Counter.builder("mealplan.items.inserted")
+                .description("meal_items rows inserted")
+                .baseUnit("rows")
+                .register(registry)
+                .increment(count);
+    }
+
+    public void recordChunkLag(Duration lag, String outcome) {
+        if (lag == null || lag.isNegative()) return;
+        Timer.builder("mealplan.chunk.lag")
+                .description("Async chunk job from enqueue to completion")
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(lag);
+    }
+}
@@ -1,11 +1,19 @@
 package com.dietcoach.project.config;
 
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import com.dietcoach.project.common.concurrent.CircuitBreaker;
+import com.dietcoach.project.common.concurrent.RequestTimeout;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Configuration
@@ -14,15 +22,23 @@ public class AiHttpConfig {
 
         @Bean
         public RestClient gmsOpenAiRestClient(
+                        CloseableHttpClient outboundHttpClient,
+                        RequestConfig outboundRequestConfig,
                         @Value("${gms.openai.base-url:}") String baseUrl,
-                        @Value("${gms.openai.timeout-ms:8000}") long timeoutMs) {
+                        @Value("${gms.openai.read-timeout-ms:120000}") long readTimeoutMs) {
                 try {
-                        log.info("Creating gmsOpenAiRestClient with baseUrl: {}, timeout: {}ms", baseUrl, timeoutMs);
+                        log.info("Creating gmsOpenAiRestClient with baseUrl: {}, readTimeout: {}ms", baseUrl, readTimeoutMs);
 
-                        // SimpleClientHttpRequestFactory 사용 (가장 기본적이고 호환성 높은 팩토리)
-                        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-                        factory.setConnectTimeout((int) timeoutMs);
-                        factory.setReadTimeout((int) timeoutMs);
+                        // 공용 커넥션 풀(HttpClientConfig) 사용, connect timeout 은 풀의 GMS 라우트 설정
+                        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(outboundHttpClient);
+                        // 요청마다 response timeout 지정: 서킷 브레이커의 적응형 타임아웃(RequestTimeout), 없으면 read-timeout
+                        factory.setHttpContextFactory((method, uri) -> {
+                                HttpClientContext context = HttpClientContext.create();
+                                context.setRequestConfig(RequestConfig.copy(outboundRequestConfig)
+                                                .setResponseTimeout(RequestTimeout.current(readTimeoutMs), TimeUnit.MILLISECONDS)
+                                                .build());
+                                return context;
+                        });
 
                         return RestClient.builder()
                                         .baseUrl(baseUrl)
@@ -34,4 +50,26 @@ public class AiHttpConfig {
                         throw new IllegalStateException("Failed to create gmsOpenAiRestClient bean", e);
                 }
         }
+
+        /**
+         * Gemini skeleton / 한 끼 호출용 서킷 브레이커.
+         * 호출 타임아웃은 호출 크기 bucket 별 최근 latency 기반으로 조정되고, max 는 read-timeout 을 넘지 않는다.
+         * (latency-samples 는 bucket 당 샘플 수)
+         */
+        @Bean
+        public CircuitBreaker aiCircuitBreaker(
+                        @Value("${mealplan.ai-breaker.window-size:20}") int windowSize,
+                        @Value("${mealplan.ai-breaker.min-calls:5}") int minCalls,
+                        @Value("${mealplan.ai-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                        @Value("${mealplan.ai-breaker.open-ms:30000}") long openMs,
+                        @Value("${mealplan.ai-breaker.latency-samples:50}") int latencySamples,
+                        @Value("${mealplan.ai-breaker.timeout-percentile:0.95}") double timeoutPercentile,
+                        @Value("${mealplan.ai-breaker.timeout-multiplier:2.0}") double timeoutMultiplier,
+                        @Value("${mealplan.ai-breaker.min-timeout-ms:15000}") long minTimeoutMs,
+                        @Value("${gms.openai.read-timeout-ms:120000}") long readTimeoutMs) {
+                return new CircuitBreaker("gemini", new CircuitBreaker.Settings(
+                                windowSize, minCalls, failureRateThreshold, openMs,
+                                latencySamples, timeoutPercentile, timeoutMultiplier,
+                                Math.min(minTimeoutMs, readTimeoutMs), readTimeoutMs));
+        }
 }
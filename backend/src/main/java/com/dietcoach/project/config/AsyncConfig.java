@@ -1,9 +1,124 @@
 package com.dietcoach.project.config;
 
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AsyncConfig {
+
+    /**
+     * 식단 2~4주차 청크 생성 작업 전용 executor.
+     * 공용 ForkJoinPool(parallelStream)과 분리하고, 큐 크기를 제한해서 AI 호출이 몰려도 무한정 쌓이지 않게 한다.
+     */
+    @Bean(name = "mealPlanJobExecutor")
+    public ThreadPoolTaskExecutor mealPlanJobExecutor(
+            @Value("${mealplan.jobs.pool-size:4}") int poolSize,
+            @Value("${mealplan.jobs.queue-capacity:16}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mealplan-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 야간 플랜 연장 전용 executor (1 스레드, 큐 없음).
+     * 연장은 플랜마다 AI 호출이라 오래 걸리므로 스케줄러 스레드를 붙잡지 않게 넘기고, 이전 실행이 안 끝났으면 이번 실행은 건너뛴다.
+     */
+    @Bean(name = "mealPlanExtensionExecutor")
+    public ThreadPoolTaskExecutor mealPlanExtensionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("mealplan-extend-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 외부 HTTP(11번가, GMS, Gemini) fan-out 전용 executor.
+     *
+     * - virtual: 작업당 가상 스레드 (JDK 21+). 런타임이 지원하지 않으면 bounded 로 대체
+     * - bounded: 고정 크기 플랫폼 스레드 풀
+     * 실제 동시 호출 수는 IoLimiter 세마포어가 단계별로 제한한다.
+     */
+    @Bean(name = "ioExecutorService")
+    public ExecutorService ioExecutorService(
+            @Value("${mealplan.io.executor:virtual}") String mode,
+            @Value("${mealplan.io.pool-size:32}") int poolSize
+    ) {
+        if ("virtual".equalsIgnoreCase(mode)) {
+            try {
+                ExecutorService virtual = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+                log.info("[IO_EXECUTOR] mode=virtual");
+                return virtual;
+            } catch (ReflectiveOperationException e) {
+                log.warn("[IO_EXECUTOR] virtual threads unavailable on java={}, fallback=bounded poolSize={}",
+                        System.getProperty("java.version"), poolSize);
+            }
+        }
+        log.info("[IO_EXECUTOR] mode=bounded poolSize={}", poolSize);
+        return Executors.newFixedThreadPool(poolSize, ioThreadFactory());
+    }
+
+    /** ioExecutorService + MDC(traceId) 전파 */
+    @Bean(name = "ioExecutor")
+    public ConcurrentTaskExecutor ioExecutor(@Qualifier("ioExecutorService") ExecutorService ioExecutorService) {
+        ConcurrentTaskExecutor executor = new ConcurrentTaskExecutor(ioExecutorService);
+        executor.setTaskDecorator(mdcTaskDecorator());
+        return executor;
+    }
+
+    private TaskDecorator mdcTaskDecorator() {
+        return runnable -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                if (context != null) MDC.setContextMap(context);
+                else MDC.clear();
+                try {
+                    runnable.run();
+                } finally {
+                    if (previous != null) MDC.setContextMap(previous);
+                    else MDC.clear();
+                }
+            };
+        };
+    }
+
+    private ThreadFactory ioThreadFactory() {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "io-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
 }
@@ -1,18 +1,128 @@
 package com.dietcoach.project.config;
 
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 외부 API 공용 HTTP 커넥션 풀 (Apache HttpClient 5).
+ *
+ * - RestTemplate(11번가, GMS 리랭커)과 gmsOpenAiRestClient(Gemini)가 같은 풀을 쓰고 read timeout 만 각자 설정
+ * - host 별 최대 커넥션 수 (11번가 / GMS), keep-alive 재사용 + idle/만료 커넥션 정리
+ * - gzip/deflate 응답 압축 해제는 HttpClient 기본 동작
+ */
+@Slf4j
 @Configuration
 public class HttpClientConfig {
 
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager(
+            @Value("${http.pool.max-total:64}") int maxTotal,
+            @Value("${http.pool.max-per-route:16}") int maxPerRoute,
+            @Value("${http.pool.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${http.pool.ttl-ms:300000}") long ttlMs,
+            @Value("${http.pool.routes.elevenst:16}") int elevenstMaxPerRoute,
+            @Value("${http.pool.routes.gms:8}") int gmsMaxPerRoute,
+            @Value("${elevenst.api.base-url:}") String elevenstBaseUrl,
+            @Value("${gms.openai.base-url:}") String gmsBaseUrl,
+            @Value("${gms.openai.connect-timeout-ms:3000}") long gmsConnectTimeoutMs
+    ) {
+        ConnectionConfig defaultConfig = connectionConfig(connectTimeoutMs, ttlMs);
+        ConnectionConfig gmsConfig = connectionConfig(gmsConnectTimeoutMs, ttlMs);
+        HttpRoute gmsRoute = routeOf(gmsBaseUrl);
+
+        PoolingHttpClientConnectionManager manager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setConnectionConfigResolver(route -> route.equals(gmsRoute) ? gmsConfig : defaultConfig)
+                .build();
+
+        Map<String, Integer> routeLimits = new LinkedHashMap<>();
+        setRouteLimit(manager, elevenstBaseUrl, elevenstMaxPerRoute, routeLimits);
+        setRouteLimit(manager, gmsBaseUrl, gmsMaxPerRoute, routeLimits);
+        log.info("[HTTP_POOL] maxTotal={} maxPerRoute={} routes={}", maxTotal, maxPerRoute, routeLimits);
+        return manager;
+    }
+
+    /** 기본 요청 설정 (요청별로 response timeout 을 바꾸는 클라이언트는 이걸 복사해서 사용) */
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory f = new SimpleClientHttpRequestFactory();
-        f.setConnectTimeout(3000); // 3s
-        f.setReadTimeout(5000);    // 5s
+    public RequestConfig outboundRequestConfig(
+            @Value("${http.pool.acquire-timeout-ms:5000}") long acquireTimeoutMs,
+            @Value("${http.pool.keep-alive-ms:30000}") long keepAliveMs
+    ) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                // 서버가 Keep-Alive 헤더를 안 주면 이 시간만큼 재사용
+                .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAliveMs))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(
+            PoolingHttpClientConnectionManager outboundConnectionManager,
+            RequestConfig outboundRequestConfig,
+            @Value("${http.pool.idle-evict-ms:30000}") long idleEvictMs
+    ) {
+        return HttpClients.custom()
+                .setConnectionManager(outboundConnectionManager)
+                .setDefaultRequestConfig(outboundRequestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient outboundHttpClient) {
+        HttpComponentsClientHttpRequestFactory f = new HttpComponentsClientHttpRequestFactory(outboundHttpClient);
+        f.setReadTimeout(5000);    // 5s (connect 3s 는 풀 설정)
         return new RestTemplate(f);
     }
+
+    /** 요청 시 라우트 플래너가 만드는 것과 같은 HttpRoute (스킴 기본 포트 포함) */
+    static HttpRoute routeOf(String baseUrl) {
+        if (baseUrl == null || baseUrl.isBlank()) return null;
+        try {
+            HttpHost target = RoutingSupport.normalize(HttpHost.create(URI.create(baseUrl.trim())), DefaultSchemePortResolver.INSTANCE);
+            return new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName()));
+        } catch (Exception e) {
+            log.warn("[HTTP_POOL] invalid base-url={} reason={}", baseUrl, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void setRouteLimit(PoolingHttpClientConnectionManager manager, String baseUrl, int max,
+                                      Map<String, Integer> routeLimits) {
+        HttpRoute route = routeOf(baseUrl);
+        if (route == null || max <= 0) return;
+        manager.setMaxPerRoute(route, max);
+        routeLimits.put(route.getTargetHost().toURI(), max);
+    }
+
+    private static ConnectionConfig connectionConfig(long connectTimeoutMs, long ttlMs) {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setTimeToLive(TimeValue.ofMilliseconds(ttlMs))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+    }
 }
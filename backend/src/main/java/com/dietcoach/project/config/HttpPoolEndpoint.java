@@ -0,0 +1,27 @@
+package com.dietcoach.project.config;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.dto.HttpPoolStatsResponse;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 외부 API 커넥션 풀 상태 (leased / available / pending)
+ * GET /actuator/httppool  (management 포트 + 인증)
+ */
+@Component
+@Endpoint(id = "httppool")
+@RequiredArgsConstructor
+public class HttpPoolEndpoint {
+
+    private final PoolingHttpClientConnectionManager outboundConnectionManager;
+
+    @ReadOperation
+    public HttpPoolStatsResponse httpPool() {
+        return HttpPoolStatsResponse.from(outboundConnectionManager);
+    }
+}
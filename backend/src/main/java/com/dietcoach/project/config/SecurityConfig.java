@@ -2,6 +2,7 @@ package com.dietcoach.project.config;
 
 import com.dietcoach.project.security.JwtAuthenticationFilter;
 import com.dietcoach.project.security.JwtTokenProvider;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,7 +37,12 @@ public class SecurityConfig {
                 }))
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // SSE(SseEmitter) 완료 시 async dispatch 는 최초 요청에서 이미 인증됨
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/health/**", "/api/auth/**").permitAll()
+                        // Prometheus scrape: actuator 는 management.server.port(내부 주소 바인딩)에서만 매핑되고
+                        // 노출 endpoint 는 management.endpoints.web.exposure 로 제한
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().authenticated()
                 )
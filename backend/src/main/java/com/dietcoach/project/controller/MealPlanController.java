@@ -4,16 +4,21 @@ import com.dietcoach.project.common.ApiResponse;
 import com.dietcoach.project.dto.meal.DashboardSummaryResponse;
 import com.dietcoach.project.dto.meal.MealPlanCreateRequest;
 import com.dietcoach.project.dto.meal.MealPlanDayDetailResponse;
+import com.dietcoach.project.dto.meal.MealPlanGenerationStatusResponse;
 import com.dietcoach.project.dto.meal.MealPlanIngredientResponse;
 import com.dietcoach.project.dto.meal.MealPlanOverviewResponse;
 import com.dietcoach.project.dto.meal.ShoppingListResponse;
 import com.dietcoach.project.service.MealPlanService;
+import com.dietcoach.project.service.meal.MealPlanCreationDeduplicator;
+import com.dietcoach.project.service.meal.MealPlanStreamService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -25,6 +30,8 @@ import java.util.UUID;
 public class MealPlanController {
 
     private final MealPlanService mealPlanService;
+    private final MealPlanStreamService mealPlanStreamService;
+    private final MealPlanCreationDeduplicator creationDeduplicator;
 
     /**
      * 한 달 식단 자동 생성
@@ -32,15 +39,46 @@ public class MealPlanController {
      *
      * ✅ userId는 토큰(@AuthenticationPrincipal)에서만 받음
      * ✅ request는 A1: monthlyBudget/mealsPerDay/preferences/allergies 포함 가능
+     * ✅ Idempotency-Key 헤더(선택): 같은 key 재요청/동시요청은 새로 만들지 않고 같은 플랜 반환
      */
     @PostMapping("/meal-plans")
     public ApiResponse<MealPlanOverviewResponse> createMealPlan(
             @AuthenticationPrincipal Long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody MealPlanCreateRequest request
     ) {
         log.info("[MealPlan] POST /api/meal-plans serviceClass={}", mealPlanService.getClass().getName());
-        MealPlanOverviewResponse response = mealPlanService.createMonthlyPlan(userId, request);
-        return ApiResponse.success("meal plan created", response);
+        MealPlanCreationDeduplicator.Result result = creationDeduplicator.execute(
+                userId, idempotencyKey, "create", request,
+                () -> mealPlanService.createMonthlyPlan(userId, request));
+        if (result.replayed()) {
+            return ApiResponse.success("meal plan already created", mealPlanService.getMealPlan(result.planId()));
+        }
+        return ApiResponse.success("meal plan created", result.created());
+    }
+
+    /**
+     * 한 달 식단 생성 (SSE 스트리밍)
+     * POST /api/meal-plans/stream
+     *
+     * ✅ 폴링 대신 청크가 커밋될 때마다 하루 요약(day 이벤트)을 push
+     * ✅ 이벤트: plan -> day x N -> complete
+     */
+    @PostMapping(value = "/meal-plans/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter createMealPlanStream(
+            @AuthenticationPrincipal Long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody MealPlanCreateRequest request
+    ) {
+        MealPlanCreationDeduplicator.Result result = creationDeduplicator.execute(
+                userId, idempotencyKey, "stream", request,
+                () -> mealPlanService.startMonthlyPlan(userId, request));
+        // 중복 요청은 같은 플랜 스트림에 붙음 (이미 저장된 날짜는 open 에서 재전송)
+        MealPlanOverviewResponse plan = result.replayed()
+                ? mealPlanService.getMealPlan(result.planId())
+                : result.created();
+        log.info("[MealPlan] POST /api/meal-plans/stream planId={}", plan.getMealPlanId());
+        return mealPlanStreamService.open(plan);
     }
 
     /**
@@ -52,6 +90,15 @@ public class MealPlanController {
         return ApiResponse.success(mealPlanService.getMealPlan(planId));
     }
 
+    /**
+     * 2~4주차 비동기 생성 진행 상태
+     * GET /api/meal-plans/{planId}/generation-status
+     */
+    @GetMapping("/meal-plans/{planId}/generation-status")
+    public ApiResponse<MealPlanGenerationStatusResponse> getGenerationStatus(@PathVariable Long planId) {
+        return ApiResponse.success(mealPlanService.getGenerationStatus(planId));
+    }
+
     /**
      * 유저의 가장 최신 식단 플랜 조회 (기존 유지)
      * GET /api/users/{userId}/meal-plans/latest
@@ -145,6 +192,31 @@ public class MealPlanController {
         return ApiResponse.success(mealPlanService.regenerateDay(dayId));
     }
 
+    /**
+     * 기간 재생성 (from/to 생략 시 플랜 시작일/종료일)
+     * POST /api/meal-plans/{planId}/regenerate?from=2025-12-01&to=2025-12-07
+     */
+    @PostMapping("/meal-plans/{planId}/regenerate")
+    public ApiResponse<List<MealPlanDayDetailResponse>> regenerateDays(
+            @PathVariable Long planId,
+            @RequestParam(required = false) java.time.LocalDate from,
+            @RequestParam(required = false) java.time.LocalDate to
+    ) {
+        return ApiResponse.success(mealPlanService.regenerateDays(planId, from, to));
+    }
+
+    /**
+     * 플랜 연장 (종료일 다음 날부터 days 일, 새 날짜만 생성)
+     * POST /api/meal-plans/{planId}/extend?days=7
+     */
+    @PostMapping("/meal-plans/{planId}/extend")
+    public ApiResponse<MealPlanOverviewResponse> extendMealPlan(
+            @PathVariable Long planId,
+            @RequestParam(defaultValue = "7") int days
+    ) {
+        return ApiResponse.success("meal plan extended", mealPlanService.extendPlan(planId, days));
+    }
+
     /**
      * 특정 끼니 교체 (A4)
      * POST /api/meal-plans/days/{dayId}/meals/{mealTime}/replace
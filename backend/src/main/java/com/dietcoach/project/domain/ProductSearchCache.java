@@ -0,0 +1,24 @@
+package com.dietcoach.project.domain;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 상품 검색 결과 공유 캐시 (product_search_cache).
+ * 인스턴스 로컬 캐시(L1) 아래 L2 로, 재시작/배포 후에도 11번가·GMS 재조회 없이 재사용한다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchCache {
+
+    private String category;   // PRODUCT | PRICE_PER_100G
+    private String queryKey;   // 정규화된 검색어 (PRODUCT 는 ingredient:priceBucket:gramBucket)
+    private String payload;    // JSON
+    private LocalDateTime fetchedAt;
+}
@@ -0,0 +1,18 @@
+package com.dietcoach.project.domain.meal;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * meal_plan_days + meal_items JOIN 결과 (nested resultMap)
+ * 플랜 전체를 한 번의 쿼리로 읽을 때 사용
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class MealPlanDayWithItems extends MealPlanDay {
+
+    private List<MealItem> items = new ArrayList<>();
+}
@@ -0,0 +1,34 @@
+package com.dietcoach.project.domain.meal;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 식단 플랜의 비동기 생성 단위(청크) 작업.
+ * meal_plan_jobs 테이블에 영속화되어 재시작 후에도 이어서 처리된다.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MealPlanJob {
+
+    private Long id;
+    private Long mealPlanId;
+
+    private Integer chunkOffset;  // 0-based day offset
+    private Integer chunkDays;
+    private Integer maxParallel;  // 같은 플랜에서 동시에 RUNNING 가능한 청크 수
+
+    private MealPlanJobStatus status;
+    private Integer attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lockedBy;
+    private LocalDateTime lockedAt;
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.dietcoach.project.domain.meal;
+
+public enum MealPlanJobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
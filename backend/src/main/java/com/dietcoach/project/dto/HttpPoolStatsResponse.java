@@ -0,0 +1,66 @@
+package com.dietcoach.project.dto;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 외부 API HTTP 커넥션 풀 상태 (전체 + host 별)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HttpPoolStatsResponse {
+
+    private int max;
+    private int leased;      // 사용 중
+    private int available;   // keep-alive 로 재사용 대기 중
+    private int pending;     // 커넥션 대기 중인 요청
+
+    private List<RouteStats> routes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RouteStats {
+        private String host;
+        private int max;
+        private int leased;
+        private int available;
+        private int pending;
+    }
+
+    public static HttpPoolStatsResponse from(PoolingHttpClientConnectionManager manager) {
+        PoolStats total = manager.getTotalStats();
+        List<RouteStats> routes = manager.getRoutes().stream()
+                .sorted(Comparator.comparing(HttpRoute::toString))
+                .map(route -> {
+                    PoolStats s = manager.getStats(route);
+                    return RouteStats.builder()
+                            .host(route.getTargetHost().toURI())
+                            .max(s.getMax())
+                            .leased(s.getLeased())
+                            .available(s.getAvailable())
+                            .pending(s.getPending())
+                            .build();
+                })
+                .toList();
+        return HttpPoolStatsResponse.builder()
+                .max(total.getMax())
+                .leased(total.getLeased())
+                .available(total.getAvailable())
+                .pending(total.getPending())
+                .routes(routes)
+                .build();
+    }
+}
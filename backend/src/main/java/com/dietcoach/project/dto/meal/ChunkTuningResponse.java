@@ -0,0 +1,40 @@
+package com.dietcoach.project.dto.meal;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 청크 크기 자동 조정 상태 (학습된 latency 모델 + 지금 플랜을 만들면 적용될 분할)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChunkTuningResponse {
+
+    // latency(ms) = fixedMs + perDayMs * days
+    private boolean fitted;
+    private int samples;
+    private double fixedMs;
+    private double perDayMs;
+    private double r2;
+    private double bytesPerDay;
+    private int minObservedDays;
+    private int maxObservedDays;
+
+    private int defaultChunkDays;
+    private int minChunkDays;
+    private int maxChunkDays;
+    private int maxParallel;
+    private int availableParallelism;   // maxParallel 과 남은 Gemini permit 중 작은 값
+
+    private int planDays;
+    private List<Integer> planChunkDays;
+    private int planParallelism;
+    private long planPredictedMs;
+    private boolean planTuned;
+}
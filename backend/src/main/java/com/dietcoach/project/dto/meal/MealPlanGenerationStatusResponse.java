@@ -0,0 +1,48 @@
+package com.dietcoach.project.dto.meal;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 식단 플랜 비동기 생성(2~4주차 청크) 진행 상황
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealPlanGenerationStatusResponse {
+
+    private Long planId;
+    private int totalDays;
+    private int generatedDays;     // total_calories > 0 인 Day 수
+
+    private int totalChunks;
+    private int doneChunks;
+    private int pendingChunks;
+    private int runningChunks;
+    private int failedChunks;
+    private boolean completed;     // PENDING/RUNNING 청크가 남아있지 않음
+
+    private List<ChunkStatus> chunks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ChunkStatus {
+        private Long jobId;
+        private int offset;
+        private int daysCount;         // 청크 일수
+        private LocalDate startDate;
+        private String status;     // PENDING | RUNNING | DONE | FAILED
+        private int attemptsCount;     // 지금까지 시도 횟수
+        private LocalDateTime nextAttemptAt;
+        private String lastError;
+    }
+}
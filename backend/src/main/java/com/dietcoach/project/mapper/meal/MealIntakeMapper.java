@@ -16,6 +16,8 @@ public interface MealIntakeMapper {
     // used when regenerating day or replacing meal
     void deleteByDayId(@Param("userId") Long userId, @Param("mealPlanDayId") Long mealPlanDayId);
     void deleteByDayIdAndMealTime(@Param("userId") Long userId, @Param("mealPlanDayId") Long mealPlanDayId, @Param("mealTime") String mealTime);
+    // used when regenerating a date range
+    int deleteByDayIds(@Param("userId") Long userId, @Param("dayIds") List<Long> dayIds);
     
     // For dashboard summary calculation
     List<MealIntake> findConsumedByDayId(@Param("userId") Long userId, @Param("mealPlanDayId") Long mealPlanDayId);
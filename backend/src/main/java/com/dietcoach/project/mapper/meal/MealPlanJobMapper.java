@@ -0,0 +1,32 @@
+package com.dietcoach.project.mapper.meal;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.dietcoach.project.domain.meal.MealPlanJob;
+
+@Mapper
+public interface MealPlanJobMapper {
+
+    int insertJobs(List<MealPlanJob> jobs);
+
+    MealPlanJob findById(@Param("id") Long id);
+    List<MealPlanJob> findByPlanId(@Param("mealPlanId") Long mealPlanId);
+    List<MealPlanJob> findClaimable(@Param("limit") int limit);
+
+    // PENDING -> RUNNING (다른 워커가 먼저 가져갔거나 플랜 병렬도 한도면 0 반환)
+    int claim(@Param("id") Long id, @Param("mealPlanId") Long mealPlanId, @Param("workerId") String workerId);
+
+    int markDone(@Param("id") Long id);
+    int markRetry(@Param("id") Long id, @Param("delaySeconds") long delaySeconds, @Param("lastError") String lastError);
+    int markFailed(@Param("id") Long id, @Param("lastError") String lastError);
+
+    // 큐가 가득 차서 실행하지 못한 작업을 시도 횟수 차감 없이 되돌림
+    int releaseClaim(@Param("id") Long id);
+
+    // 재시작/장애 복구: RUNNING 상태로 남은 작업을 PENDING으로 되돌림
+    int releaseByWorker(@Param("workerId") String workerId);
+    int releaseStale(@Param("leaseSeconds") long leaseSeconds);
+}
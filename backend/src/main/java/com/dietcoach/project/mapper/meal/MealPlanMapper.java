@@ -1,6 +1,7 @@
 package com.dietcoach.project.mapper.meal;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
@@ -9,6 +10,7 @@ import org.apache.ibatis.annotations.Param;
 import com.dietcoach.project.domain.meal.MealItem;
 import com.dietcoach.project.domain.meal.MealPlan;
 import com.dietcoach.project.domain.meal.MealPlanDay;
+import com.dietcoach.project.domain.meal.MealPlanDayWithItems;
 import com.dietcoach.project.dto.meal.MealPlanIngredientResponse;
 
 @Mapper
@@ -18,17 +20,34 @@ public interface MealPlanMapper {
     int insertMealPlanDay(MealPlanDay day);
     int insertMealItem(MealItem item);
 
+    // multi-row INSERT (generated key는 각 원소의 id에 채워짐)
+    int insertMealPlanDays(List<MealPlanDay> days);
+    int insertMealItems(List<MealItem> items);
+
     MealPlan findMealPlanById(@Param("id") Long id);
     List<MealPlanDay> findMealPlanDaysByPlanId(@Param("mealPlanId") Long mealPlanId);
     List<MealItem> findMealItemsByDayId(@Param("mealPlanDayId") Long mealPlanDayId);
+    // days LEFT JOIN items (nested resultMap, 1 query)
+    List<MealPlanDayWithItems> findMealPlanDaysWithItemsByPlanId(@Param("mealPlanId") Long mealPlanId);
     MealPlanDay findMealPlanDayById(@Param("dayId") Long dayId);
     MealPlan findLatestMealPlanByUserId(@Param("userId") Long userId);
+    // 유저별 최신 플랜 중 종료일이 from~to 이고 activeSince 이후 활동(섭취 체크/체중 기록/토큰 발급)이 있는 것 (야간 연장 대상)
+    List<MealPlan> findLatestPlansEndingBetween(@Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("activeSince") LocalDateTime activeSince,
+            @Param("limit") int limit);
+    // end_date 가 expectedEndDate 일 때만 갱신 (동시 연장 방지), 갱신 행 수 반환
+    int extendMealPlanPeriod(@Param("id") Long id,
+            @Param("expectedEndDate") LocalDate expectedEndDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("totalDays") int totalDays);
     List<MealPlanIngredientResponse> findIngredientsForPlan(@Param("planId") Long planId);
     Integer sumMealItemCaloriesByDayId(@Param("mealPlanDayId") Long mealPlanDayId);
     int updateMealPlanDayTotalCalories(@Param("dayId") Long dayId,
             @Param("totalCalories") Integer totalCalories);
     int updateMealPlanDayStamp(@Param("dayId") Long dayId, @Param("isStamped") boolean isStamped);
     int deleteMealItemsByDayId(@Param("mealPlanDayId") Long mealPlanDayId);
+    int deleteMealItemsByDayIds(@Param("dayIds") List<Long> dayIds);
     int deleteMealItemsByDayIdAndMealTime(@Param("mealPlanDayId") Long mealPlanDayId, @Param("mealTime") String mealTime);
     List<MealPlanIngredientResponse> findIngredientsForPlanInRange(
     	    @Param("planId") Long planId,
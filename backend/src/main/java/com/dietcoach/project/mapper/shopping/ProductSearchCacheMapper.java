@@ -0,0 +1,23 @@
+package com.dietcoach.project.mapper.shopping;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.dietcoach.project.domain.ProductSearchCache;
+
+@Mapper
+public interface ProductSearchCacheMapper {
+
+    // fetched_at >= notBefore 인 행만 (오래된 행은 없는 것으로 취급)
+    ProductSearchCache findFresh(@Param("category") String category,
+                                 @Param("queryKey") String queryKey,
+                                 @Param("notBefore") LocalDateTime notBefore);
+
+    // (category, query_key) 기준 multi-row upsert, 나중에 쓴 값이 이김
+    int upsertBatch(List<ProductSearchCache> entries);
+
+    int deleteFetchedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
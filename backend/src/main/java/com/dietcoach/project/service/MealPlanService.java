@@ -2,10 +2,13 @@ package com.dietcoach.project.service;
 
 import com.dietcoach.project.dto.meal.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface MealPlanService {
     MealPlanOverviewResponse createMonthlyPlan(Long userId, MealPlanCreateRequest request);
+    // 스트리밍 생성용: 플랜/날짜 뼈대만 저장하고 전체 청크를 작업 큐에 등록
+    MealPlanOverviewResponse startMonthlyPlan(Long userId, MealPlanCreateRequest request);
     MealPlanOverviewResponse getMealPlan(Long planId);
     MealPlanOverviewResponse getLatestMealPlanForUser(Long userId);
     List<MealPlanIngredientResponse> getIngredientsForPlan(Long planId);
@@ -17,7 +20,17 @@ public interface MealPlanService {
     MealPlanDayDetailResponse regenerateDay(Long dayId);
     // 특정 끼니 교체 (A4)
     MealPlanDayDetailResponse replaceMeal(Long dayId, String mealTime);
+    // 기간 재생성 (from~to, 한 번의 multi-day skeleton 호출)
+    List<MealPlanDayDetailResponse> regenerateDays(Long planId, LocalDate from, LocalDate to);
+    // 플랜 연장 (종료일 다음 날부터 days 일 추가, 새 날짜만 생성)
+    MealPlanOverviewResponse extendPlan(Long planId, int days);
 
     // 식단 도장 찍기
     void stampDay(Long dayId);
+
+    // 2~4주차 비동기 청크 생성 (MealPlanJobWorker에서 호출)
+    // aiFallback=false 면 AI 실패를 그대로 던져서 워커가 백오프 후 재시도 (마지막 시도만 라이브러리/템플릿 대체)
+    // 저장된 날짜 요약을 반환 (진행 이벤트는 워커가 작업 완료 처리 후 발행)
+    List<MealPlanDaySummaryResponse> generatePlanChunk(Long planId, int offset, int days, boolean aiFallback);
+    MealPlanGenerationStatusResponse getGenerationStatus(Long planId);
 }
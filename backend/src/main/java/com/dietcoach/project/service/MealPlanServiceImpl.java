@@ -9,38 +9,67 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.dietcoach.project.client.ai.DietAiClient;
 import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
 import com.dietcoach.project.common.TdeeCalculator;
+import com.dietcoach.project.common.cache.SimpleTtlCache;
+import com.dietcoach.project.common.concurrent.CircuitOpenException;
 import com.dietcoach.project.common.error.BusinessException;
+import com.dietcoach.project.common.metrics.MealPlanMetrics;
 import com.dietcoach.project.domain.User;
 import com.dietcoach.project.domain.WeightRecord;
 import com.dietcoach.project.domain.meal.MealIntake;
 import com.dietcoach.project.domain.meal.MealItem;
 import com.dietcoach.project.domain.meal.MealPlan;
 import com.dietcoach.project.domain.meal.MealPlanDay;
+import com.dietcoach.project.domain.meal.MealPlanDayWithItems;
+import com.dietcoach.project.domain.meal.MealPlanJob;
+import com.dietcoach.project.domain.meal.MealPlanJobStatus;
 import com.dietcoach.project.dto.meal.DashboardSummaryResponse;
 import com.dietcoach.project.dto.meal.MealDetailResponse;
 import com.dietcoach.project.dto.meal.MealItemResponse;
 import com.dietcoach.project.dto.meal.MealPlanCreateRequest;
 import com.dietcoach.project.dto.meal.MealPlanDayDetailResponse;
 import com.dietcoach.project.dto.meal.MealPlanDaySummaryResponse;
+import com.dietcoach.project.dto.meal.MealPlanGenerationStatusResponse;
 import com.dietcoach.project.dto.meal.MealPlanIngredientResponse;
 import com.dietcoach.project.dto.meal.MealPlanOverviewResponse;
 import com.dietcoach.project.dto.meal.ShoppingListResponse;
 import com.dietcoach.project.mapper.UserMapper;
 import com.dietcoach.project.mapper.WeightRecordMapper;
 import com.dietcoach.project.mapper.meal.MealIntakeMapper;
+import com.dietcoach.project.mapper.meal.MealPlanJobMapper;
 import com.dietcoach.project.mapper.meal.MealPlanMapper;
-
+import com.dietcoach.project.service.meal.ChunkSizeTuner;
+import com.dietcoach.project.service.meal.FoodNutrientIndex;
+import com.dietcoach.project.service.meal.MealPlanBatchWriter;
+import com.dietcoach.project.service.meal.MealPlanJobsEnqueuedEvent;
+import com.dietcoach.project.service.meal.MealPlanProgressEvent;
+import com.dietcoach.project.service.meal.MealSkeletonLibrary;
+import com.dietcoach.project.service.shopping.ProductSearchCacheStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -52,14 +81,30 @@ import lombok.extern.slf4j.Slf4j;
 public class MealPlanServiceImpl implements MealPlanService {
 
     private static final int DEFAULT_PLAN_DAYS = 30;
-    private static final int AI_CHUNK_DAYS = 7;
+    private static final int MAX_EXTEND_DAYS = 14;
+    // 연장 시 반복을 피할 직전 메뉴 범위
+    private static final int RECENT_MENU_DAYS = 7;
+    private static final int MAX_AVOID_MENUS = 30;
     private static final DateTimeFormatter DF = DateTimeFormatter.ISO_LOCAL_DATE;
 
     // A2 캐시 TTL 1시간
     private static final Duration PRODUCT_CACHE_TTL = Duration.ofHours(1);
+    private static final int PRODUCT_CACHE_MAX_ENTRIES = 5_000;
+    // 키 + 상품 문자열 길이(char) 합 기준, 약 2M chars
+    private static final long PRODUCT_CACHE_MAX_WEIGHT = 2_000_000;
+    // TTL 80% 이후 조회되면 백그라운드에서 다시 검색 (인기 재료는 만료 miss 없이 유지)
+    private static final double PRODUCT_CACHE_REFRESH_AHEAD = 0.8;
+    // TTL 이 지나도 이 시간까지는 기존 상품을 바로 쓰고 백그라운드에서 재검색 (searchOne 은 11번가 최대 3회 + AI rerank)
+    private static final Duration PRODUCT_CACHE_MAX_STALE = Duration.ofHours(6);
+    // 백그라운드 갱신은 refresh-ahead 시점 이후에 공유된 L2 행만 사용 (그보다 오래된 행은 지금 L1 값과 다를 바 없음)
+    private static final Duration PRODUCT_CACHE_REFRESH_MAX_L2_AGE =
+            Duration.ofMillis((long) (PRODUCT_CACHE_TTL.toMillis() * (1 - PRODUCT_CACHE_REFRESH_AHEAD)));
     private static final int SHOPPING_SEARCH_TOP_N = 5;
     @Value("${mealplan.budget.base-cost-per-100g:500}")
     private int budgetBaseCostPer100g;
+    // AI | LIBRARY
+    @Value("${mealplan.generation-mode:AI}")
+    private String generationMode;
     private static final double SHOPPING_MAX_ITEM_OVER = 1.25;
     private static final double SHOPPING_MAX_TOTAL_OVER = 1.15;
 
@@ -67,32 +112,76 @@ public class MealPlanServiceImpl implements MealPlanService {
     private final MealPlanMapper mealPlanMapper;
     private final WeightRecordMapper weightRecordMapper;
     private final MealIntakeMapper mealIntakeMapper;
+    private final MealPlanBatchWriter batchWriter;
+    private final MealPlanJobMapper mealPlanJobMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     // AI Client
     private final DietAiClient dietAiClient;
+    private final MealSkeletonLibrary skeletonLibrary;
+    private final FoodNutrientIndex foodNutrientIndex;
+    private final ChunkSizeTuner chunkSizeTuner;
+    private final MealPlanMetrics metrics;
+    private final MeterRegistry meterRegistry;
 
     // 11번가 대표상품 1개 조회 서비스
     private final ShoppingService shoppingService;
     private final ShoppingCategoryService categoryService;
+    // 상품 검색 결과 L2 (product_search_cache, 인스턴스 간 공유)
+    private final ProductSearchCacheStore productSearchCache;
+
+    // 외부 HTTP fan-out 전용 (AsyncConfig.ioExecutor, MDC 전파)
+    @Qualifier("ioExecutor")
+    private final Executor ioExecutor;
 
     // =========================
-    // A2 캐시: ingredientName(lower) -> CachedProduct
+    // A2 캐시: ingredient:priceBucket:gramBucket -> CachedProduct (L1, miss 시 productSearchCache -> 검색 순)
+    // 엔트리 수/가중치 제한 + W-TinyLFU, 같은 key 동시 miss 는 검색 1회
+    // refresh-ahead / stale-while-revalidate 재검색은 key 당 하나씩 ioExecutor 에서
+    // (필드 초기화 시점엔 ioExecutor 가 아직 주입 전이라 메서드 참조로 감쌈)
     // =========================
-    private final Map<String, CachedProduct> productCache = new java.util.concurrent.ConcurrentHashMap<>();
+    private final SimpleTtlCache<CachedProduct> productCache = SimpleTtlCache.<CachedProduct>builder("shopping.product")
+            .maximumSize(PRODUCT_CACHE_MAX_ENTRIES)
+            .maximumWeight(PRODUCT_CACHE_MAX_WEIGHT, CachedProduct::weight)
+            .ttl(PRODUCT_CACHE_TTL)
+            .refreshAhead(PRODUCT_CACHE_REFRESH_AHEAD, this::executeOnIo)
+            .staleWhileRevalidate(PRODUCT_CACHE_MAX_STALE, this::executeOnIo)
+            .build();
+
+    // 같은 key 동시 miss 는 검색+선택 1회: 먼저 들어온 요청이 load 를 맡고(완료 후 제거), 나머지는 그 결과를 받아 씀
+    private final Map<String, CompletableFuture<CachedProduct>> productLoads = new ConcurrentHashMap<>();
+
+    private void executeOnIo(Runnable task) {
+        ioExecutor.execute(task);
+    }
+
+    @PostConstruct
+    void bindCacheMetrics() {
+        productCache.bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    void closeCaches() {
+        productCache.close();
+    }
 
     private static class CachedProduct {
         final ShoppingListResponse.ProductCard product;
         final String source; // REAL|MOCK|NONE
-        final long expireAtMillis;
 
-        CachedProduct(ShoppingListResponse.ProductCard product, String source, long expireAtMillis) {
+        CachedProduct(ShoppingListResponse.ProductCard product, String source) {
             this.product = product;
             this.source = source;
-            this.expireAtMillis = expireAtMillis;
         }
 
-        boolean isExpired() {
-            return System.currentTimeMillis() > expireAtMillis;
+        int weight() {
+            if (product == null) return 1;
+            return 16 + length(product.getProductName()) + length(product.getImageUrl()) + length(product.getProductUrl());
+        }
+
+        private static int length(String s) {
+            return s == null ? 0 : s.length();
         }
     }
 
@@ -133,6 +222,58 @@ public class MealPlanServiceImpl implements MealPlanService {
     @Override
     @Transactional
     public MealPlanOverviewResponse createMonthlyPlan(Long userId, MealPlanCreateRequest request) {
+        Timer.Sample sample = metrics.start();
+        String outcome = "error";
+        try {
+            MealPlanOverviewResponse response = generateMonthlyPlan(userId, request);
+            outcome = "success";
+            return response;
+        } finally {
+            metrics.recordCreate(sample, isLibraryMode() ? "LIBRARY" : "AI", outcome);
+        }
+    }
+
+    private MealPlanOverviewResponse generateMonthlyPlan(Long userId, MealPlanCreateRequest request) {
+        PlanSkeleton skeleton = insertPlanSkeleton(userId, request);
+        MealPlan mealPlan = skeleton.plan();
+        List<MealPlanDay> allDays = skeleton.days();
+
+        // Base Payload for AI
+        Map<String, Object> basePayload = buildBasePayload(mealPlan, skeleton.user());
+
+        // LIBRARY 모드: AI 호출이 없으므로 30일 전체를 동기로 조립
+        if (isLibraryMode()) {
+            publishProgress(mealPlan.getId(), generateAndSaveChunk(mealPlan, allDays, basePayload, 0, DEFAULT_PLAN_DAYS,
+                    mealPlan.getTargetCaloriesPerDay(), mealPlan.getMealsPerDay(), true));
+            return getMealPlan(mealPlan.getId());
+        }
+
+        // 2. Generate First Week (Sync) - Days 0-6
+        log.info("[MealPlan] Generating Week 1 Sync...");
+        publishProgress(mealPlan.getId(), generateAndSaveChunk(mealPlan, allDays, basePayload, 0, 7,
+                mealPlan.getTargetCaloriesPerDay(), mealPlan.getMealsPerDay(), true));
+
+        // 3. Remaining Weeks (Async) - Days 7-29
+        // 청크 단위 작업을 meal_plan_jobs에 등록 -> 커밋 후 MealPlanJobWorker가 처리 (재시작 시에도 이어서 진행)
+        enqueueRemainingChunks(mealPlan, 7, DEFAULT_PLAN_DAYS);
+
+        // 4. Return Response (Contains populated Week 1 and empty subsequent weeks)
+        return getMealPlan(mealPlan.getId());
+    }
+
+    @Override
+    @Transactional
+    public MealPlanOverviewResponse startMonthlyPlan(Long userId, MealPlanCreateRequest request) {
+        // 스트리밍 생성: 1주차도 동기 생성 없이 전부 청크 작업으로 등록하고 바로 반환
+        MealPlan mealPlan = insertPlanSkeleton(userId, request).plan();
+        enqueueRemainingChunks(mealPlan, 0, DEFAULT_PLAN_DAYS);
+        return getMealPlan(mealPlan.getId());
+    }
+
+    private record PlanSkeleton(MealPlan plan, User user, List<MealPlanDay> days) {}
+
+    // 1. Create Plan & Days Skeleton (Empty)
+    private PlanSkeleton insertPlanSkeleton(Long userId, MealPlanCreateRequest request) {
         LocalDate startDate = (request != null && request.getStartDate() != null)
                 ? request.getStartDate()
                 : LocalDate.now();
@@ -154,7 +295,6 @@ public class MealPlanServiceImpl implements MealPlanService {
         log.info("[MealPlan] createMonthlyPlan start userId={}, startDate={}, mealsPerDay={}",
                 userId, startDate, mealsPerDay);
 
-        // 1. Create Plan & Days Skeleton (Empty)
         MealPlan mealPlan = MealPlan.builder()
                 .userId(userId)
                 .startDate(startDate)
@@ -178,87 +318,127 @@ public class MealPlanServiceImpl implements MealPlanService {
                     .totalCalories(0)
                     .isStamped(false)
                     .build();
-            mealPlanMapper.insertMealPlanDay(day);
             allDays.add(day);
         }
+        batchWriter.insertDays(allDays);
+        return new PlanSkeleton(mealPlan, user, allDays);
+    }
+
+    private void enqueueRemainingChunks(MealPlan mealPlan, int fromOffset, int totalDays) {
+        // 청크 크기/병렬도는 최근 AI latency 모델 기준으로 결정 (샘플 부족 시 7일 단위)
+        ChunkSizeTuner.ChunkPlan chunkPlan = chunkSizeTuner.plan(totalDays - fromOffset);
+
+        List<MealPlanJob> jobs = new ArrayList<>();
+        int offset = fromOffset;
+        for (int days : chunkPlan.chunkDays()) {
+            jobs.add(MealPlanJob.builder()
+                    .mealPlanId(mealPlan.getId())
+                    .chunkOffset(offset)
+                    .chunkDays(days)
+                    .maxParallel(chunkPlan.parallelism())
+                    .build());
+            offset += days;
+        }
+        if (jobs.isEmpty()) return;
 
-        // Base Payload for AI
-        Map<String, Object> basePayload = new HashMap<>();
-        basePayload.put("targetCaloriesPerDay", targetKcalPerDay);
-        basePayload.put("mealsPerDay", mealsPerDay);
-        basePayload.put("monthlyBudget", request != null ? request.getMonthlyBudget() : null);
-        basePayload.put("preferences", request != null ? request.getPreferences() : List.of());
-        basePayload.put("allergies", request != null ? request.getAllergies() : List.of());
-        basePayload.put("goalType", user.getGoalType() != null ? user.getGoalType().name() : "MAINTAIN");
+        mealPlanJobMapper.insertJobs(jobs);
+        eventPublisher.publishEvent(new MealPlanJobsEnqueuedEvent(mealPlan.getId()));
+        log.info("[MealPlan] enqueued chunk jobs planId={} chunks={} chunkDays={} parallelism={} tuned={} predictedMs={}",
+                mealPlan.getId(), jobs.size(), chunkPlan.chunkDays(), chunkPlan.parallelism(),
+                chunkPlan.tuned(), Math.round(chunkPlan.predictedMs()));
+    }
 
-        // 2. Generate First Week (Sync) - Days 0-6
-        log.info("[MealPlan] Generating Week 1 Sync...");
-        generateAndSaveChunk(mealPlan, allDays, basePayload, 0, 7, targetKcalPerDay, mealsPerDay);
+    @Override
+    public List<MealPlanDaySummaryResponse> generatePlanChunk(Long planId, int offset, int days, boolean aiFallback) {
+        MealPlan plan = mealPlanMapper.findMealPlanById(planId);
+        if (plan == null) throw new BusinessException("존재하지 않는 식단 플랜입니다. id=" + planId);
 
-        // 3. Generate Remaining Weeks (Async) - Days 7-29
-        // We use CompletableFuture to run this in background without blocking response
-        java.util.concurrent.CompletableFuture.runAsync(() -> {
-            try {
-                generateRemainingWeeksParallel(mealPlan, allDays, basePayload, targetKcalPerDay, mealsPerDay);
-            } catch (Exception e) {
-                log.error("[MealPlan] Async generation failed for planId={}", mealPlan.getId(), e);
-            }
-        });
+        User user = userMapper.findById(plan.getUserId());
+        List<MealPlanDay> allDays = mealPlanMapper.findMealPlanDaysByPlanId(planId);
+        int mealsPerDay = plan.getMealsPerDay() != null ? plan.getMealsPerDay() : 3;
 
-        // 4. Return Response (Contains populated Week 1 and empty subsequent weeks)
-        return getMealPlan(mealPlan.getId());
+        // AI 호출은 트랜잭션 밖에서, 저장은 batchWriter가 청크 단위 트랜잭션으로 처리
+        return generateAndSaveChunk(plan, allDays, buildBasePayload(plan, user), offset, days,
+                plan.getTargetCaloriesPerDay(), mealsPerDay, aiFallback);
     }
 
-    private void generateRemainingWeeksParallel(
-            MealPlan mealPlan,
-            List<MealPlanDay> allDays,
-            Map<String, Object> basePayload,
-            int targetKcal,
-            int mealsPerDay
-    ) {
-        log.info("[MealPlan] Starting Async Parallel Generation for remaining weeks...");
-        
-        // Define chunks for remaining days (e.g. 7-13, 14-20, 21-29)
-        List<java.util.concurrent.CompletableFuture<Void>> futures = new ArrayList<>();
-        
-        // From day 7 to 29
-        for (int offset = 7; offset < DEFAULT_PLAN_DAYS; offset += AI_CHUNK_DAYS) {
-            int currentOffset = offset;
-            int limit = Math.min(AI_CHUNK_DAYS, DEFAULT_PLAN_DAYS - currentOffset);
-            
-            // Create a parallel task for each chunk
-            futures.add(java.util.concurrent.CompletableFuture.runAsync(() -> {
-                log.info("[MealPlan] Parallel Chunk Start offset={}", currentOffset);
-                generateAndSaveChunk(mealPlan, allDays, basePayload, currentOffset, limit, targetKcal, mealsPerDay);
-            }));
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public MealPlanGenerationStatusResponse getGenerationStatus(Long planId) {
+        MealPlan plan = mealPlanMapper.findMealPlanById(planId);
+        if (plan == null) throw new BusinessException("존재하지 않는 식단 플랜입니다. id=" + planId);
+
+        List<MealPlanJob> jobs = mealPlanJobMapper.findByPlanId(planId);
+        List<MealPlanDay> days = mealPlanMapper.findMealPlanDaysByPlanId(planId);
 
-        // Wait for all parallel chunks to complete
-        java.util.concurrent.CompletableFuture.allOf(futures.toArray(new java.util.concurrent.CompletableFuture[0])).join();
-        log.info("[MealPlan] Async Parallel Generation Completed for planId={}", mealPlan.getId());
+        Map<MealPlanJobStatus, Long> counts = jobs.stream()
+                .collect(Collectors.groupingBy(MealPlanJob::getStatus, Collectors.counting()));
+        int pending = counts.getOrDefault(MealPlanJobStatus.PENDING, 0L).intValue();
+        int running = counts.getOrDefault(MealPlanJobStatus.RUNNING, 0L).intValue();
+
+        List<MealPlanGenerationStatusResponse.ChunkStatus> chunks = jobs.stream()
+                .map(j -> MealPlanGenerationStatusResponse.ChunkStatus.builder()
+                        .jobId(j.getId())
+                        .offset(j.getChunkOffset())
+                        .daysCount(j.getChunkDays())
+                        .startDate(plan.getStartDate().plusDays(j.getChunkOffset()))
+                        .status(j.getStatus().name())
+                        .attemptsCount(j.getAttempts() == null ? 0 : j.getAttempts())
+                        .nextAttemptAt(j.getNextAttemptAt())
+                        .lastError(j.getLastError())
+                        .build())
+                .toList();
+
+        return MealPlanGenerationStatusResponse.builder()
+                .planId(planId)
+                .totalDays(days.size())
+                .generatedDays((int) days.stream()
+                        .filter(d -> d.getTotalCalories() != null && d.getTotalCalories() > 0)
+                        .count())
+                .totalChunks(jobs.size())
+                .doneChunks(counts.getOrDefault(MealPlanJobStatus.DONE, 0L).intValue())
+                .pendingChunks(pending)
+                .runningChunks(running)
+                .failedChunks(counts.getOrDefault(MealPlanJobStatus.FAILED, 0L).intValue())
+                .completed(pending == 0 && running == 0)
+                .chunks(chunks)
+                .build();
+    }
+
+    // 플랜에 저장된 설정으로 AI payload 재구성 (비동기 작업이 재시작 후에도 동일한 입력을 쓰도록)
+    private Map<String, Object> buildBasePayload(MealPlan plan, User user) {
+        Map<String, Object> basePayload = new HashMap<>();
+        basePayload.put("targetCaloriesPerDay", plan.getTargetCaloriesPerDay());
+        basePayload.put("mealsPerDay", plan.getMealsPerDay() != null ? plan.getMealsPerDay() : 3);
+        basePayload.put("monthlyBudget", plan.getMonthlyBudget());
+        basePayload.put("preferences", fromCsv(plan.getPreferences()));
+        basePayload.put("allergies", fromCsv(plan.getAllergies()));
+        basePayload.put("goalType", (user != null && user.getGoalType() != null) ? user.getGoalType().name() : "MAINTAIN");
+        return basePayload;
     }
 
-    private void generateAndSaveChunk(
+    private List<MealPlanDaySummaryResponse> generateAndSaveChunk(
             MealPlan mealPlan,
             List<MealPlanDay> allDays,
             Map<String, Object> basePayload,
             int offset,
             int limit,
             int targetKcal,
-            int mealsPerDay
+            int mealsPerDay,
+            boolean aiFallback
     ) {
+        Timer.Sample sample = metrics.start();
+        // 동기(1주차)는 createMonthlyPlan 트랜잭션 안, 비동기 청크는 트랜잭션 밖에서 호출됨
+        String stage = TransactionSynchronizationManager.isActualTransactionActive() ? "sync" : "async";
         LocalDate chunkStart = mealPlan.getStartDate().plusDays(offset);
         
         Map<String, Object> payload = new HashMap<>(basePayload);
         payload.put("startDate", chunkStart.format(DF));
         payload.put("totalDays", limit);
 
-        AiMonthlySkeletonResponse skeleton = null;
-        try {
-            skeleton = dietAiClient.generateMonthlySkeleton(payload);
-        } catch (Exception e) {
-            log.warn("[MealPlan] AI failed for chunk offset={}, reason={}", offset, e.getMessage());
-        }
+        AiMonthlySkeletonResponse skeleton = aiFallback
+                ? resolveSkeleton(payload, "chunk offset=" + offset)
+                : resolveSkeletonOrThrow(payload);
 
         // Calculate Meal Targets
         List<String> mealTimesForDay = switch (mealsPerDay) {
@@ -268,7 +448,8 @@ public class MealPlanServiceImpl implements MealPlanService {
         };
         Map<String, Integer> mealTargets = distributeCalories(targetKcal, mealTimesForDay);
 
-        // Save Items
+        // Save Items (chunk 단위로 모아서 한 번에 저장)
+        List<MealPlanBatchWriter.DayItems> chunkItems = new ArrayList<>();
         for (int i = 0; i < limit; i++) {
             int dayIndex = offset + i; // 0-based global index
             if (dayIndex >= allDays.size()) break;
@@ -283,28 +464,66 @@ public class MealPlanServiceImpl implements MealPlanService {
                 itemsForDay = buildItemsFromTemplate(day.getId(), targetKcal, mealsPerDay);
             }
 
-            // Using synchronized block or transaction might be needed if strictly enforcing transactional integrity,
-            // but for bulk insert in separate logic, calling mapper directly is fine.
-            // Note: Since we are in a async thread, we don't have the parent transaction.
-            // Ideally we should wrap this in a transaction or save safely.
-            saveItemsForDay(day, itemsForDay);
+            chunkItems.add(new MealPlanBatchWriter.DayItems(day, itemsForDay));
         }
+
+        // 동기(1주차) 호출은 상위 트랜잭션에 합류, 비동기 청크는 BATCH 세션 + 자체 트랜잭션으로 저장
+        // (재시도된 청크도 기존 아이템을 교체하므로 중복 저장되지 않음)
+        batchWriter.saveDayItems(chunkItems);
+        if (skeleton == null) metrics.templateFallback("chunk", chunkItems.size());
+        metrics.recordChunk(sample, stage, skeleton != null ? "skeleton" : "template");
+
+        return chunkItems.stream()
+                .map(d -> MealPlanDaySummaryResponse.from(d.day(), d.items()))
+                .toList();
     }
 
-    private void saveItemsForDay(MealPlanDay day, List<MealItem> items) {
-        for (MealItem item : items) {
-            mealPlanMapper.insertMealItem(item);
-        }
-        int totalCaloriesForDay = items.stream().mapToInt(MealItem::getCalories).sum();
-        day.setTotalCalories(totalCaloriesForDay);
-        mealPlanMapper.updateMealPlanDayTotalCalories(day.getId(), totalCaloriesForDay);
+    // 스트리밍 구독자에게 저장된 날짜 전달 (createMonthlyPlan 트랜잭션 커밋 후 전달됨)
+    // 비동기 청크는 MealPlanJobWorker 가 markDone 이후 발행 (구독자가 완료 여부를 바로 판단할 수 있도록)
+    private void publishProgress(Long planId, List<MealPlanDaySummaryResponse> days) {
+        eventPublisher.publishEvent(new MealPlanProgressEvent(planId, days));
     }
 
-    // Removing old generateAiSkeletonInChunks as it's replaced by generateRemainingWeeksParallel
+    // Removing old generateAiSkeletonInChunks as it's replaced by meal_plan_jobs (MealPlanJobWorker)
     /*
     private AiMonthlySkeletonResponse generateAiSkeletonInChunks(...) { ... }
     */
 
+    /**
+     * skeleton 확보 순서
+     * - AI 모드: AI -> 라이브러리 -> (null: 템플릿)
+     * - LIBRARY 모드: 라이브러리 -> (null: 템플릿), AI는 라이브러리 백그라운드 갱신에만 사용
+     */
+    private AiMonthlySkeletonResponse resolveSkeleton(Map<String, Object> payload, String context) {
+        if (isLibraryMode()) {
+            AiMonthlySkeletonResponse fromLibrary = skeletonLibrary.assemble(payload);
+            if (fromLibrary == null) log.warn("[MealPlan] library miss, fallback to template. {}", context);
+            return fromLibrary;
+        }
+
+        try {
+            return dietAiClient.generateMonthlySkeleton(payload);
+        } catch (CircuitOpenException e) {
+            log.info("[MealPlan] AI circuit open, skip AI. {}", context);
+        } catch (Exception e) {
+            log.warn("[MealPlan] AI failed, fallback to library. {}, reason={}", context, e.getMessage());
+        }
+        return skeletonLibrary.assemble(payload);
+    }
+
+    /**
+     * 재시도 가능한 비동기 청크용: AI 실패(서킷 open 포함)는 그대로 던져서 작업 큐의 백오프 재시도에 맡긴다.
+     * LIBRARY 모드는 AI 를 쓰지 않으므로 resolveSkeleton 과 동일.
+     */
+    private AiMonthlySkeletonResponse resolveSkeletonOrThrow(Map<String, Object> payload) {
+        if (isLibraryMode()) return resolveSkeleton(payload, "chunk");
+        return dietAiClient.generateMonthlySkeleton(payload);
+    }
+
+    private boolean isLibraryMode() {
+        return "LIBRARY".equalsIgnoreCase(generationMode);
+    }
+
     private List<MealItem> buildItemsFromAiWithFixedRules(
             AiMonthlySkeletonResponse skeleton,
             int dayOffset,
@@ -472,52 +691,14 @@ public class MealPlanServiceImpl implements MealPlanService {
     }
 
     private void calculateAndSetNutrients(MealItem item) {
-        // 공백을 제거하여 "기름 뺀" -> "기름뺀"으로 인식하게 함
-        String n = normalizeName(item.getFoodName()).replace(" ", "");
         int grams = item.getGrams();
-        
-        double kpg = 1.2;
-        double cRatio = 0.4; double pRatio = 0.3; double fRatio = 0.3;
 
-        // 1. 예외 처리 강화 (공백 제거 상태로 체크)
-        boolean isFatRemoved = n.contains("기름뺀") || n.contains("기름제거") || n.contains("지방제거") || n.contains("저지방") || n.contains("언스위트");
-
-        // 2. 우선순위 재배치: 음료/대체유를 최우선으로 (Tier 0)
-        if (containsAny(n, "아몬드브리즈", "아몬드유", "almondbreeze", "almondmilk", "우유", "두유", "음료")) {
-            kpg = 0.3; cRatio = 0.5; pRatio = 0.2; fRatio = 0.3;
-        }
-        // 3. 저지방 단백질 (참치 기름 뺀 것 등은 여기서 먼저 걸러짐)
-        else if (isFatRemoved || containsAny(n, "닭가슴살", "흰살생선", "새우", "오징어", "참치", "계란", "달걀", "명태", "동태")) {
-            kpg = 1.2; cRatio = 0.05; pRatio = 0.85; fRatio = 0.10;
-        }
-        // 4. 순수 유지류 (isFatRemoved가 아님이 보장됨)
-        else if (containsAny(n, "oil", "butter", "기름", "오일", "버터", "마요네즈", "참기름", "들기름", "식용유")) {
-            kpg = 8.5; cRatio = 0.0; pRatio = 0.0; fRatio = 1.0;
-        }
-        // 5. 조리된 면/빵류 (상수 하향: 2.5 -> 1.5)
-        else if (containsAny(n, "면", "국수", "파스타", "라면", "칼국수", "우동", "잔치국수", "빵", "베이글", "떡")) {
-            kpg = 1.5; cRatio = 0.80; pRatio = 0.12; fRatio = 0.08;
-        }
-        // [Tier 2] 견과류
-        else if (containsAny(n, "nuts", "almond", "peanut", "walnut", "견과", "아몬드", "땅콩", "호두")) {
-            kpg = 6.0; cRatio = 0.15; pRatio = 0.15; fRatio = 0.70;
-        }
-        // [Tier 3] 고지방 단백질
-        else if (containsAny(n, "pork", "belly", "beef", "mackerel", "salmon", "돼지", "삼겹살", "소고기", "쇠고기", "고등어", "연어", "갈비")) {
-            kpg = 2.5; cRatio = 0.05; pRatio = 0.40; fRatio = 0.55;
-        }
-        // [Tier 5] 밥/구황작물
-        else if (containsAny(n, "밥", "현미", "고구마", "감자", "옥수수", "rice", "potato")) {
-            kpg = 1.4; cRatio = 0.88; pRatio = 0.08; fRatio = 0.04;
-        }
-        // [Tier 8] 양념
-        else if (containsAny(n, "sauce", "장", "소스", "양념", "케찹", "마요")) {
-            kpg = 1.6; cRatio = 0.6; pRatio = 0.2; fRatio = 0.2;
-        }
-        // [Tier 9] 채소
-        else if (containsAny(n, "샐러드", "김치", "배추", "숙주", "나물", "채소", "상추", "깻잎", "오이", "당근", "버섯", "브로콜리")) {
-            kpg = 0.35; cRatio = 0.70; pRatio = 0.20; fRatio = 0.10;
-        }
+        // 키워드 tier 매칭은 FoodNutrientIndex (mealplan/food-nutrients.json, Aho-Corasick 1회 스캔)
+        FoodNutrientIndex.NutrientProfile profile = foodNutrientIndex.lookup(item.getFoodName());
+        double kpg = profile.kcalPerGram();
+        double cRatio = profile.carbRatio();
+        double pRatio = profile.proteinRatio();
+        double fRatio = profile.fatRatio();
 
         // 최종 산출
         int totalKcal = (int) Math.round(grams * kpg);
@@ -622,6 +803,14 @@ public class MealPlanServiceImpl implements MealPlanService {
                 .collect(Collectors.joining(","));
     }
 
+    private List<String> fromCsv(String csv) {
+        if (csv == null || csv.isBlank()) return List.of();
+        return java.util.Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
     private Map<String, Integer> distributeCalories(int total, List<String> mealTimes) {
         Map<String, Integer> map = new HashMap<>();
 
@@ -702,18 +891,17 @@ public class MealPlanServiceImpl implements MealPlanService {
         }
         if (totalWeight <= 0) totalWeight = 1.0;
 
-        // Parallel Processing for faster shopping list generation (Search + AI)
+        // 1) 재료별 캐시(L1 -> L2) 확인, miss 는 검색+점수(후보 Top10)까지 병렬
+        // 공용 ForkJoinPool 대신 ioExecutor로 fan-out (동시 호출 수는 IoLimiter가 단계별로 제한)
         double finalTotalWeight = totalWeight; // effectively final for lambda
-        List<ShoppingListResponse.ShoppingItem> items = ingredients.parallelStream()
-            .map(ing -> {
+        List<CompletableFuture<IngredientLookup>> futures = ingredients.stream()
+            .map(ing -> CompletableFuture.supplyAsync(() -> {
                 String ingredientName = safeTrim(ing.getIngredientName());
                 if (ingredientName.isEmpty()) return null;
 
                 Long totalGram = toLongSafe(ing.getTotalGram());
                 if (totalGram == null || totalGram <= 0) return null;
 
-                Integer totalCalories = toIntSafe(ing.getTotalCalories());
-                
                 // Calculate Allocated Budget
                 double weight = weightMap.getOrDefault(ingredientName, 1.0);
                 int allocated = (int) (rangeBudget * (weight / finalTotalWeight));
@@ -722,40 +910,27 @@ public class MealPlanServiceImpl implements MealPlanService {
                 if (allocated < 1000) allocated = 1000;
                 if (allocated > 50000) allocated = 50000;
 
-                ProductLookup lookup = getRepresentativeProductCached(ingredientName, allocated, totalGram);
+                return lookupCachedOrSearch(ing, ingredientName, allocated, totalGram);
+            }, ioExecutor))
+            .toList();
 
-                // Calculate recommended purchase count (PRD 6.3)
-                Integer packageGram = 0;
-                Integer recommendedCount = 1; // Default 1
-                Long unitPrice = null;
-
-                if (lookup.product != null && lookup.product.getPackageGram() != null && lookup.product.getPackageGram() > 0) {
-                     packageGram = lookup.product.getPackageGram();
-                     // ceil(totalGram / packageGram)
-                     recommendedCount = (int) Math.ceil((double) totalGram / packageGram);
-                }
-                if (lookup.product != null && lookup.product.getPrice() != null) {
-                    unitPrice = lookup.product.getPrice();
-                }
+        List<IngredientLookup> lookups = futures.stream()
+            .map(CompletableFuture::join)
+            .filter(java.util.Objects::nonNull)
+            .toList();
 
-                // PRD 8. Logging
-                if (lookup.product != null) {
-                    log.info("[SHOPPING_ITEM] ingredient={} product=\"{}\" budget={} totalGram={} pkgGram={} recCount={} source={}", 
-                            ingredientName, lookup.product.getProductName(), allocated, totalGram, packageGram, recommendedCount, lookup.source);
-                }
+        // 2) 검색한 재료들은 AI rerank 한 번(batch)으로 대표상품 선택, 응답에서 빠진 재료만 개별 rerank
+        try {
+            selectSearchedProducts(lookups);
+        } finally {
+            // 예외로 빠져도 이 요청이 맡은 load 는 끝내서 기다리는 요청이 묶이지 않게
+            lookups.forEach(l -> failLoad(l, "SELECT_ABORTED"));
+        }
+        // 3) 다른 요청(또는 같은 목록의 같은 key)이 검색 중이던 재료는 그 결과를 받음
+        awaitSharedLoads(lookups);
 
-                return ShoppingListResponse.ShoppingItem.builder()
-                        .ingredientName(ingredientName)
-                        .totalGram(totalGram)
-                        .totalCalories(totalCalories)
-                        .daysCount(ing.getDaysCount())
-                        .product(lookup.product)
-                        .source(lookup.source)
-                        .packageGram(packageGram)
-                        .recommendedCount(recommendedCount)
-                        .build();
-            })
-            .filter(java.util.Objects::nonNull)
+        List<ShoppingListResponse.ShoppingItem> items = lookups.stream()
+            .map(this::toShoppingItem)
             .collect(Collectors.toList());
 
         items = filterItemsToBudget(items, rangeBudget);
@@ -849,52 +1024,243 @@ public class MealPlanServiceImpl implements MealPlanService {
         }
     }
 
-    private ProductLookup getRepresentativeProductCached(String ingredientName, int allocatedBudget, Long totalGram) {
+    /** 재료 1개의 장보기 조회 상태 (캐시 hit 이면 lookup, 검색까지 끝나고 선택 대기면 candidates) */
+    private static class IngredientLookup {
+        final MealPlanIngredientResponse ingredient;
+        final String ingredientName;
+        final int allocatedBudget;
+        final Long totalGram;
+        final String cacheKey;
+        ProductLookup lookup;
+        ShoppingService.SearchCandidates candidates;
+        // 이 조회가 맡은 load (선택 후 완료) / 다른 조회가 맡은 load (결과 대기)
+        CompletableFuture<CachedProduct> load;
+        CompletableFuture<CachedProduct> sharedLoad;
+
+        IngredientLookup(MealPlanIngredientResponse ingredient, String ingredientName, int allocatedBudget, Long totalGram, String cacheKey) {
+            this.ingredient = ingredient;
+            this.ingredientName = ingredientName;
+            this.allocatedBudget = allocatedBudget;
+            this.totalGram = totalGram;
+            this.cacheKey = cacheKey;
+        }
+    }
+
+    private IngredientLookup lookupCachedOrSearch(MealPlanIngredientResponse ing, String ingredientName, int allocatedBudget, Long totalGram) {
         String traceId = currentTraceId();
-        
-        // A2-R5 Cache Key Improvement: ingredient + priceBucket + gramBucket
-        // Bucket size: 2000 KRW
-        int bucket = (allocatedBudget / 2000) * 2000;
-        
-        // Gram Bucket: Round to nearest 100g (e.g., 150 -> 200, 1020 -> 1000) to avoid cache fragmentation
-        long gramBucket = (totalGram == null) ? 0 : (Math.round(totalGram / 100.0) * 100);
-        
-        String normalizedName = normalizeCacheKey(ingredientName);
-        String key = normalizedName + ":" + bucket + ":" + gramBucket;
+        IngredientLookup l = new IngredientLookup(ing, ingredientName, allocatedBudget, totalGram,
+                productCacheKey(ingredientName, allocatedBudget, totalGram));
+        if (l.cacheKey == null) {
+            l.lookup = new ProductLookup(null, "MOCK");
+            return l;
+        }
 
-        if (normalizedName.isEmpty()) {
-            return new ProductLookup(null, "MOCK");
+        // L1 (stale 이면 바로 쓰고 백그라운드 재검색) -> L2
+        CachedProduct cached = productCache.getIfPresent(l.cacheKey, productLoader(traceId, ingredientName, allocatedBudget, totalGram));
+        if (cached == null) {
+            cached = readSharedProduct(traceId, ingredientName, l.cacheKey);
+            if (cached != null) productCache.put(l.cacheKey, cached);
+        }
+        // ✅ 캐시된 상품도 재검증 (Banned Keyword 체크) - 걸리면 다시 검색해서 L1/L2 덮어씀
+        if (cached != null && cached.product != null && !categoryService.isValidProductTitle(cached.product.getProductName())) {
+            log.info("[SHOPPING_LIST][{}] CACHE_INVALIDATED ingredient={} reason=BANNED_KEYWORD", traceId, ingredientName);
+            productCache.invalidate(l.cacheKey);
+            cached = null;
+        }
+        if (cached != null) {
+            log.info("[SHOPPING_LIST][{}] CACHE_HIT ingredient={} key={}", traceId, ingredientName, l.cacheKey);
+            l.lookup = new ProductLookup(cached.product, normalizeSource(cached.source));
+            return l;
         }
 
-        CachedProduct cached = productCache.get(key);
-        if (cached != null && !cached.isExpired()) {
-            // ✅ 캐시된 상품도 재검증 (Banned Keyword 체크)
-            if (cached.product == null || categoryService.isValidProductTitle(cached.product.getProductName())) {
-                log.info("[SHOPPING_LIST][{}] CACHE_HIT ingredient={} key={}", traceId, ingredientName, key);
-                return new ProductLookup(cached.product, normalizeSource(cached.source));
-            } else {
-                 log.info("[SHOPPING_LIST][{}] CACHE_INVALIDATED ingredient={} reason=BANNED_KEYWORD", traceId, ingredientName);
-            }
+        // 같은 key 를 이미 누가 검색 중이면 그 결과를 기다림 (join 은 선택까지 끝난 뒤 awaitSharedLoads 에서)
+        CompletableFuture<CachedProduct> load = new CompletableFuture<>();
+        CompletableFuture<CachedProduct> inFlight = productLoads.putIfAbsent(l.cacheKey, load);
+        if (inFlight != null) {
+            log.info("[SHOPPING_LIST][{}] CACHE_MISS_SHARED ingredient={} key={}", traceId, ingredientName, l.cacheKey);
+            l.sharedLoad = inFlight;
+            return l;
         }
-        log.info("[SHOPPING_LIST][{}] CACHE_MISS ingredient={} key={} budget={} gram={}", traceId, ingredientName, key, allocatedBudget, totalGram);
+        l.load = load;
 
-        ShoppingListResponse.ProductCard product = null;
-        String source = "MOCK";
+        log.info("[SHOPPING_LIST][{}] CACHE_MISS ingredient={} key={} budget={} gram={}", traceId, ingredientName, l.cacheKey, allocatedBudget, totalGram);
         try {
             // A2-R3 Call with allocatedBudget AND totalGram
-            ShoppingService.SearchOneResult r = shoppingService.searchOne(ingredientName, allocatedBudget, totalGram);
+            l.candidates = shoppingService.searchCandidates(ingredientName, allocatedBudget, totalGram);
+        } catch (RuntimeException e) {
+            // 실패도 MOCK(상품 없음)으로 캐시해서 같은 재료를 TTL 동안 반복 호출하지 않음
+            log.warn("[SHOPPING_LIST][{}] SEARCH_FAIL ingredient={} reason={}", traceId, ingredientName, e.getMessage());
+            CachedProduct mock = new CachedProduct(null, "MOCK");
+            productCache.put(l.cacheKey, mock);
+            l.lookup = new ProductLookup(null, "MOCK");
+            completeLoad(l, mock);
+        }
+        return l;
+    }
+
+    private void completeLoad(IngredientLookup l, CachedProduct result) {
+        if (l.load == null) return;
+        productLoads.remove(l.cacheKey, l.load);
+        l.load.complete(result);
+    }
+
+    private void failLoad(IngredientLookup l, String reason) {
+        if (l.load == null || l.load.isDone()) return;
+        productLoads.remove(l.cacheKey, l.load);
+        l.load.completeExceptionally(new IllegalStateException(reason));
+    }
+
+    private void awaitSharedLoads(List<IngredientLookup> lookups) {
+        String traceId = currentTraceId();
+        for (IngredientLookup l : lookups) {
+            if (l.sharedLoad == null) continue;
+            try {
+                CachedProduct shared = l.sharedLoad.join();
+                l.lookup = new ProductLookup(shared.product, normalizeSource(shared.source));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.warn("[SHOPPING_LIST][{}] SHARED_LOAD_FAIL ingredient={} reason={}", traceId, l.ingredientName, cause.getMessage());
+                l.lookup = new ProductLookup(null, "MOCK");
+            }
+        }
+    }
+
+    /**
+     * 검색까지 끝난 재료들의 대표상품 선택.
+     * 재료마다 GMS 를 부르지 않고 selectProducts(batch rerank) 한 번, 응답에서 빠진 재료만 selectProduct 로 개별 호출 (병렬).
+     * (batch 호출 자체가 실패한 재료는 selectProducts 가 점수 1위로 채워서 돌려줌)
+     */
+    private void selectSearchedProducts(List<IngredientLookup> lookups) {
+        List<IngredientLookup> searched = lookups.stream().filter(l -> l.candidates != null).toList();
+        if (searched.isEmpty()) return;
+
+        String traceId = currentTraceId();
+        List<ShoppingService.SearchOneResult> selected;
+        try {
+            selected = shoppingService.selectProducts(searched.stream().map(l -> l.candidates).toList());
+        } catch (RuntimeException e) {
+            log.warn("[SHOPPING_LIST][{}] AI_BATCH_FAIL items={} reason={}", traceId, searched.size(), e.getMessage());
+            selected = java.util.Collections.nCopies(searched.size(), null);
+        }
+
+        List<CompletableFuture<Void>> fallbacks = new ArrayList<>();
+        for (int i = 0; i < searched.size(); i++) {
+            IngredientLookup l = searched.get(i);
+            ShoppingService.SearchOneResult r = selected.get(i);
             if (r != null) {
-                product = r.product();
-                source = normalizeSource(r.source());
+                applySelection(l, r);
+                continue;
             }
-        } catch (Exception e) {
-            log.warn("[SHOPPING_LIST][{}] SEARCH_FAIL ingredient={} reason={}", traceId, ingredientName, e.getMessage());
+            fallbacks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    applySelection(l, shoppingService.selectProduct(l.candidates));
+                } catch (RuntimeException e) {
+                    log.warn("[SHOPPING_LIST][{}] SELECT_FAIL ingredient={} reason={}", traceId, l.ingredientName, e.getMessage());
+                    l.lookup = new ProductLookup(null, "MOCK");
+                    completeLoad(l, new CachedProduct(null, "MOCK"));
+                }
+            }, ioExecutor));
+        }
+        fallbacks.forEach(CompletableFuture::join);
+
+        log.info("[SHOPPING_LIST][{}] AI_BATCH items={} batchSelected={} perItemFallback={}",
+                traceId, searched.size(), searched.size() - fallbacks.size(), fallbacks.size());
+    }
+
+    private void applySelection(IngredientLookup l, ShoppingService.SearchOneResult r) {
+        CachedProduct selected = new CachedProduct(r.product(), normalizeSource(r.source()));
+        productCache.put(l.cacheKey, selected);
+        shareProduct(l.cacheKey, selected);
+        l.lookup = new ProductLookup(selected.product, selected.source);
+        completeLoad(l, selected);
+    }
+
+    private ShoppingListResponse.ShoppingItem toShoppingItem(IngredientLookup l) {
+        ProductLookup lookup = l.lookup;
+        Long totalGram = l.totalGram;
+
+        // Calculate recommended purchase count (PRD 6.3)
+        Integer packageGram = 0;
+        Integer recommendedCount = 1; // Default 1
+
+        if (lookup.product != null && lookup.product.getPackageGram() != null && lookup.product.getPackageGram() > 0) {
+             packageGram = lookup.product.getPackageGram();
+             // ceil(totalGram / packageGram)
+             recommendedCount = (int) Math.ceil((double) totalGram / packageGram);
         }
 
-        long expireAt = System.currentTimeMillis() + PRODUCT_CACHE_TTL.toMillis();
-        productCache.put(key, new CachedProduct(product, source, expireAt));
+        // PRD 8. Logging
+        if (lookup.product != null) {
+            log.info("[SHOPPING_ITEM] ingredient={} product=\"{}\" budget={} totalGram={} pkgGram={} recCount={} source={}", 
+                    l.ingredientName, lookup.product.getProductName(), l.allocatedBudget, totalGram, packageGram, recommendedCount, lookup.source);
+        }
 
-        return new ProductLookup(product, source);
+        return ShoppingListResponse.ShoppingItem.builder()
+                .ingredientName(l.ingredientName)
+                .totalGram(totalGram)
+                .totalCalories(toIntSafe(l.ingredient.getTotalCalories()))
+                .daysCount(l.ingredient.getDaysCount())
+                .product(lookup.product)
+                .source(lookup.source)
+                .packageGram(packageGram)
+                .recommendedCount(recommendedCount)
+                .build();
+    }
+
+    /** A2-R5 Cache Key: ingredient + priceBucket + gramBucket (재료명이 비면 null) */
+    private String productCacheKey(String ingredientName, int allocatedBudget, Long totalGram) {
+        // Bucket size: 2000 KRW
+        int bucket = (allocatedBudget / 2000) * 2000;
+        
+        // Gram Bucket: Round to nearest 100g (e.g., 150 -> 200, 1020 -> 1000) to avoid cache fragmentation
+        long gramBucket = (totalGram == null) ? 0 : (Math.round(totalGram / 100.0) * 100);
+        
+        String normalizedName = normalizeCacheKey(ingredientName);
+        if (normalizedName.isEmpty()) return null;
+        return normalizedName + ":" + bucket + ":" + gramBucket;
+    }
+
+    /**
+     * 백그라운드 갱신용 loader: 최근(PRODUCT_CACHE_REFRESH_MAX_L2_AGE) L2 -> searchOne (검색 예외는 그대로 던져서 기존 값 유지)
+     * L2 TTL(12h) 안의 행을 그대로 쓰면 같은 값을 다시 넣는 것뿐이라 갱신이 일어나지 않음
+     */
+    private Function<String, CachedProduct> productLoader(String traceId, String ingredientName, int allocatedBudget, Long totalGram) {
+        return k -> {
+            CachedProduct shared = readSharedProduct(traceId, ingredientName, k, PRODUCT_CACHE_REFRESH_MAX_L2_AGE);
+            if (shared != null) return shared;
+
+            ShoppingService.SearchOneResult r = shoppingService.searchOne(ingredientName, allocatedBudget, totalGram);
+            CachedProduct fetched = (r == null) ? new CachedProduct(null, "MOCK") : new CachedProduct(r.product(), normalizeSource(r.source()));
+            shareProduct(k, fetched);
+            return fetched;
+        };
+    }
+
+    private CachedProduct readSharedProduct(String traceId, String ingredientName, String key) {
+        return toSharedProduct(traceId, ingredientName, key,
+                productSearchCache.read(ProductSearchCacheStore.PRODUCT, key, ShoppingListResponse.ProductCard.class));
+    }
+
+    private CachedProduct readSharedProduct(String traceId, String ingredientName, String key, Duration maxAge) {
+        return toSharedProduct(traceId, ingredientName, key,
+                productSearchCache.read(ProductSearchCacheStore.PRODUCT, key, ShoppingListResponse.ProductCard.class, maxAge));
+    }
+
+    private CachedProduct toSharedProduct(String traceId, String ingredientName, String key,
+                                          Optional<ShoppingListResponse.ProductCard> shared) {
+        return shared
+                .map(product -> {
+                    log.info("[SHOPPING_LIST][{}] L2_HIT ingredient={} key={}", traceId, ingredientName, key);
+                    return new CachedProduct(product, "REAL");
+                })
+                .orElse(null);
+    }
+
+    // 실제 상품만 L2 로 공유 (검색 실패/MOCK 은 이 인스턴스 L1 에만)
+    private void shareProduct(String key, CachedProduct product) {
+        if (product.product != null && "REAL".equals(product.source)) {
+            productSearchCache.writeBehind(ProductSearchCacheStore.PRODUCT, key, product.product);
+        }
     }
 
     private String normalizeCacheKey(String ingredientName) {
@@ -993,15 +1359,11 @@ public class MealPlanServiceImpl implements MealPlanService {
         MealPlan mealPlan = mealPlanMapper.findMealPlanById(planId);
         if (mealPlan == null) throw new BusinessException("존재하지 않는 식단 플랜입니다. id=" + planId);
 
-        List<MealPlanDay> days = mealPlanMapper.findMealPlanDaysByPlanId(planId);
-
-        Map<Long, List<MealItem>> itemsByDayId = new HashMap<>();
-        for (MealPlanDay day : days) {
-            itemsByDayId.put(day.getId(), mealPlanMapper.findMealItemsByDayId(day.getId()));
-        }
+        // 날짜 + 아이템 JOIN 1회 (기존: 날짜 수만큼 findMealItemsByDayId 반복)
+        List<MealPlanDayWithItems> days = mealPlanMapper.findMealPlanDaysWithItemsByPlanId(planId);
 
         List<MealPlanDaySummaryResponse> daySummaries = days.stream()
-                .map(day -> MealPlanDaySummaryResponse.from(day, itemsByDayId.getOrDefault(day.getId(), List.of())))
+                .map(day -> MealPlanDaySummaryResponse.from(day, day.getItems()))
                 .toList();
 
         return MealPlanOverviewResponse.of(mealPlan, daySummaries);
@@ -1152,6 +1514,10 @@ public class MealPlanServiceImpl implements MealPlanService {
                 .map(MealIntake::getMealTime)
                 .collect(Collectors.toSet());
 
+        return buildDayDetail(day, items, consumedMealTimes);
+    }
+
+    private MealPlanDayDetailResponse buildDayDetail(MealPlanDay day, List<MealItem> items, Set<String> consumedMealTimes) {
         // Group by mealTime
         Map<String, List<MealItem>> itemsByMealTime = items.stream()
                 .collect(Collectors.groupingBy(MealItem::getMealTime));
@@ -1264,9 +1630,7 @@ public class MealPlanServiceImpl implements MealPlanService {
         List<MealItem> newItems = generateNewItemsForDay(day, plan, targetKcal, mealsPerDay, null);
 
         // 3. 저장
-        for (MealItem item : newItems) {
-            mealPlanMapper.insertMealItem(item);
-        }
+        batchWriter.insertItems(newItems);
 
         // 4. 칼로리 업데이트
         updateDayTotalCalories(day);
@@ -1286,6 +1650,13 @@ public class MealPlanServiceImpl implements MealPlanService {
         MealPlan plan = mealPlanMapper.findMealPlanById(day.getMealPlanId());
         if (plan == null) throw new BusinessException("식단 플랜 정보를 찾을 수 없습니다.");
 
+        // 교체 전 그날 메뉴 (AI가 같은 메뉴를 다시 내지 않도록)
+        List<String> avoidMenus = mealPlanMapper.findMealItemsByDayId(dayId).stream()
+                .map(MealItem::getMemo)
+                .filter(m -> m != null && !m.isBlank() && !"AI".equals(m) && !"TEMPLATE".equals(m))
+                .distinct()
+                .toList();
+
         // Clear intakes
         mealIntakeMapper.deleteByDayIdAndMealTime(plan.getUserId(), dayId, normalizedMealTime);
 
@@ -1293,26 +1664,16 @@ public class MealPlanServiceImpl implements MealPlanService {
         int deleted = mealPlanMapper.deleteMealItemsByDayIdAndMealTime(dayId, normalizedMealTime);
         log.info("[MealPlan] replaceMeal dayId={} mealTime={} deletedItems={}", dayId, normalizedMealTime, deleted);
 
-        // 2. AI 생성 (1일치 생성 후 해당 끼니만 추출)
-        // 효율성을 위해 전체 하루를 생성하고 필요한 끼니만 골라냅니다.
+        // 2. 한 끼만 AI 생성 (실패 시 하루 생성 후 해당 끼니만 추출)
         int targetKcal = plan.getTargetCaloriesPerDay();
         int mealsPerDay = plan.getMealsPerDay();
 
-        // 타겟 끼니만 교체하기 위해 generateNewItemsForDay 내부 로직을 활용하되,
-        // 결과에서 해당 mealTime만 필터링
-        List<MealItem> allNewItems = generateNewItemsForDay(day, plan, targetKcal, mealsPerDay, normalizedMealTime);
-        
-        // 생성된 항목 중 타겟 mealTime만 선택
-        List<MealItem> targetItems = allNewItems.stream()
-                .filter(item -> item.getMealTime().equals(normalizedMealTime))
-                .toList();
+        List<MealItem> targetItems = generateNewItemsForMeal(day, plan, targetKcal, mealsPerDay, normalizedMealTime, avoidMenus);
         
         log.info("[MealPlan] replaceMeal generated items for insert={}", targetItems.size());
 
         // 3. 저장
-        for (MealItem item : targetItems) {
-            mealPlanMapper.insertMealItem(item);
-        }
+        batchWriter.insertItems(targetItems);
 
         // 4. 칼로리 업데이트
         updateDayTotalCalories(day);
@@ -1320,6 +1681,232 @@ public class MealPlanServiceImpl implements MealPlanService {
         return getDayDetail(dayId);
     }
 
+    /**
+     * 기간 재생성 (from~to)
+     * - 범위를 ChunkSizeTuner 분할(샘플 부족 시 7일)대로 나눠 청크별 skeleton 을 ioExecutor 에서 병렬로 받음 (AI 호출은 트랜잭션 밖)
+     *   -> from/to 생략(플랜 전체 30일)이어도 한 번에 30일 skeleton 을 요청하지 않음
+     * - 섭취 기록 삭제 + 아이템 DELETE/다중 INSERT + 칼로리 갱신은 하나의 트랜잭션
+     */
+    @Override
+    public List<MealPlanDayDetailResponse> regenerateDays(Long planId, LocalDate from, LocalDate to) {
+        MealPlan plan = mealPlanMapper.findMealPlanById(planId);
+        if (plan == null) throw new BusinessException("식단 플랜 정보를 찾을 수 없습니다.");
+
+        LocalDate rangeFrom = from != null ? from : plan.getStartDate();
+        LocalDate rangeTo = to != null ? to : plan.getEndDate();
+        if (rangeFrom.isAfter(rangeTo)) {
+            throw new BusinessException("시작일이 종료일보다 늦습니다. from=" + rangeFrom + ", to=" + rangeTo);
+        }
+        if (rangeFrom.isBefore(plan.getStartDate()) || rangeTo.isAfter(plan.getEndDate())) {
+            throw new BusinessException("플랜 기간(" + plan.getStartDate() + "~" + plan.getEndDate() + ")을 벗어난 범위입니다.");
+        }
+
+        List<MealPlanDay> days = mealPlanMapper.findMealPlanDaysByPlanId(planId).stream()
+                .filter(d -> !d.getPlanDate().isBefore(rangeFrom) && !d.getPlanDate().isAfter(rangeTo))
+                .toList();
+        if (days.isEmpty()) throw new BusinessException("재생성할 날짜가 없습니다. planId=" + planId);
+
+        int targetKcal = plan.getTargetCaloriesPerDay();
+        int mealsPerDay = plan.getMealsPerDay() != null ? plan.getMealsPerDay() : 3;
+
+        User user = userMapper.findById(plan.getUserId());
+        Map<String, Object> basePayload = buildBasePayload(plan, user);
+        basePayload.put("rotationSeed", java.util.concurrent.ThreadLocalRandom.current().nextInt(1000));
+
+        // 청크별 skeleton 병렬 요청 (동시 Gemini 호출 수는 IoLimiter 가 제한)
+        List<Integer> chunkDays = chunkSizeTuner.plan(days.size()).chunkDays();
+        List<CompletableFuture<AiMonthlySkeletonResponse>> chunkSkeletons = new ArrayList<>(chunkDays.size());
+        int chunkOffset = 0;
+        for (int size : chunkDays) {
+            LocalDate chunkStart = days.get(chunkOffset).getPlanDate();
+            Map<String, Object> payload = new HashMap<>(basePayload);
+            payload.put("startDate", chunkStart.format(DF));
+            payload.put("totalDays", size);
+            String context = "regenerate planId=" + planId + " chunk=" + chunkStart + "+" + size;
+            chunkSkeletons.add(CompletableFuture.supplyAsync(() -> resolveSkeleton(payload, context), ioExecutor));
+            chunkOffset += size;
+        }
+
+        Map<String, Integer> mealTargets = distributeCalories(targetKcal, mealTimesFor(mealsPerDay));
+
+        List<MealPlanBatchWriter.DayItems> dayItems = new ArrayList<>(days.size());
+        int skeletonChunks = 0;
+        chunkOffset = 0;
+        for (int c = 0; c < chunkDays.size(); c++) {
+            AiMonthlySkeletonResponse skeleton = chunkSkeletons.get(c).join();
+            if (skeleton != null) skeletonChunks++;
+            for (int i = 0; i < chunkDays.get(c); i++) {
+                MealPlanDay day = days.get(chunkOffset + i);
+                List<MealItem> items = skeleton != null
+                        ? buildItemsFromAiWithFixedRules(skeleton, i, day.getId(), mealsPerDay, mealTargets)
+                        : List.of();
+                // skeleton 일수가 모자라면 그 날만 템플릿
+                if (items.isEmpty()) {
+                    items = buildItemsFromTemplate(day.getId(), targetKcal, mealsPerDay);
+                    metrics.templateFallback("regenerate_range", 1);
+                }
+                dayItems.add(new MealPlanBatchWriter.DayItems(day, items));
+            }
+            chunkOffset += chunkDays.get(c);
+        }
+
+        List<Long> dayIds = days.stream().map(MealPlanDay::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            mealIntakeMapper.deleteByDayIds(plan.getUserId(), dayIds);
+            // 트랜잭션 안이므로 DELETE IN (...) + multi-row INSERT 경로
+            batchWriter.saveDayItems(dayItems);
+        });
+        log.info("[MealPlan] regenerateDays planId={} range={}~{} days={} chunkDays={} skeletonChunks={}",
+                planId, rangeFrom, rangeTo, days.size(), chunkDays, skeletonChunks);
+
+        // 섭취 기록은 방금 지웠으므로 consumed 없음, 저장된 아이템(id 포함)은 한 번의 JOIN 조회로 다시 읽음
+        Set<Long> regenerated = Set.copyOf(dayIds);
+        return mealPlanMapper.findMealPlanDaysWithItemsByPlanId(planId).stream()
+                .filter(d -> regenerated.contains(d.getId()))
+                .map(d -> buildDayDetail(d, d.getItems(), Set.of()))
+                .toList();
+    }
+
+    /**
+     * 플랜 연장 (종료일 다음 날부터 days 일)
+     * - 플랜 설정(칼로리/끼니/선호/알레르기) 그대로, 직전 7일 메뉴는 avoidMenus 로 넘겨 반복을 피함
+     * - 새 날짜만 한 번의 skeleton 호출로 생성 (AI 호출은 트랜잭션 밖)
+     * - 기간 갱신 + 날짜/아이템 저장은 하나의 트랜잭션. end_date 조건부 UPDATE 라 동시에 연장하면 한 쪽만 성공
+     */
+    @Override
+    public MealPlanOverviewResponse extendPlan(Long planId, int days) {
+        if (days < 1 || days > MAX_EXTEND_DAYS) {
+            throw new BusinessException("연장 일수는 1~" + MAX_EXTEND_DAYS + "일만 가능합니다. days=" + days);
+        }
+        MealPlan plan = mealPlanMapper.findMealPlanById(planId);
+        if (plan == null) throw new BusinessException("식단 플랜 정보를 찾을 수 없습니다.");
+
+        List<MealPlanDayWithItems> existing = mealPlanMapper.findMealPlanDaysWithItemsByPlanId(planId);
+        LocalDate previousEnd = plan.getEndDate();
+        LocalDate newStart = previousEnd.plusDays(1);
+        int lastDayIndex = existing.stream().mapToInt(MealPlanDay::getDayIndex).max().orElse(0);
+        int totalDays = (plan.getTotalDays() != null ? plan.getTotalDays() : existing.size()) + days;
+
+        int targetKcal = plan.getTargetCaloriesPerDay();
+        int mealsPerDay = plan.getMealsPerDay() != null ? plan.getMealsPerDay() : 3;
+
+        List<String> avoidMenus = recentMenus(existing, previousEnd);
+        Map<String, Object> payload = buildBasePayload(plan, userMapper.findById(plan.getUserId()));
+        payload.put("startDate", newStart.format(DF));
+        payload.put("totalDays", days);
+        if (!avoidMenus.isEmpty()) payload.put("avoidMenus", avoidMenus);
+
+        AiMonthlySkeletonResponse skeleton = resolveSkeleton(payload, "extend planId=" + planId + " days=" + days);
+        Map<String, Integer> mealTargets = distributeCalories(targetKcal, mealTimesFor(mealsPerDay));
+
+        List<MealPlanDay> newDays = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            newDays.add(MealPlanDay.builder()
+                    .mealPlanId(planId)
+                    .planDate(newStart.plusDays(i))
+                    .dayIndex(lastDayIndex + i + 1)
+                    .totalCalories(0)
+                    .isStamped(false)
+                    .build());
+        }
+
+        int templateDays = transactionTemplate.execute(status -> {
+            if (mealPlanMapper.extendMealPlanPeriod(planId, previousEnd, previousEnd.plusDays(days), totalDays) == 0) {
+                throw new BusinessException("다른 요청이 먼저 플랜을 연장했습니다. planId=" + planId);
+            }
+            batchWriter.insertDays(newDays);
+
+            int fallback = 0;
+            List<MealPlanBatchWriter.DayItems> dayItems = new ArrayList<>(days);
+            for (int i = 0; i < days; i++) {
+                MealPlanDay day = newDays.get(i);
+                List<MealItem> items = skeleton != null
+                        ? buildItemsFromAiWithFixedRules(skeleton, i, day.getId(), mealsPerDay, mealTargets)
+                        : List.of();
+                if (items.isEmpty()) {
+                    items = buildItemsFromTemplate(day.getId(), targetKcal, mealsPerDay);
+                    fallback++;
+                }
+                dayItems.add(new MealPlanBatchWriter.DayItems(day, items));
+            }
+            batchWriter.saveDayItems(dayItems);
+            return fallback;
+        });
+        metrics.templateFallback("extend", templateDays);
+        log.info("[MealPlan] extendPlan planId={} days={} range={}~{} avoidMenus={} templateDays={}",
+                planId, days, newStart, previousEnd.plusDays(days), avoidMenus.size(), templateDays);
+
+        return getMealPlan(planId);
+    }
+
+    // 종료일 기준 직전 RECENT_MENU_DAYS 일의 메뉴명 (아이템 memo, AI/TEMPLATE 제외)
+    private List<String> recentMenus(List<MealPlanDayWithItems> days, LocalDate endDate) {
+        LocalDate from = endDate.minusDays(RECENT_MENU_DAYS - 1);
+        return days.stream()
+                .filter(d -> !d.getPlanDate().isBefore(from) && !d.getPlanDate().isAfter(endDate))
+                .filter(d -> d.getItems() != null)
+                .flatMap(d -> d.getItems().stream())
+                .map(MealItem::getMemo)
+                .filter(m -> m != null && !m.isBlank() && !"AI".equals(m) && !"TEMPLATE".equals(m))
+                .distinct()
+                .limit(MAX_AVOID_MENUS)
+                .toList();
+    }
+
+    /**
+     * 한 끼 생성: AI 모드면 한 끼 전용 프롬프트로 요청하고, 라이브러리 모드/AI 실패/빈 응답이면
+     * 기존처럼 하루치를 만들어 해당 끼니만 사용.
+     */
+    private List<MealItem> generateNewItemsForMeal(
+            MealPlanDay day, MealPlan plan, int targetKcal, int mealsPerDay, String mealTime, List<String> avoidMenus) {
+        Integer mealKcal = distributeCalories(targetKcal, mealTimesFor(mealsPerDay)).get(mealTime);
+
+        if (!isLibraryMode() && mealKcal != null) {
+            Map<String, Object> payload = buildBasePayload(plan, userMapper.findById(plan.getUserId()));
+            payload.put("startDate", day.getPlanDate().format(DF));
+            payload.put("mealTime", mealTime);
+            payload.put("mealTargetKcal", mealKcal);
+            payload.put("avoidMenus", avoidMenus);
+            try {
+                AiMonthlySkeletonResponse.AiMealSkeleton meal = dietAiClient.generateMealSkeleton(payload);
+                if (meal != null) {
+                    // 요청한 끼니로 고정 (모델이 mealTime 을 다르게 적어도 버리지 않도록)
+                    meal.setMealTime(mealTime);
+                    AiMonthlySkeletonResponse skeleton = AiMonthlySkeletonResponse.builder()
+                            .days(List.of(AiMonthlySkeletonResponse.AiDaySkeleton.builder()
+                                    .dayIndex(1)
+                                    .planDate(day.getPlanDate().format(DF))
+                                    .meals(List.of(meal))
+                                    .build()))
+                            .build();
+                    // 스케일링 기준도 해당 끼니 목표만
+                    List<MealItem> items = buildItemsFromAiWithFixedRules(
+                            skeleton, 0, day.getId(), mealsPerDay, Map.of(mealTime, mealKcal));
+                    if (!items.isEmpty()) return items;
+                }
+                log.warn("[MealPlan] meal skeleton empty, fallback to day generation. dayId={} mealTime={}", day.getId(), mealTime);
+            } catch (CircuitOpenException e) {
+                log.info("[MealPlan] AI circuit open, skip meal call. dayId={} mealTime={}", day.getId(), mealTime);
+            } catch (Exception e) {
+                log.warn("[MealPlan] meal AI failed, fallback to day generation. dayId={} mealTime={}, reason={}",
+                        day.getId(), mealTime, e.getMessage());
+            }
+        }
+
+        // 타겟 끼니만 교체하기 위해 generateNewItemsForDay 결과에서 해당 mealTime만 필터링
+        return generateNewItemsForDay(day, plan, targetKcal, mealsPerDay, mealTime).stream()
+                .filter(item -> item.getMealTime().equals(mealTime))
+                .toList();
+    }
+
+    private List<String> mealTimesFor(int mealsPerDay) {
+        return switch (mealsPerDay) {
+            case 1 -> List.of("LUNCH");
+            case 2 -> List.of("BREAKFAST", "DINNER");
+            default -> List.of("BREAKFAST", "LUNCH", "DINNER");
+        };
+    }
+
     private List<MealItem> generateNewItemsForDay(MealPlanDay day, MealPlan plan, int targetKcal, int mealsPerDay, String specificMealTime) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("startDate", day.getPlanDate().format(DF));
@@ -1334,13 +1921,10 @@ public class MealPlanServiceImpl implements MealPlanService {
         // 편의상 빈 리스트로 진행 (AI가 알아서 추천)
         payload.put("preferences", List.of()); 
         payload.put("allergies", List.of());
+        // 라이브러리에서 조립될 때 기존과 다른 날짜가 나오도록 회전 seed 부여
+        payload.put("rotationSeed", java.util.concurrent.ThreadLocalRandom.current().nextInt(1000));
 
-        AiMonthlySkeletonResponse skeleton = null;
-        try {
-            skeleton = dietAiClient.generateMonthlySkeleton(payload);
-        } catch (Exception e) {
-            log.warn("[Regenerate] AI failed, fallback to template. dayId={}, reason={}", day.getId(), e.getMessage());
-        }
+        AiMonthlySkeletonResponse skeleton = resolveSkeleton(payload, "regenerate dayId=" + day.getId());
 
         List<String> mealTimesForDay = switch (mealsPerDay) {
             case 1 -> List.of("LUNCH");
@@ -1360,6 +1944,7 @@ public class MealPlanServiceImpl implements MealPlanService {
             );
         } else {
             itemsForDay = buildItemsFromTemplate(day.getId(), targetKcal, mealsPerDay);
+            metrics.templateFallback(specificMealTime != null ? "replace_meal" : "regenerate_day", 1);
         }
         
         return itemsForDay;
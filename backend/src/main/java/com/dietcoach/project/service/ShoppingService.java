@@ -1,5 +1,8 @@
 package com.dietcoach.project.service;
 
+import java.util.List;
+
+import com.dietcoach.project.domain.ShoppingProduct;
 import com.dietcoach.project.dto.ShoppingProductsResponse;
 import com.dietcoach.project.dto.meal.ShoppingListResponse;
 
@@ -11,9 +14,21 @@ public interface ShoppingService {
     // ✅ A2 추가: 재료명(keyword)로 대표상품 1개만 뽑기
     SearchOneResult searchOne(String keyword, int allocatedBudget, Long totalGram);
 
+    // ✅ searchOne 을 두 단계로: 검색+점수(후보 Top10) -> 대표상품 선택(AI rerank + 예산 보정)
+    SearchCandidates searchCandidates(String keyword, int allocatedBudget, Long totalGram);
+
+    SearchOneResult selectProduct(SearchCandidates candidates);
+
+    // ✅ 여러 재료를 AI rerank 한 번(batch)으로 선택. 입력 순서대로 반환
+    //    batch 호출이 실패한 재료는 점수 1위, 응답에서 빠진 재료만 null (호출부에서 selectProduct 로 개별 재시도)
+    List<SearchOneResult> selectProducts(List<SearchCandidates> candidates);
+
     // ✅ 실구매 결과 기반 단가 추정 (원/100g)
     Integer getEstimatedCostPer100g(String ingredientName);
 
     // ✅ MealPlanServiceImpl에서 그대로 사용
     record SearchOneResult(ShoppingListResponse.ProductCard product, String source) {}
+
+    record SearchCandidates(String ingredientName, int allocatedBudget, Long totalGram, String source,
+                            List<ShoppingProduct> candidates) {}
 }
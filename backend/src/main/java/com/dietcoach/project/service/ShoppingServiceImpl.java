@@ -1,9 +1,13 @@
 package com.dietcoach.project.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
@@ -11,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.dietcoach.project.client.shopping.ShoppingClient;
 import com.dietcoach.project.client.shopping.ShoppingClientResult;
+import com.dietcoach.project.common.cache.SimpleTtlCache;
 import com.dietcoach.project.domain.ShoppingProduct;
 import com.dietcoach.project.dto.ShoppingProductResponse;
 import com.dietcoach.project.dto.ShoppingProductsResponse;
@@ -18,7 +23,11 @@ import com.dietcoach.project.dto.meal.ShoppingListResponse;
 import com.dietcoach.project.util.shopping.IngredientQueryNormalizer;
 import com.dietcoach.project.service.shopping.AiProductReranker;
 import com.dietcoach.project.service.shopping.ProductScorer;
+import com.dietcoach.project.service.shopping.ProductSearchCacheStore;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,9 +41,30 @@ public class ShoppingServiceImpl implements ShoppingService {
     private final IngredientQueryNormalizer queryNormalizer;
     private final ProductScorer productScorer;
     private final AiProductReranker aiReranker;
-    private final java.util.concurrent.ConcurrentHashMap<String, Integer> pricePer100gCache = new java.util.concurrent.ConcurrentHashMap<>();
+    private final ProductSearchCacheStore searchCacheStore;
+    private final MeterRegistry meterRegistry;
+    // 후보가 이보다 적으면 AI 없이 점수 1위
+    private static final int AI_RERANK_MIN_CANDIDATES = 3;
     private static final int PRICE_PER_100G_TTL_MIN = 60;
-    private final java.util.concurrent.ConcurrentHashMap<String, Long> pricePer100gExpire = new java.util.concurrent.ConcurrentHashMap<>();
+    private static final int PRICE_PER_100G_MAX_ENTRIES = 5_000;
+    // L1/L2 모두 없는 키워드는 잠깐 기억해서 매 호출마다 DB 를 보지 않음
+    private static final Integer NO_PRICE = -1;
+    private static final long NO_PRICE_TTL_MS = 5 * 60_000L;
+    // 검색 키워드(lower) -> 100g당 중앙값 가격 (검색 결과로 채움, miss 시 searchCacheStore(L2) read-through)
+    private final SimpleTtlCache<Integer> pricePer100gCache = SimpleTtlCache.<Integer>builder("shopping.price-per-100g")
+            .maximumSize(PRICE_PER_100G_MAX_ENTRIES)
+            .ttl(java.time.Duration.ofMinutes(PRICE_PER_100G_TTL_MIN))
+            .build();
+
+    @PostConstruct
+    void bindCacheMetrics() {
+        pricePer100gCache.bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    void closeCaches() {
+        pricePer100gCache.close();
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -56,6 +86,12 @@ public class ShoppingServiceImpl implements ShoppingService {
     @Override
     @Transactional(readOnly = true)
     public SearchOneResult searchOne(String keyword, int allocatedBudget, Long totalGram) {
+        return selectProduct(searchCandidates(keyword, allocatedBudget, totalGram));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SearchCandidates searchCandidates(String keyword, int allocatedBudget, Long totalGram) {
         String ingredientName = (keyword == null) ? "" : keyword.trim();
         int topN = 20; // Expanded to 20
         String source = "REAL";
@@ -116,31 +152,83 @@ public class ShoppingServiceImpl implements ShoppingService {
             topCandidates = products.stream().limit(10).toList();
         }
         
+        return new SearchCandidates(ingredientName, allocatedBudget, totalGram, source, topCandidates);
+    }
+
+    @Override
+    public SearchOneResult selectProduct(SearchCandidates c) {
+        if (c.candidates().size() < AI_RERANK_MIN_CANDIDATES) return finishSelection(c, null, null);
+
+        // 5. AI Rerank
+        // AI Rerank might need totalGram context too, but keeping it simple for now
+        try {
+            ShoppingProduct aiSelected = aiReranker.rerank(c.ingredientName(), c.allocatedBudget(), c.candidates());
+            return finishSelection(c, aiSelected, aiSelected != null ? "AI_SELECTED" : "AI_FAIL_FALLBACK");
+        } catch (Exception e) {
+            return finishSelection(c, null, "AI_ERROR_FALLBACK");
+        }
+    }
+
+    @Override
+    public List<SearchOneResult> selectProducts(List<SearchCandidates> candidates) {
+        List<SearchOneResult> results = new ArrayList<>(Collections.nCopies(candidates.size(), null));
+        List<AiProductReranker.RerankRequest> requests = new ArrayList<>();
+        List<Integer> requestIndex = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            SearchCandidates c = candidates.get(i);
+            if (c.candidates().size() < AI_RERANK_MIN_CANDIDATES) {
+                results.set(i, finishSelection(c, null, null));
+            } else {
+                requests.add(new AiProductReranker.RerankRequest(c.ingredientName(), c.allocatedBudget(), c.candidates()));
+                requestIndex.add(i);
+            }
+        }
+        if (requests.isEmpty()) return results;
+
+        AiProductReranker.BatchResult batch;
+        try {
+            batch = aiReranker.rerankBatch(requests);
+        } catch (Exception e) {
+            log.warn("[SHOPPING_LIST][{}] AI_BATCH_ERROR items={} reason={}", currentTraceId(), requests.size(), e.getMessage());
+            batch = new AiProductReranker.BatchResult(Map.of(), IntStream.range(0, requests.size()).boxed().collect(Collectors.toSet()));
+        }
+        for (int r = 0; r < requests.size(); r++) {
+            int i = requestIndex.get(r);
+            ShoppingProduct aiSelected = batch.selected().get(r);
+            if (aiSelected != null) {
+                results.set(i, finishSelection(candidates.get(i), aiSelected, "AI_BATCH_SELECTED"));
+            } else if (batch.failed().contains(r)) {
+                // 묶음 호출 자체가 실패 -> 재료별 재시도 없이 점수 1위
+                results.set(i, finishSelection(candidates.get(i), null, "AI_ERROR_FALLBACK"));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * AI 선택 결과(없으면 점수 1위)에 예산 보정을 적용해서 대표상품 카드로 변환.
+     * aiReason 이 null 이면 AI 를 거치지 않은 경우 (후보 3개 미만)
+     */
+    private SearchOneResult finishSelection(SearchCandidates c, ShoppingProduct aiSelected, String aiReason) {
+        String ingredientName = c.ingredientName();
+        int allocatedBudget = c.allocatedBudget();
+        List<ShoppingProduct> topCandidates = c.candidates();
+
         ShoppingProduct best = null;
         String reason = "NO_MATCH";
 
-        if (topCandidates.size() >= 3) {
-            // 5. AI Rerank (Parallel-Ready)
-            // AI Rerank might need totalGram context too, but keeping it simple for now
-            try {
-                ShoppingProduct aiSelected = aiReranker.rerank(ingredientName, allocatedBudget, topCandidates);
-                if (aiSelected != null) {
-                    best = aiSelected;
-                    reason = "AI_SELECTED";
-                } else {
-                    // Fallback to top scorer
-                    best = topCandidates.get(0);
-                    reason = "AI_FAIL_FALLBACK";
-                }
-            } catch (Exception e) {
-                 best = topCandidates.get(0);
-                 reason = "AI_ERROR_FALLBACK";
-            }
+        if (aiSelected != null) {
+            best = aiSelected;
+            reason = aiReason;
+        } else if (aiReason != null && !topCandidates.isEmpty()) {
+            // Fallback to top scorer
+            best = topCandidates.get(0);
+            reason = aiReason;
         } else if (!topCandidates.isEmpty()) {
             best = topCandidates.get(0);
             reason = "RULE_TOP1";
         }
-        BudgetGuardResult guarded = enforceBudgetFit(ingredientName, allocatedBudget, totalGram, topCandidates, best, reason);
+        BudgetGuardResult guarded = enforceBudgetFit(ingredientName, allocatedBudget, c.totalGram(), topCandidates, best, reason);
         best = guarded.product();
         reason = guarded.reason();
         
@@ -148,7 +236,7 @@ public class ShoppingServiceImpl implements ShoppingService {
         
         logSelected(ingredientName, best, card, reason, allocatedBudget);
 
-        return new SearchOneResult(card, source);
+        return new SearchOneResult(card, c.source());
     }
 
     @Override
@@ -156,13 +244,13 @@ public class ShoppingServiceImpl implements ShoppingService {
     public Integer getEstimatedCostPer100g(String ingredientName) {
         String key = normalizeKey(ingredientName);
         if (key.isEmpty()) return null;
-        Long exp = pricePer100gExpire.get(key);
-        if (exp != null && exp < System.currentTimeMillis()) {
-            pricePer100gExpire.remove(key);
-            pricePer100gCache.remove(key);
+        Integer cached = pricePer100gCache.get(key,
+                k -> searchCacheStore.read(ProductSearchCacheStore.PRICE_PER_100G, k, Integer.class).orElse(null));
+        if (cached == null) {
+            pricePer100gCache.put(key, NO_PRICE, NO_PRICE_TTL_MS);
             return null;
         }
-        return pricePer100gCache.get(key);
+        return cached < 0 ? null : cached;
     }
 
     private ShoppingProductResponse toResponse(ShoppingProduct p) {
@@ -364,7 +452,7 @@ public class ShoppingServiceImpl implements ShoppingService {
         double median = per100g.get(per100g.size() / 2);
         int rounded = (int) Math.round(median);
         pricePer100gCache.put(key, rounded);
-        pricePer100gExpire.put(key, System.currentTimeMillis() + PRICE_PER_100G_TTL_MIN * 60_000L);
+        searchCacheStore.writeBehind(ProductSearchCacheStore.PRICE_PER_100G, key, rounded);
     }
 
     private String normalizeKey(String value) {
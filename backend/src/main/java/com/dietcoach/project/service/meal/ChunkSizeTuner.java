@@ -0,0 +1,127 @@
+package com.dietcoach.project.service.meal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.client.ai.AiLatencyModel;
+import com.dietcoach.project.common.concurrent.IoLimiter;
+
+/**
+ * 식단 청크 크기 / 병렬도 자동 조정.
+ *
+ * AiLatencyModel(latency = fixedMs + perDayMs * days)로 후보 청크 수 n 마다
+ *   완료 예상 시간 = ceil(n / p) wave * predict(ceil(D / n))  (p = 지금 쓸 수 있는 병렬도)
+ * 를 계산해서 가장 빨리 끝나는 분할을 고른다. 같으면 호출 수가 적은 쪽.
+ * 샘플이 부족하면 기본 청크(7일)로 나눈다.
+ *
+ * 병렬도는 maxParallel 과 현재 남은 Gemini permit 중 작은 값 -> 다른 플랜이 몰려 있으면 큰 청크로 덜 쪼갬.
+ */
+@Component
+public class ChunkSizeTuner {
+
+    private final AiLatencyModel latencyModel;
+    private final IoLimiter ioLimiter;
+
+    private final int defaultChunkDays;
+    private final int minChunkDays;
+    private final int maxChunkDays;
+    private final int maxParallel;
+
+    public ChunkSizeTuner(
+            AiLatencyModel latencyModel,
+            IoLimiter ioLimiter,
+            @Value("${mealplan.chunking.default-chunk-days:7}") int defaultChunkDays,
+            @Value("${mealplan.chunking.min-chunk-days:3}") int minChunkDays,
+            @Value("${mealplan.chunking.max-chunk-days:10}") int maxChunkDays,
+            @Value("${mealplan.chunking.max-parallel:4}") int maxParallel
+    ) {
+        this.latencyModel = latencyModel;
+        this.ioLimiter = ioLimiter;
+        this.minChunkDays = Math.max(1, minChunkDays);
+        this.maxChunkDays = Math.max(this.minChunkDays, maxChunkDays);
+        this.defaultChunkDays = Math.min(this.maxChunkDays, Math.max(this.minChunkDays, defaultChunkDays));
+        this.maxParallel = Math.max(1, maxParallel);
+    }
+
+    /**
+     * @param chunkDays   앞에서부터 순서대로 각 청크의 일수 (합 = totalDays)
+     * @param predictedMs 모델 기준 완료 예상 시간 (tuned=false 면 0)
+     */
+    public record ChunkPlan(List<Integer> chunkDays, int parallelism, double predictedMs, boolean tuned) {
+        public int chunks() {
+            return chunkDays.size();
+        }
+    }
+
+    public ChunkPlan plan(int totalDays) {
+        return plan(totalDays, latencyModel.fit(), availableParallelism());
+    }
+
+    ChunkPlan plan(int totalDays, AiLatencyModel.Fit fit, int parallelism) {
+        if (totalDays <= 0) return new ChunkPlan(List.of(), 0, 0, false);
+
+        if (!fit.fitted()) {
+            List<Integer> sizes = new ArrayList<>();
+            for (int offset = 0; offset < totalDays; offset += defaultChunkDays) {
+                sizes.add(Math.min(defaultChunkDays, totalDays - offset));
+            }
+            return new ChunkPlan(sizes, Math.min(parallelism, sizes.size()), 0, false);
+        }
+
+        int bestChunks = -1;
+        double bestMs = Double.MAX_VALUE;
+        int fewest = ceilDiv(totalDays, maxChunkDays);
+        int most = Math.max(fewest, ceilDiv(totalDays, minChunkDays));
+        for (int n = fewest; n <= most; n++) {
+            int size = ceilDiv(totalDays, n);
+            int waves = ceilDiv(n, Math.min(n, parallelism));
+            double ms = waves * fit.predictMs(size);
+            if (ms < bestMs) {
+                bestMs = ms;
+                bestChunks = n;
+            }
+        }
+        return new ChunkPlan(evenSplit(totalDays, bestChunks), Math.min(parallelism, bestChunks), bestMs, true);
+    }
+
+    public AiLatencyModel.Fit model() {
+        return latencyModel.fit();
+    }
+
+    public int availableParallelism() {
+        return Math.max(1, Math.min(maxParallel, ioLimiter.available(IoLimiter.Stage.GEMINI)));
+    }
+
+    public int defaultChunkDays() {
+        return defaultChunkDays;
+    }
+
+    public int minChunkDays() {
+        return minChunkDays;
+    }
+
+    public int maxChunkDays() {
+        return maxChunkDays;
+    }
+
+    public int maxParallel() {
+        return maxParallel;
+    }
+
+    private static List<Integer> evenSplit(int total, int parts) {
+        List<Integer> sizes = new ArrayList<>(parts);
+        int base = total / parts;
+        int extra = total % parts;
+        for (int i = 0; i < parts; i++) {
+            sizes.add(base + (i < extra ? 1 : 0));
+        }
+        return sizes;
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return (a + b - 1) / b;
+    }
+}
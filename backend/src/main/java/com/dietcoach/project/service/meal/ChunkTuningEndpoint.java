@@ -0,0 +1,53 @@
+package com.dietcoach.project.service.meal;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.client.ai.AiLatencyModel;
+import com.dietcoach.project.dto.meal.ChunkTuningResponse;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 청크 크기 자동 조정 상태 조회 (운영 확인용)
+ * GET /actuator/chunktuning?days=23  (management 포트 + 인증)
+ */
+@Component
+@Endpoint(id = "chunktuning")
+@RequiredArgsConstructor
+public class ChunkTuningEndpoint {
+
+    private static final int DEFAULT_PLAN_DAYS = 23;
+
+    private final ChunkSizeTuner chunkSizeTuner;
+
+    @ReadOperation
+    public ChunkTuningResponse chunkTuning(@Nullable Integer days) {
+        int planDays = days == null ? DEFAULT_PLAN_DAYS : days;
+        AiLatencyModel.Fit fit = chunkSizeTuner.model();
+        ChunkSizeTuner.ChunkPlan plan = chunkSizeTuner.plan(planDays);
+
+        return ChunkTuningResponse.builder()
+                .fitted(fit.fitted())
+                .samples(fit.samples())
+                .fixedMs(fit.fixedMs())
+                .perDayMs(fit.perDayMs())
+                .r2(fit.r2())
+                .bytesPerDay(fit.bytesPerDay())
+                .minObservedDays(fit.minDays())
+                .maxObservedDays(fit.maxDays())
+                .defaultChunkDays(chunkSizeTuner.defaultChunkDays())
+                .minChunkDays(chunkSizeTuner.minChunkDays())
+                .maxChunkDays(chunkSizeTuner.maxChunkDays())
+                .maxParallel(chunkSizeTuner.maxParallel())
+                .availableParallelism(chunkSizeTuner.availableParallelism())
+                .planDays(planDays)
+                .planChunkDays(plan.chunkDays())
+                .planParallelism(plan.parallelism())
+                .planPredictedMs(Math.round(plan.predictedMs()))
+                .planTuned(plan.tuned())
+                .build();
+    }
+}
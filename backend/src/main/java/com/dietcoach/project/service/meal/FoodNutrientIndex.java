@@ -0,0 +1,82 @@
+package com.dietcoach.project.service.meal;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.util.text.KeywordPriorityMatcher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 음식명 -> 영양 프로필(g당 kcal, 탄/단/지 비율) 조회.
+ *
+ * mealplan/food-nutrients.json 의 rules 순서가 우선순위이고, 음식명(소문자, 공백 제거)에
+ * 키워드가 하나라도 포함된 첫 번째 rule 을 쓴다. 매칭은 전체 키워드로 만든
+ * Aho-Corasick 오토마톤 한 번으로 처리한다. (기존 containsAny if/else 체인과 동일한 결과)
+ */
+@Slf4j
+@Component
+public class FoodNutrientIndex {
+
+    public record NutrientProfile(String tier, double kcalPerGram, double carbRatio, double proteinRatio, double fatRatio) {}
+
+    private final NutrientProfile defaultProfile;
+    private final List<NutrientProfile> rules;
+    private final KeywordPriorityMatcher matcher;
+
+    public FoodNutrientIndex(
+            ObjectMapper objectMapper,
+            @Value("${mealplan.nutrients.location:classpath:mealplan/food-nutrients.json}") Resource location
+    ) {
+        JsonNode root;
+        try (InputStream in = location.getInputStream()) {
+            root = objectMapper.readTree(in);
+        } catch (Exception e) {
+            throw new IllegalStateException("food nutrient table load failed: " + location, e);
+        }
+
+        this.defaultProfile = toProfile(root.path("default"));
+        this.rules = new ArrayList<>();
+        Map<String, Integer> keywordPriorities = new HashMap<>();
+        for (JsonNode rule : root.path("rules")) {
+            int priority = rules.size();
+            rules.add(toProfile(rule));
+            for (JsonNode keyword : rule.path("keywords")) {
+                // 같은 키워드가 여러 rule 에 있으면 앞선 rule 우선
+                keywordPriorities.merge(normalize(keyword.asText()), priority, Math::min);
+            }
+        }
+        this.matcher = new KeywordPriorityMatcher(keywordPriorities);
+        log.info("[FoodNutrientIndex] loaded rules={} keywords={}", rules.size(), keywordPriorities.size());
+    }
+
+    public NutrientProfile lookup(String foodName) {
+        int priority = matcher.bestPriority(normalize(foodName));
+        return priority == KeywordPriorityMatcher.NO_MATCH ? defaultProfile : rules.get(priority);
+    }
+
+    // 공백을 제거하여 "기름 뺀" -> "기름뺀"으로 인식하게 함
+    static String normalize(String name) {
+        if (name == null) return "";
+        return name.trim().toLowerCase(Locale.ROOT).replace(" ", "");
+    }
+
+    private static NutrientProfile toProfile(JsonNode node) {
+        return new NutrientProfile(
+                node.path("tier").asText("DEFAULT"),
+                node.path("kcalPerGram").asDouble(1.2),
+                node.path("carb").asDouble(0.4),
+                node.path("protein").asDouble(0.3),
+                node.path("fat").asDouble(0.3));
+    }
+}
@@ -0,0 +1,112 @@
+package com.dietcoach.project.service.meal;
+
+import java.util.List;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dietcoach.project.common.metrics.MealPlanMetrics;
+import com.dietcoach.project.domain.meal.MealItem;
+import com.dietcoach.project.domain.meal.MealPlanDay;
+import com.dietcoach.project.mapper.meal.MealPlanMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 식단 Day / MealItem 대량 저장 전용 writer.
+ *
+ * - 진행 중인 트랜잭션이 있으면 그 트랜잭션에 합류해서 multi-row INSERT 사용
+ *   (같은 트랜잭션 안에서 SIMPLE -> BATCH executor 전환은 MyBatis가 허용하지 않음)
+ * - 트랜잭션 밖(비동기 청크 저장 등)에서는 ExecutorType.BATCH 세션 + 새 트랜잭션으로 묶어서
+ *   INSERT/UPDATE 를 한 번에 flush 하고 원자적으로 커밋
+ */
+@Slf4j
+@Component
+public class MealPlanBatchWriter {
+
+    // max_allowed_packet 여유를 두고 한 statement에 담는 최대 row 수
+    private static final int MULTI_ROW_CHUNK = 500;
+
+    private final MealPlanMapper mealPlanMapper;
+    private final MealPlanMapper batchMealPlanMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MealPlanMetrics metrics;
+
+    public MealPlanBatchWriter(
+            MealPlanMapper mealPlanMapper,
+            SqlSessionFactory sqlSessionFactory,
+            TransactionTemplate transactionTemplate,
+            MealPlanMetrics metrics
+    ) {
+        this.mealPlanMapper = mealPlanMapper;
+        this.batchMealPlanMapper = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH)
+                .getMapper(MealPlanMapper.class);
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+    }
+
+    /** 하루치 저장 단위 */
+    public record DayItems(MealPlanDay day, List<MealItem> items) {
+        public int totalCalories() {
+            return items.stream().mapToInt(MealItem::getCalories).sum();
+        }
+    }
+
+    public void insertDays(List<MealPlanDay> days) {
+        if (days == null || days.isEmpty()) return;
+        for (int from = 0; from < days.size(); from += MULTI_ROW_CHUNK) {
+            mealPlanMapper.insertMealPlanDays(days.subList(from, Math.min(days.size(), from + MULTI_ROW_CHUNK)));
+        }
+    }
+
+    public void insertItems(List<MealItem> items) {
+        if (items == null || items.isEmpty()) return;
+        for (int from = 0; from < items.size(); from += MULTI_ROW_CHUNK) {
+            mealPlanMapper.insertMealItems(items.subList(from, Math.min(items.size(), from + MULTI_ROW_CHUNK)));
+        }
+        metrics.itemsInserted(items.size());
+    }
+
+    /**
+     * 여러 날의 아이템을 교체 저장 (기존 아이템 DELETE -> INSERT -> total_calories UPDATE).
+     * 같은 청크가 재시도돼도 아이템이 중복되지 않는다. 호출 후 각 day의 totalCalories 필드도 갱신된다.
+     */
+    public void saveDayItems(List<DayItems> dayItems) {
+        if (dayItems == null || dayItems.isEmpty()) return;
+
+        List<Long> dayIds = dayItems.stream().map(d -> d.day().getId()).toList();
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            mealPlanMapper.deleteMealItemsByDayIds(dayIds);
+            insertItems(dayItems.stream().flatMap(d -> d.items().stream()).toList());
+            for (DayItems d : dayItems) {
+                updateTotal(mealPlanMapper, d);
+            }
+            return;
+        }
+
+        long startMs = System.currentTimeMillis();
+        int itemCount = dayItems.stream().mapToInt(d -> d.items().size()).sum();
+        transactionTemplate.executeWithoutResult(status -> {
+            batchMealPlanMapper.deleteMealItemsByDayIds(dayIds);
+            for (DayItems d : dayItems) {
+                for (MealItem item : d.items()) {
+                    batchMealPlanMapper.insertMealItem(item);
+                }
+                updateTotal(batchMealPlanMapper, d);
+            }
+        });
+        metrics.itemsInserted(itemCount);
+        log.info("[MealPlan] batch saved days={} tookMs={}", dayItems.size(), System.currentTimeMillis() - startMs);
+    }
+
+    private void updateTotal(MealPlanMapper mapper, DayItems d) {
+        int total = d.totalCalories();
+        d.day().setTotalCalories(total);
+        mapper.updateMealPlanDayTotalCalories(d.day().getId(), total);
+    }
+}
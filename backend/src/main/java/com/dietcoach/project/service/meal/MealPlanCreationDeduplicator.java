@@ -0,0 +1,152 @@
+package com.dietcoach.project.service.meal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.common.error.BusinessException;
+import com.dietcoach.project.dto.meal.MealPlanCreateRequest;
+import com.dietcoach.project.dto.meal.MealPlanOverviewResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 플랜 생성 요청 중복 제거 (Idempotency-Key).
+ *
+ * - key: userId + Idempotency-Key 헤더. 헤더가 없으면 요청 본문 fingerprint 로 대체 (더블클릭 방지)
+ * - 같은 key 로 생성 중이면 새로 만들지 않고 진행 중인 생성(leader)이 끝나길 기다려 같은 planId 를 반환
+ * - 완료된 key 는 ttl 동안 planId 를 기억 -> 클라이언트 재시도도 같은 플랜
+ * - leader 실패 시 key 를 비움 (다음 재시도는 새로 생성)
+ * - 같은 Idempotency-Key 를 다른 본문으로 재사용하면 400
+ *
+ * 저장소는 max-entries 로 제한되는 LRU. 진행 중인 항목이 밀려나도 대기자는 future 를 이미 쥐고 있어 안전하다.
+ * createMonthlyPlan(@Transactional) 밖에서 호출해야 대기자가 커밋된 플랜을 읽는다.
+ */
+@Slf4j
+@Component
+public class MealPlanCreationDeduplicator {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long keyedTtlMs;
+    private final long implicitTtlMs;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    public MealPlanCreationDeduplicator(
+            @Value("${mealplan.idempotency.enabled:true}") boolean enabled,
+            @Value("${mealplan.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${mealplan.idempotency.ttl-seconds:600}") long keyedTtlSeconds,
+            @Value("${mealplan.idempotency.implicit-ttl-seconds:10}") long implicitTtlSeconds
+    ) {
+        this.enabled = enabled;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.keyedTtlMs = Math.max(0, keyedTtlSeconds) * 1000L;
+        this.implicitTtlMs = Math.max(0, implicitTtlSeconds) * 1000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                // put 마다 가장 오래 안 쓰인 항목이 만료됐으면 같이 정리
+                return size() > MealPlanCreationDeduplicator.this.maxEntries
+                        || eldest.getValue().expired(System.currentTimeMillis());
+            }
+        };
+    }
+
+    /**
+     * @param replayed true 면 이번 요청은 새로 생성하지 않고 기존(진행 중/완료) 플랜을 돌려받음
+     */
+    public record Result(Long planId, MealPlanOverviewResponse created, boolean replayed) {
+    }
+
+    /**
+     * @param operation 엔드포인트 구분 (create | stream) - 응답 형태가 달라 key 를 나눔
+     * @param create    실제 생성. 반환 시점에 플랜이 커밋되어 있어야 함
+     */
+    public Result execute(Long userId, String idempotencyKey, String operation,
+                          MealPlanCreateRequest request, Supplier<MealPlanOverviewResponse> create) {
+        if (!enabled) return new Result(null, create.get(), false);
+
+        boolean keyed = idempotencyKey != null && !idempotencyKey.isBlank();
+        String fingerprint = fingerprint(request);
+        String key = operation + ":" + userId + ":" + (keyed ? "k:" + idempotencyKey.trim() : "f:" + fingerprint);
+
+        Entry mine = new Entry(fingerprint);
+        Entry existing;
+        synchronized (entries) {
+            existing = entries.get(key);
+            if (existing != null && existing.expired(System.currentTimeMillis())) {
+                entries.remove(key);
+                existing = null;
+            }
+            if (existing == null) entries.put(key, mine);
+        }
+
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new BusinessException("Idempotency-Key 가 다른 요청 본문에 재사용되었습니다.");
+            }
+            log.info("[MealPlan][IDEMPOTENT] replay userId={} operation={} keyed={} inFlight={}",
+                    userId, operation, keyed, !existing.planId.isDone());
+            return new Result(await(existing.planId), null, true);
+        }
+
+        try {
+            MealPlanOverviewResponse created = create.get();
+            mine.expiresAt = System.currentTimeMillis() + (keyed ? keyedTtlMs : implicitTtlMs);
+            mine.planId.complete(created.getMealPlanId());
+            return new Result(created.getMealPlanId(), created, false);
+        } catch (Throwable t) {
+            synchronized (entries) {
+                entries.remove(key, mine);
+            }
+            mine.planId.completeExceptionally(t);
+            throw t;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Long await(CompletableFuture<Long> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    private String fingerprint(MealPlanCreateRequest request) {
+        if (request == null) return "-";
+        return request.getStartDate()
+                + "|" + request.getMonthlyBudget()
+                + "|" + request.getMealsPerDay()
+                + "|" + request.getPreferences()
+                + "|" + request.getAllergies();
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final CompletableFuture<Long> planId = new CompletableFuture<>();
+        // 진행 중에는 만료되지 않음
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        boolean expired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
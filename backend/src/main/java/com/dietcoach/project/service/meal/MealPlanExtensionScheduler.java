@@ -0,0 +1,84 @@
+package com.dietcoach.project.service.meal;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.domain.meal.MealPlan;
+import com.dietcoach.project.mapper.meal.MealPlanMapper;
+import com.dietcoach.project.service.MealPlanService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 종료가 임박한 플랜 야간 연장.
+ * 유저별 최신 플랜 중 종료일이 오늘 ~ 오늘+lead-days 인 플랜에 days 일을 이어 붙인다 (새 30일 플랜을 만들지 않음).
+ * 최근 active-within-days 일 동안 활동(섭취 체크/체중 기록/로그인)이 없는 유저는 제외 -> 떠난 계정을 무한정 연장하지 않음.
+ * 실행은 전용 executor(mealPlanExtensionExecutor)에서 하므로 다른 @Scheduled 작업을 막지 않는다.
+ * 플랜 하나가 실패해도 나머지는 계속 진행, 다음 실행에서 다시 대상이 된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MealPlanExtensionScheduler {
+
+    private final MealPlanMapper mealPlanMapper;
+    private final MealPlanService mealPlanService;
+    @Qualifier("mealPlanExtensionExecutor")
+    private final ThreadPoolTaskExecutor extensionExecutor;
+
+    @Value("${mealplan.extension.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mealplan.extension.lead-days:2}")
+    private int leadDays;
+
+    @Value("${mealplan.extension.days:7}")
+    private int extendDays;
+
+    @Value("${mealplan.extension.max-plans-per-run:200}")
+    private int maxPlansPerRun;
+
+    @Value("${mealplan.extension.active-within-days:14}")
+    private int activeWithinDays;
+
+    @Scheduled(cron = "${mealplan.extension.cron:0 30 3 * * *}")
+    public void extendEndingPlans() {
+        if (!enabled) return;
+
+        try {
+            extensionExecutor.execute(this::extendNow);
+        } catch (TaskRejectedException e) {
+            log.warn("[MealPlan][EXTEND] previous run still in progress, skip this run");
+        }
+    }
+
+    void extendNow() {
+        long startMs = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        List<MealPlan> plans = mealPlanMapper.findLatestPlansEndingBetween(today, today.plusDays(leadDays),
+                today.minusDays(activeWithinDays).atStartOfDay(), maxPlansPerRun);
+
+        int extended = 0;
+        int failed = 0;
+        for (MealPlan plan : plans) {
+            try {
+                mealPlanService.extendPlan(plan.getId(), extendDays);
+                extended++;
+            } catch (Exception e) {
+                failed++;
+                log.warn("[MealPlan][EXTEND] failed planId={} userId={} reason={}",
+                        plan.getId(), plan.getUserId(), e.getMessage());
+            }
+        }
+        log.info("[MealPlan][EXTEND] nightly run candidates={} extended={} failed={} days={} activeWithinDays={} tookMs={}",
+                plans.size(), extended, failed, extendDays, activeWithinDays, System.currentTimeMillis() - startMs);
+    }
+}
@@ -0,0 +1,197 @@
+package com.dietcoach.project.service.meal;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.dietcoach.project.common.metrics.MealPlanMetrics;
+import com.dietcoach.project.domain.meal.MealPlanJob;
+import com.dietcoach.project.dto.meal.MealPlanDaySummaryResponse;
+import com.dietcoach.project.mapper.meal.MealPlanJobMapper;
+import com.dietcoach.project.service.MealPlanService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * meal_plan_jobs 큐를 소비하는 워커.
+ *
+ * - PENDING 작업을 조건부 UPDATE로 claim 해서 여러 인스턴스가 동시에 돌아도 한 번만 실행
+ * - 실패 시 지수 백오프로 재시도, maxAttempts 초과 시 FAILED
+ *   AI 실패도 재시도 대상 (마지막 시도에서만 라이브러리/템플릿으로 대체 생성)
+ * - 기동 시 자기 workerId로 잡혀 있던 RUNNING 작업, lease 가 지난 작업을 PENDING 으로 되돌려서 이어서 처리
+ */
+@Slf4j
+@Component
+public class MealPlanJobWorker {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MealPlanJobMapper jobMapper;
+    private final MealPlanService mealPlanService;
+    private final ThreadPoolTaskExecutor executor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MealPlanMetrics metrics;
+
+    @Value("${mealplan.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${mealplan.jobs.backoff-base-seconds:10}")
+    private long backoffBaseSeconds;
+
+    @Value("${mealplan.jobs.backoff-max-seconds:600}")
+    private long backoffMaxSeconds;
+
+    @Value("${mealplan.jobs.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${mealplan.jobs.worker-id:}")
+    private String configuredWorkerId;
+
+    private String workerId;
+
+    public MealPlanJobWorker(
+            MealPlanJobMapper jobMapper,
+            MealPlanService mealPlanService,
+            @Qualifier("mealPlanJobExecutor") ThreadPoolTaskExecutor executor,
+            ApplicationEventPublisher eventPublisher,
+            MealPlanMetrics metrics
+    ) {
+        this.jobMapper = jobMapper;
+        this.mealPlanService = mealPlanService;
+        this.executor = executor;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        int released = jobMapper.releaseByWorker(workerId());
+        log.info("[MealPlanJob] worker ready workerId={} resumedJobs={}", workerId(), released);
+        dispatchPending();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobsEnqueued(MealPlanJobsEnqueuedEvent event) {
+        log.info("[MealPlanJob] jobs enqueued planId={}", event.mealPlanId());
+        dispatchPending();
+    }
+
+    @Scheduled(fixedDelayString = "${mealplan.jobs.poll-interval-ms:5000}",
+            initialDelayString = "${mealplan.jobs.poll-interval-ms:5000}")
+    public void poll() {
+        int stale = jobMapper.releaseStale(leaseSeconds);
+        if (stale > 0) {
+            log.warn("[MealPlanJob] released stale jobs count={} leaseSeconds={}", stale, leaseSeconds);
+        }
+        dispatchPending();
+    }
+
+    /**
+     * executor 여유분만큼만 claim 해서 넘긴다. (claim 후 큐에 못 넣으면 claim 해제)
+     */
+    public void dispatchPending() {
+        int capacity = freeCapacity();
+        if (capacity <= 0) return;
+
+        List<MealPlanJob> candidates = jobMapper.findClaimable(capacity);
+        for (MealPlanJob job : candidates) {
+            // 다른 워커가 가져갔거나 같은 플랜의 RUNNING 청크가 max_parallel 에 도달
+            if (jobMapper.claim(job.getId(), job.getMealPlanId(), workerId()) != 1) continue;
+
+            try {
+                executor.execute(() -> run(job.getId()));
+            } catch (TaskRejectedException e) {
+                jobMapper.releaseClaim(job.getId());
+                log.info("[MealPlanJob] executor saturated, released jobId={}", job.getId());
+                return;
+            }
+        }
+    }
+
+    private void run(Long jobId) {
+        MealPlanJob job = jobMapper.findById(jobId);
+        if (job == null) return;
+
+        long startMs = System.currentTimeMillis();
+        int attempts = job.getAttempts() == null ? 1 : job.getAttempts();
+        try {
+            log.info("[MealPlanJob] start jobId={} planId={} offset={} days={} attempt={}",
+                    job.getId(), job.getMealPlanId(), job.getChunkOffset(), job.getChunkDays(), attempts);
+            List<MealPlanDaySummaryResponse> days = mealPlanService.generatePlanChunk(
+                    job.getMealPlanId(), job.getChunkOffset(), job.getChunkDays(), attempts >= maxAttempts);
+            jobMapper.markDone(job.getId());
+            // DONE 반영 후 발행해야 스트림이 마지막 청크에서 complete 를 보낼 수 있음
+            eventPublisher.publishEvent(new MealPlanProgressEvent(job.getMealPlanId(), days));
+            metrics.recordChunkLag(completionLag(job, startMs), "done");
+            log.info("[MealPlanJob] done jobId={} planId={} offset={} tookMs={}",
+                    job.getId(), job.getMealPlanId(), job.getChunkOffset(), System.currentTimeMillis() - startMs);
+        } catch (Exception e) {
+            String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+            if (attempts >= maxAttempts) {
+                jobMapper.markFailed(job.getId(), error);
+                metrics.recordChunkLag(completionLag(job, startMs), "failed");
+                log.error("[MealPlanJob] failed jobId={} planId={} attempts={}", job.getId(), job.getMealPlanId(), attempts, e);
+                // 스트리밍 구독자가 완료 여부를 다시 판단하도록 알림
+                eventPublisher.publishEvent(new MealPlanProgressEvent(job.getMealPlanId(), List.of()));
+            } else {
+                long delay = backoffSeconds(attempts);
+                jobMapper.markRetry(job.getId(), delay, error);
+                log.warn("[MealPlanJob] retry jobId={} planId={} attempts={} delaySeconds={} reason={}",
+                        job.getId(), job.getMealPlanId(), attempts, delay, error);
+            }
+        }
+        // 병렬도 제한으로 대기 중인 같은 플랜의 다음 청크를 폴링 주기까지 기다리지 않고 바로 시작
+        dispatchPending();
+    }
+
+    /**
+     * enqueue -> 완료 지연. 대기 구간(created_at -> locked_at)은 둘 다 DB NOW() 라 DB 시계로,
+     * 실행 구간은 워커 시계로 계산 (DB/JVM 타임존이 달라도 어긋나지 않도록)
+     */
+    private Duration completionLag(MealPlanJob job, long startMs) {
+        Duration running = Duration.ofMillis(System.currentTimeMillis() - startMs);
+        if (job.getCreatedAt() == null || job.getLockedAt() == null) return running;
+        return Duration.between(job.getCreatedAt(), job.getLockedAt()).plus(running);
+    }
+
+    private long backoffSeconds(int attempts) {
+        long delay = backoffBaseSeconds << Math.min(attempts - 1, 20);
+        return Math.min(delay, backoffMaxSeconds);
+    }
+
+    private int freeCapacity() {
+        var pool = executor.getThreadPoolExecutor();
+        return executor.getMaxPoolSize() - pool.getActiveCount() + pool.getQueue().remainingCapacity();
+    }
+
+    private String workerId() {
+        if (workerId != null) return workerId;
+        if (configuredWorkerId != null && !configuredWorkerId.isBlank()) {
+            workerId = configuredWorkerId.trim();
+        } else {
+            try {
+                workerId = InetAddress.getLocalHost().getHostName();
+            } catch (Exception e) {
+                workerId = "local";
+            }
+        }
+        return workerId;
+    }
+
+    private String truncate(String value) {
+        if (value == null) return null;
+        return value.length() <= MAX_ERROR_LENGTH ? value : value.substring(0, MAX_ERROR_LENGTH);
+    }
+}
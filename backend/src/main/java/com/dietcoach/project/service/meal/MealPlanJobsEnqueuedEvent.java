@@ -0,0 +1,8 @@
+package com.dietcoach.project.service.meal;
+
+/**
+ * 플랜 생성 트랜잭션이 청크 작업을 등록했음을 알리는 이벤트.
+ * 커밋 이후에 워커가 폴링 주기를 기다리지 않고 바로 작업을 가져가도록 한다.
+ */
+public record MealPlanJobsEnqueuedEvent(Long mealPlanId) {
+}
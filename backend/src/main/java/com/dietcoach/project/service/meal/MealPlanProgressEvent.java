@@ -0,0 +1,12 @@
+package com.dietcoach.project.service.meal;
+
+import java.util.List;
+
+import com.dietcoach.project.dto.meal.MealPlanDaySummaryResponse;
+
+/**
+ * 식단 청크 저장 완료(또는 작업 최종 실패) 알림.
+ * days 는 이번에 저장된 날짜 요약 (최종 실패 시 빈 리스트)
+ */
+public record MealPlanProgressEvent(Long mealPlanId, List<MealPlanDaySummaryResponse> days) {
+}
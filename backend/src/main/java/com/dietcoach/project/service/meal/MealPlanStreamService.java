@@ -0,0 +1,128 @@
+package com.dietcoach.project.service.meal;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.dietcoach.project.dto.meal.MealPlanDaySummaryResponse;
+import com.dietcoach.project.dto.meal.MealPlanGenerationStatusResponse;
+import com.dietcoach.project.dto.meal.MealPlanOverviewResponse;
+import com.dietcoach.project.service.MealPlanService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 식단 생성 SSE 스트림.
+ *
+ * 이벤트 순서: plan(뼈대) -> day(청크 커밋마다, dayId 기준 1회) -> complete(생성 상태)
+ * 구독 시점 이전에 이미 저장된 날짜는 DB에서 한 번 재전송하고, 이후는 MealPlanProgressEvent 로 전달한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MealPlanStreamService {
+
+    private final MealPlanService mealPlanService;
+
+    @Value("${mealplan.stream.timeout-ms:300000}")
+    private long timeoutMs;
+
+    private final Map<Long, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    public SseEmitter open(MealPlanOverviewResponse plan) {
+        Long planId = plan.getMealPlanId();
+        Subscription sub = new Subscription(planId, new SseEmitter(timeoutMs));
+        subscriptions.computeIfAbsent(planId, k -> new CopyOnWriteArrayList<>()).add(sub);
+        sub.emitter.onCompletion(() -> remove(sub));
+        sub.emitter.onTimeout(() -> remove(sub));
+        sub.emitter.onError(e -> remove(sub));
+
+        sub.send("plan", plan);
+        // 구독 등록 전에 커밋된 날짜 재전송 (dayId 중복은 Subscription 에서 걸러짐)
+        sub.sendDays(generatedDays(mealPlanService.getMealPlan(planId)));
+        completeIfDone(sub);
+        return sub.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProgress(MealPlanProgressEvent event) {
+        List<Subscription> subs = subscriptions.get(event.mealPlanId());
+        if (subs == null || subs.isEmpty()) return;
+
+        for (Subscription sub : subs) {
+            sub.sendDays(event.days());
+            completeIfDone(sub);
+        }
+    }
+
+    private void completeIfDone(Subscription sub) {
+        if (sub.closed) return;
+        MealPlanGenerationStatusResponse status = mealPlanService.getGenerationStatus(sub.planId);
+        if (!status.isCompleted()) return;
+
+        sub.send("complete", status);
+        sub.complete();
+        remove(sub);
+    }
+
+    private List<MealPlanDaySummaryResponse> generatedDays(MealPlanOverviewResponse plan) {
+        if (plan.getDays() == null) return List.of();
+        return plan.getDays().stream()
+                .filter(d -> d.getTotalCalories() > 0)
+                .toList();
+    }
+
+    private void remove(Subscription sub) {
+        sub.closed = true;
+        subscriptions.computeIfPresent(sub.planId, (k, list) -> {
+            list.remove(sub);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private final class Subscription {
+        private final Long planId;
+        private final SseEmitter emitter;
+        private final Set<Long> sentDayIds = new HashSet<>();
+        private volatile boolean closed;
+
+        Subscription(Long planId, SseEmitter emitter) {
+            this.planId = planId;
+            this.emitter = emitter;
+        }
+
+        synchronized void sendDays(List<MealPlanDaySummaryResponse> days) {
+            if (days == null) return;
+            for (MealPlanDaySummaryResponse day : days) {
+                if (day.getDayId() == null || !sentDayIds.add(day.getDayId())) continue;
+                send("day", day);
+            }
+        }
+
+        synchronized void send(String name, Object data) {
+            if (closed) return;
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data));
+            } catch (IOException | IllegalStateException e) {
+                log.info("[MealPlanStream] client gone planId={} event={} reason={}", planId, name, e.getMessage());
+                remove(this);
+            }
+        }
+
+        synchronized void complete() {
+            if (closed) return;
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.dietcoach.project.service.meal;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse.AiDaySkeleton;
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse.AiIngredient;
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse.AiMealSkeleton;
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse.AiValidation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 미리 검증된 식단 skeleton 라이브러리.
+ *
+ * - 기동 시 classpath JSON(mealplan/skeleton-library.json)을 읽어 (칼로리 밴드, goalType) 로 인덱싱
+ * - 날짜마다 알레르기 태그를 미리 계산해두고, 사용자 알레르기에 걸리는 날짜는 제외
+ * - assemble(): 가까운 밴드부터 후보를 모아 startDate 기준으로 회전, 목표 칼로리에 맞춰 grams 스케일링 (AI 호출 없음)
+ *   payload 에 avoidMenus 가 있으면 해당 메뉴가 들어간 날짜는 (후보가 충분할 때) 제외
+ * - add(): 백그라운드 갱신(MealSkeletonLibraryRefresher)에서 AI 결과를 검증 후 추가
+ */
+@Slf4j
+@Component
+public class MealSkeletonLibrary {
+
+    private static final Set<String> MEAL_TIMES = Set.of("BREAKFAST", "LUNCH", "DINNER", "SNACK");
+
+    /** 알레르기 그룹 (사용자 입력 -> 그룹, 재료명 -> 그룹) */
+    enum Allergen {
+        MILK(List.of("우유", "유제품", "milk"), List.of("우유", "치즈", "요거트", "요구르트", "버터", "크림", "유청")),
+        EGG(List.of("계란", "달걀", "난류", "egg"), List.of("계란", "달걀", "메추리알", "에그")),
+        PEANUT(List.of("땅콩", "peanut"), List.of("땅콩")),
+        TREE_NUT(List.of("견과", "견과류", "아몬드", "호두", "nut"), List.of("아몬드", "호두", "캐슈", "피스타치오", "견과")),
+        SOY(List.of("대두", "콩", "soy"), List.of("두부", "대두", "된장", "두유", "콩")),
+        WHEAT(List.of("밀", "글루텐", "wheat"), List.of("밀", "빵", "파스타", "국수", "면", "또띠아")),
+        FISH(List.of("생선", "어류", "fish"), List.of("연어", "고등어", "참치", "대구", "생선", "멸치")),
+        SHELLFISH(List.of("갑각류", "조개", "해산물", "새우", "게", "shellfish"), List.of("새우", "게살", "꽃게", "조개", "홍합", "오징어", "굴"));
+
+        final List<String> userLabels;
+        final List<String> ingredientKeywords;
+
+        Allergen(List<String> userLabels, List<String> ingredientKeywords) {
+            this.userLabels = userLabels;
+            this.ingredientKeywords = ingredientKeywords;
+        }
+    }
+
+    public record Key(int band, String goal) {}
+
+    private record LibraryDay(AiDaySkeleton day, int kcal, Set<Allergen> allergens, Set<String> ingredientNames) {}
+
+    private final ObjectMapper objectMapper;
+    private final Resource location;
+    private final int bandWidth;
+    private final int maxDaysPerKey;
+    private final int minDays;
+
+    private final Map<Key, List<LibraryDay>> index = new ConcurrentHashMap<>();
+    private final Map<Key, AtomicLong> demand = new ConcurrentHashMap<>();
+
+    public MealSkeletonLibrary(
+            ObjectMapper objectMapper,
+            @Value("${mealplan.library.location:classpath:mealplan/skeleton-library.json}") Resource location,
+            @Value("${mealplan.library.band-width:300}") int bandWidth,
+            @Value("${mealplan.library.max-days-per-key:90}") int maxDaysPerKey,
+            @Value("${mealplan.library.min-days:7}") int minDays
+    ) {
+        this.objectMapper = objectMapper;
+        this.location = location;
+        this.bandWidth = Math.max(50, bandWidth);
+        this.maxDaysPerKey = Math.max(1, maxDaysPerKey);
+        this.minDays = Math.max(1, minDays);
+    }
+
+    @PostConstruct
+    void load() {
+        long startMs = System.currentTimeMillis();
+        int loaded = 0;
+        int rejected = 0;
+        try (InputStream in = location.getInputStream()) {
+            JsonNode root = objectMapper.readTree(in);
+            for (JsonNode dayNode : root.path("days")) {
+                AiDaySkeleton day = parseCompactDay(dayNode);
+                if (add(dayNode.path("goal").asText("MAINTAIN"), day)) loaded++;
+                else rejected++;
+            }
+        } catch (Exception e) {
+            log.warn("[SkeletonLibrary] load failed location={} reason={}", location, e.getMessage());
+        }
+        log.info("[SkeletonLibrary] loaded days={} rejected={} keys={} tookMs={}",
+                loaded, rejected, index.size(), System.currentTimeMillis() - startMs);
+    }
+
+    /**
+     * payload(targetCaloriesPerDay/goalType/allergies/startDate/totalDays)에 맞는 skeleton 조립.
+     * 알레르기 제외 후 후보가 min-days 미만이면 null.
+     */
+    public AiMonthlySkeletonResponse assemble(Map<String, Object> payload) {
+        int targetKcal = toInt(payload.get("targetCaloriesPerDay"), 2000);
+        int totalDays = toInt(payload.get("totalDays"), 7);
+        String goal = Objects.toString(payload.get("goalType"), "MAINTAIN").toUpperCase(Locale.ROOT);
+        LocalDate startDate = parseDate(payload.get("startDate"));
+
+        Key requested = new Key(band(targetKcal), goal);
+        demand.computeIfAbsent(requested, k -> new AtomicLong()).incrementAndGet();
+
+        List<LibraryDay> candidates = candidates(requested, userAllergies(payload.get("allergies")),
+                rawAllergies(payload.get("allergies")), totalDays);
+        if (candidates.size() < Math.min(minDays, totalDays)) {
+            log.info("[SkeletonLibrary] insufficient key={} candidates={}", requested, candidates.size());
+            return null;
+        }
+
+        // 플랜 연장: 직전 메뉴(avoidMenus)가 들어간 날짜를 빼도 충분하면 제외, 모자라면 그대로 사용
+        Set<String> avoid = menuNames(payload.get("avoidMenus"));
+        if (!avoid.isEmpty()) {
+            List<LibraryDay> fresh = candidates.stream().filter(d -> !usesMenu(d.day(), avoid)).toList();
+            if (fresh.size() >= totalDays) candidates = fresh;
+        }
+
+        long seed = startDate.toEpochDay() + toInt(payload.get("rotationSeed"), 0);
+        int offset = (int) Math.floorMod(seed, (long) candidates.size());
+        List<AiDaySkeleton> days = new ArrayList<>(totalDays);
+        for (int i = 0; i < totalDays; i++) {
+            LibraryDay src = candidates.get((offset + i) % candidates.size());
+            days.add(scaled(src, targetKcal, i + 1, startDate.plusDays(i)));
+        }
+        return AiMonthlySkeletonResponse.builder().days(days).build();
+    }
+
+    /** AI 응답 중 검증 통과한 날짜만 추가. 추가된 날짜 수 반환 */
+    public int add(String goalType, AiMonthlySkeletonResponse response) {
+        if (response == null || response.getDays() == null) return 0;
+        int added = 0;
+        for (AiDaySkeleton day : response.getDays()) {
+            if (add(goalType, day)) added++;
+        }
+        return added;
+    }
+
+    /** 최근 조회가 많은 key 순서 (갱신 대상 선정용), 조회 후 카운터 초기화 */
+    public List<Key> drainHotKeys(int limit) {
+        List<Key> keys = demand.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Key, AtomicLong> e) -> e.getValue().get()).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+        demand.clear();
+        return keys;
+    }
+
+    public int size(Key key) {
+        List<LibraryDay> days = index.get(key);
+        return days == null ? 0 : days.size();
+    }
+
+    public int maxDaysPerKey() {
+        return maxDaysPerKey;
+    }
+
+    public int band(int kcal) {
+        return (int) Math.round(kcal / (double) bandWidth) * bandWidth;
+    }
+
+    // ---------------------------------------------------------------------
+
+    private boolean add(String goalType, AiDaySkeleton day) {
+        Integer kcal = validate(day);
+        if (kcal == null) return false;
+
+        String goal = goalType == null ? "MAINTAIN" : goalType.toUpperCase(Locale.ROOT);
+        Set<String> names = new HashSet<>();
+        Set<Allergen> allergens = EnumSet.noneOf(Allergen.class);
+        for (AiMealSkeleton meal : day.getMeals()) {
+            for (AiIngredient ing : meal.getIngredients()) {
+                String name = ing.getIngredientName().trim();
+                names.add(name);
+                for (Allergen a : Allergen.values()) {
+                    if (a.ingredientKeywords.stream().anyMatch(name::contains)) allergens.add(a);
+                }
+            }
+        }
+
+        List<LibraryDay> days = index.computeIfAbsent(new Key(band(kcal), goal), k -> new CopyOnWriteArrayList<>());
+        days.add(new LibraryDay(day, kcal, allergens, names));
+        while (days.size() > maxDaysPerKey) days.remove(0);
+        return true;
+    }
+
+    /** 검증 통과 시 하루 총 kcal, 실패 시 null */
+    private Integer validate(AiDaySkeleton day) {
+        if (day == null || day.getMeals() == null || day.getMeals().isEmpty()) return null;
+
+        int total = 0;
+        Set<String> menus = new HashSet<>();
+        for (AiMealSkeleton meal : day.getMeals()) {
+            if (meal == null || meal.getMealTime() == null) return null;
+            if (!MEAL_TIMES.contains(meal.getMealTime().trim().toUpperCase(Locale.ROOT))) return null;
+            if (meal.getMenuName() == null || !menus.add(meal.getMenuName().trim())) return null;
+            if (meal.getIngredients() == null || meal.getIngredients().isEmpty()) return null;
+            for (AiIngredient ing : meal.getIngredients()) {
+                if (ing == null || ing.getIngredientName() == null || ing.getIngredientName().isBlank()) return null;
+                if (ing.getGrams() == null || ing.getGrams() <= 0) return null;
+                if (ing.getCalories() == null || ing.getCalories() < 0) return null;
+                total += ing.getCalories();
+            }
+        }
+        return total >= 800 ? total : null;
+    }
+
+    private static Set<String> menuNames(Object value) {
+        if (!(value instanceof Collection<?> c) || c.isEmpty()) return Set.of();
+        Set<String> names = new HashSet<>();
+        for (Object v : c) {
+            if (v != null && !v.toString().isBlank()) names.add(v.toString().trim());
+        }
+        return names;
+    }
+
+    private static boolean usesMenu(AiDaySkeleton day, Set<String> menus) {
+        for (AiMealSkeleton meal : day.getMeals()) {
+            if (meal.getMenuName() != null && menus.contains(meal.getMenuName().trim())) return true;
+        }
+        return false;
+    }
+
+    private List<LibraryDay> candidates(Key requested, Set<Allergen> allergens, Set<String> rawAllergies, int wanted) {
+        // 같은 goal 의 가까운 밴드 -> 다른 goal 순서로 후보 수집 (grams 스케일링으로 칼로리는 맞춤)
+        List<Key> keys = new ArrayList<>(index.keySet());
+        keys.sort(Comparator
+                .comparing((Key k) -> !k.goal().equals(requested.goal()))
+                .thenComparingInt(k -> Math.abs(k.band() - requested.band())));
+
+        Set<LibraryDay> result = new LinkedHashSet<>();
+        for (Key key : keys) {
+            for (LibraryDay d : index.getOrDefault(key, List.of())) {
+                if (!Collections.disjoint(d.allergens(), allergens)) continue;
+                if (rawAllergies.stream().anyMatch(raw -> d.ingredientNames().stream().anyMatch(n -> n.contains(raw)))) continue;
+                result.add(d);
+            }
+            if (result.size() >= wanted && key.goal().equals(requested.goal())) break;
+            if (result.size() >= wanted * 2) break;
+        }
+        return new ArrayList<>(result);
+    }
+
+    private AiDaySkeleton scaled(LibraryDay src, int targetKcal, int dayIndex, LocalDate date) {
+        double scale = Math.max(0.5, Math.min(1.8, targetKcal / (double) Math.max(1, src.kcal())));
+        int total = 0;
+        List<AiMealSkeleton> meals = new ArrayList<>();
+        for (AiMealSkeleton meal : src.day().getMeals()) {
+            int mealKcal = 0;
+            List<AiIngredient> ings = new ArrayList<>();
+            for (AiIngredient ing : meal.getIngredients()) {
+                int kcal = (int) Math.round(ing.getCalories() * scale);
+                mealKcal += kcal;
+                ings.add(AiIngredient.builder()
+                        .ingredientName(ing.getIngredientName())
+                        .grams((int) Math.round(ing.getGrams() * scale))
+                        .calories(kcal)
+                        .costTier(ing.getCostTier())
+                        .build());
+            }
+            total += mealKcal;
+            meals.add(AiMealSkeleton.builder()
+                    .mealTime(meal.getMealTime())
+                    .menuName(meal.getMenuName())
+                    .reasoning("LIBRARY")
+                    .ingredients(ings)
+                    .calories(mealKcal)
+                    .build());
+        }
+        return AiDaySkeleton.builder()
+                .dayIndex(dayIndex)
+                .planDate(date.toString())
+                .validation(AiValidation.builder().targetKcal(targetKcal).actualTotalKcal(total).build())
+                .meals(meals)
+                .totalCalories(total)
+                .build();
+    }
+
+    // ["BREAKFAST","메뉴",[["재료",grams,kcal],...]] 형식
+    private AiDaySkeleton parseCompactDay(JsonNode dayNode) {
+        List<AiMealSkeleton> meals = new ArrayList<>();
+        for (JsonNode mealNode : dayNode.path("meals")) {
+            List<AiIngredient> ings = new ArrayList<>();
+            for (JsonNode ingNode : mealNode.path(2)) {
+                ings.add(AiIngredient.builder()
+                        .ingredientName(ingNode.path(0).asText(null))
+                        .grams(ingNode.path(1).isNumber() ? ingNode.path(1).asInt() : null)
+                        .calories(ingNode.path(2).isNumber() ? ingNode.path(2).asInt() : null)
+                        .build());
+            }
+            meals.add(AiMealSkeleton.builder()
+                    .mealTime(mealNode.path(0).asText(null))
+                    .menuName(mealNode.path(1).asText(null))
+                    .ingredients(ings)
+                    .build());
+        }
+        return AiDaySkeleton.builder().meals(meals).build();
+    }
+
+    private Set<Allergen> userAllergies(Object value) {
+        Set<Allergen> result = EnumSet.noneOf(Allergen.class);
+        for (String raw : rawAllergies(value)) {
+            for (Allergen a : Allergen.values()) {
+                if (a.userLabels.stream().anyMatch(label -> raw.contains(label) || label.contains(raw))) result.add(a);
+            }
+        }
+        return result;
+    }
+
+    private Set<String> rawAllergies(Object value) {
+        if (!(value instanceof Collection<?> c)) return Set.of();
+        Set<String> result = new HashSet<>();
+        for (Object v : c) {
+            if (v == null) continue;
+            String s = v.toString().trim().toLowerCase(Locale.ROOT);
+            if (!s.isEmpty()) result.add(s);
+        }
+        return result;
+    }
+
+    private static int toInt(Object v, int defaultValue) {
+        if (v instanceof Number n) return n.intValue();
+        if (v == null) return defaultValue;
+        try {
+            return Integer.parseInt(v.toString().trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static LocalDate parseDate(Object v) {
+        if (v == null) return LocalDate.now();
+        try {
+            return LocalDate.parse(v.toString());
+        } catch (Exception e) {
+            return LocalDate.now();
+        }
+    }
+}
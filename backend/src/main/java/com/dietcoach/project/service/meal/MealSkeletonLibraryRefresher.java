@@ -0,0 +1,68 @@
+package com.dietcoach.project.service.meal;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.client.ai.DietAiClient;
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 라이브러리 백그라운드 갱신.
+ * 최근 조회가 많았던 (밴드, goal) 중 아직 덜 찬 key 만 골라 AI로 7일치를 생성해 추가한다.
+ * 요청 경로에서는 AI를 기다리지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MealSkeletonLibraryRefresher {
+
+    private static final int REFRESH_DAYS = 7;
+
+    private final MealSkeletonLibrary library;
+    private final DietAiClient dietAiClient;
+
+    @Value("${mealplan.library.refresh.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mealplan.library.refresh.keys-per-run:3}")
+    private int keysPerRun;
+
+    @Scheduled(fixedDelayString = "${mealplan.library.refresh.interval-ms:21600000}",
+            initialDelayString = "${mealplan.library.refresh.interval-ms:21600000}")
+    public void refresh() {
+        if (!enabled) return;
+
+        List<MealSkeletonLibrary.Key> keys = library.drainHotKeys(keysPerRun);
+        for (MealSkeletonLibrary.Key key : keys) {
+            if (library.size(key) >= library.maxDaysPerKey()) continue;
+            try {
+                AiMonthlySkeletonResponse response = dietAiClient.generateMonthlySkeleton(payloadFor(key), false);
+                int added = library.add(key.goal(), response);
+                log.info("[SkeletonLibrary] refreshed key={} added={} size={}", key, added, library.size(key));
+            } catch (Exception e) {
+                log.warn("[SkeletonLibrary] refresh failed key={} reason={}", key, e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Object> payloadFor(MealSkeletonLibrary.Key key) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("targetCaloriesPerDay", key.band());
+        payload.put("mealsPerDay", 3);
+        payload.put("goalType", key.goal());
+        payload.put("preferences", List.of());
+        payload.put("allergies", List.of());
+        payload.put("startDate", LocalDate.now().toString());
+        payload.put("totalDays", REFRESH_DAYS);
+        return payload;
+    }
+}
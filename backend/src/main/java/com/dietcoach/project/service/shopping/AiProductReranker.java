@@ -1,10 +1,13 @@
 package com.dietcoach.project.service.shopping;
 
+import com.dietcoach.project.common.concurrent.IoLimiter;
 import com.dietcoach.project.domain.ShoppingProduct;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
@@ -12,8 +15,16 @@ import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Component
@@ -22,6 +33,11 @@ public class AiProductReranker {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final IoLimiter ioLimiter;
+
+    // rerankBatch 묶음 병렬 호출용 (AsyncConfig.ioExecutor, MDC 전파 / 동시 호출 수는 IoLimiter GMS 단계로 제한)
+    @Qualifier("ioExecutor")
+    private final Executor ioExecutor;
 
     @Value("${gms.api.key:}")
     private String gmsKey;
@@ -32,6 +48,20 @@ public class AiProductReranker {
     @Value("${gms.api.model:gpt-4o-mini}")
     private String model;
 
+    // rerankBatch 한 번의 프롬프트에 넣는 재료 수 (후보 10개씩이라 너무 크면 응답이 잘림)
+    @Value("${gms.api.rerank-batch-size:15}")
+    private int batchSize = 15;
+
+    /** rerankBatch 입력 1건 (재료 하나의 후보 목록) */
+    public record RerankRequest(String ingredient, int budget, List<ShoppingProduct> candidates) {}
+
+    /**
+     * rerankBatch 결과.
+     * selected: requests 인덱스 -> 선택 상품 / failed: 호출 자체가 실패한 묶음(또는 키 없음)의 인덱스
+     * 둘 다에 없는 인덱스 = 응답은 받았지만 빠졌거나 후보에 없는 ID
+     */
+    public record BatchResult(Map<Integer, ShoppingProduct> selected, Set<Integer> failed) {}
+
     public ShoppingProduct rerank(String ingredient, int budget, List<ShoppingProduct> candidates) {
         if (candidates == null || candidates.isEmpty()) return null;
         if (gmsKey == null || gmsKey.isBlank()) {
@@ -52,56 +82,12 @@ public class AiProductReranker {
             }
             userPrompt.append("\nSelect ONE best product ID for human food. Return ONLY JSON format: {\"selectedId\": \"...\", \"reason\": \"...\"}");
 
-            // Debug Logging
-            String keyStatus = (gmsKey == null || gmsKey.isBlank()) ? "MISSING" : "PRESENT(" + gmsKey.length() + ")";
-            log.info("[AI_RERANKER] Calling GMS. Model={} Key={} URL={}", model, keyStatus, gmsUrl);
-
-            // 2. Prepare Request
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(gmsKey);
-
-            GptRequest requestBody = new GptRequest(model, 0.1);
-            // Strong system prompt to force JSON
-            requestBody.messages.add(new Message("system", 
+            String content = callGms(
                 "You are a backend JSON generator. Output ONLY valid JSON. " +
                 "Do NOT include any introduction, explanation, or markdown formatting. " +
-                "Schema: {\"selectedId\": string, \"reason\": string}"));
-            requestBody.messages.add(new Message("user", userPrompt.toString()));
-
-            // Log Request Body
-            try {
-                String debugBody = objectMapper.writeValueAsString(requestBody);
-                log.debug("[AI_RERANKER] Payload: {}", debugBody);
-            } catch (Exception e) {}
-
-            HttpEntity<GptRequest> entity = new HttpEntity<>(requestBody, headers);
-
-            // 3. Call API
-            ResponseEntity<GptResponse> response = restTemplate.exchange(
-                    gmsUrl, HttpMethod.POST, entity, GptResponse.class
-            );
-
-            if (response.getBody() == null || response.getBody().choices == null || response.getBody().choices.isEmpty()) {
-                log.warn("[AI_RERANKER] Empty response from GMS.");
-                return null;
-            }
-
-            // 4. Parse Output (Robust)
-            String content = response.getBody().choices.get(0).message.content;
-            
-            // Extract JSON part only
-            int startIndex = content.indexOf("{");
-            int endIndex = content.lastIndexOf("}");
-            
-            if (startIndex == -1 || endIndex == -1) {
-                // Fallback gracefully instead of throwing exception
-                log.warn("[AI_RERANKER] No JSON found in response. Content: {}", 
-                        content.length() > 100 ? content.substring(0, 100) + "..." : content);
-                return null;
-            }
-            
-            content = content.substring(startIndex, endIndex + 1);
+                "Schema: {\"selectedId\": string, \"reason\": string}",
+                userPrompt.toString());
+            if (content == null) return null;
             
             AiOutput output = objectMapper.readValue(content, AiOutput.class);
 
@@ -130,6 +116,153 @@ public class AiProductReranker {
         }
     }
 
+    /**
+     * 여러 재료의 후보를 한 프롬프트로 보내고 재료별 선택 결과를 받는다 (batchSize 개씩 나눠서 ioExecutor 에서 병렬 호출).
+     * 호출 실패한 묶음은 failed 로 -> 호출부는 점수 1위로 확정 (같은 장애에 재료별로 다시 부르지 않음)
+     * 응답에서 빠졌거나 후보에 없는 ID 만 호출부에서 rerank 로 개별 재시도
+     */
+    public BatchResult rerankBatch(List<RerankRequest> requests) {
+        if (requests == null || requests.isEmpty()) return new BatchResult(Map.of(), Set.of());
+        if (gmsKey == null || gmsKey.isBlank()) {
+            log.warn("[AI_RERANKER] GMS Key missing. Skipping AI batch reranking.");
+            return new BatchResult(Map.of(), indexRange(0, requests.size()));
+        }
+
+        int size = Math.max(1, batchSize);
+        List<CompletableFuture<Map<Integer, ShoppingProduct>>> chunks = new ArrayList<>();
+        for (int from = 0; from < requests.size(); from += size) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(requests.size(), from + size);
+            chunks.add(CompletableFuture.supplyAsync(() -> rerankChunk(requests, chunkFrom, chunkTo), ioExecutor));
+        }
+
+        Map<Integer, ShoppingProduct> selected = new HashMap<>();
+        Set<Integer> failed = new LinkedHashSet<>();
+        for (int c = 0; c < chunks.size(); c++) {
+            int from = c * size;
+            int to = Math.min(requests.size(), from + size);
+            try {
+                selected.putAll(chunks.get(c).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.error("[AI_RERANKER] BATCH FAIL items={} error={}", to - from, cause.getMessage());
+                failed.addAll(indexRange(from, to));
+            }
+        }
+        log.info("[AI_RERANKER] BATCH ingredients={} selected={} failed={} calls={}",
+                requests.size(), selected.size(), failed.size(), chunks.size());
+        return new BatchResult(selected, failed);
+    }
+
+    private static Set<Integer> indexRange(int from, int to) {
+        return IntStream.range(from, to).boxed().collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /** 묶음 1개 호출. 호출/파싱 실패와 빈 응답은 예외로 (묶음 전체 failed) */
+    private Map<Integer, ShoppingProduct> rerankChunk(List<RerankRequest> requests, int from, int to) {
+        Map<Integer, ShoppingProduct> selected = new HashMap<>();
+        StringBuilder userPrompt = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            RerankRequest r = requests.get(i);
+            if (r.candidates() == null || r.candidates().isEmpty()) continue;
+            userPrompt.append("## Item ").append(i - from + 1).append("\n");
+            userPrompt.append("Target Ingredient: ").append(r.ingredient()).append("\n");
+            userPrompt.append("Budget: ").append(r.budget()).append(" KRW\n");
+            userPrompt.append("Candidates:\n");
+            for (ShoppingProduct p : r.candidates()) {
+                userPrompt.append(String.format("- [ID:%s] %s | %d KRW | %s\n",
+                        p.getExternalId(), p.getTitle(), p.getPrice(), p.getCategoryName()));
+            }
+            userPrompt.append("\n");
+        }
+        userPrompt.append("For EACH item select ONE best product ID for human food. ")
+                .append("Return ONLY JSON format: {\"results\": [{\"item\": 1, \"selectedId\": \"...\", \"reason\": \"...\"}]}");
+
+        String content = callGms(
+            "You are a backend JSON generator. Output ONLY valid JSON. " +
+            "Do NOT include any introduction, explanation, or markdown formatting. " +
+            "Schema: {\"results\": [{\"item\": number, \"selectedId\": string, \"reason\": string}]}",
+            userPrompt.toString());
+        if (content == null) throw new IllegalStateException("EMPTY_BATCH_RESPONSE");
+
+        AiBatchOutput output;
+        try {
+            output = objectMapper.readValue(content, AiBatchOutput.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("INVALID_BATCH_RESPONSE " + e.getMessage(), e);
+        }
+        if (output.results == null) throw new IllegalStateException("NO_BATCH_RESULTS");
+
+        for (AiBatchItem item : output.results) {
+            if (item == null || item.item == null || item.selectedId == null) continue;
+            int index = from + item.item - 1;
+            if (index < from || index >= to) continue;
+            RerankRequest r = requests.get(index);
+            if (r.candidates() == null) continue;
+            r.candidates().stream()
+                    .filter(p -> item.selectedId.equals(p.getExternalId()))
+                    .findFirst()
+                    .ifPresentOrElse(p -> {
+                        selected.put(index, p);
+                        log.info("[AI_RERANKER] SUCCESS ingredient={} selected=\"{}\" reason=\"{}\"",
+                                r.ingredient(), p.getTitle(), item.reason);
+                    }, () -> log.warn("[AI_RERANKER] Selected ID {} not found in candidates. ingredient={}",
+                            item.selectedId, r.ingredient()));
+        }
+        return selected;
+    }
+
+    /** GMS chat completion 호출 후 응답에서 JSON 부분만 반환 (없으면 null) */
+    private String callGms(String systemPrompt, String userPrompt) {
+        // Debug Logging
+        String keyStatus = (gmsKey == null || gmsKey.isBlank()) ? "MISSING" : "PRESENT(" + gmsKey.length() + ")";
+        log.info("[AI_RERANKER] Calling GMS. Model={} Key={} URL={}", model, keyStatus, gmsUrl);
+
+        // 2. Prepare Request
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(gmsKey);
+
+        GptRequest requestBody = new GptRequest(model, 0.1);
+        // Strong system prompt to force JSON
+        requestBody.messages.add(new Message("system", systemPrompt));
+        requestBody.messages.add(new Message("user", userPrompt));
+
+        // Log Request Body
+        try {
+            String debugBody = objectMapper.writeValueAsString(requestBody);
+            log.debug("[AI_RERANKER] Payload: {}", debugBody);
+        } catch (Exception e) {}
+
+        HttpEntity<GptRequest> entity = new HttpEntity<>(requestBody, headers);
+
+        // 3. Call API
+        ResponseEntity<GptResponse> response = ioLimiter.call(IoLimiter.Stage.GMS,
+                () -> restTemplate.exchange(gmsUrl, HttpMethod.POST, entity, GptResponse.class));
+
+        if (response.getBody() == null || response.getBody().choices == null || response.getBody().choices.isEmpty()) {
+            log.warn("[AI_RERANKER] Empty response from GMS.");
+            return null;
+        }
+
+        // 4. Parse Output (Robust)
+        String content = response.getBody().choices.get(0).message.content;
+        if (content == null) return null;
+
+        // Extract JSON part only
+        int startIndex = content.indexOf("{");
+        int endIndex = content.lastIndexOf("}");
+
+        if (startIndex == -1 || endIndex == -1) {
+            // Fallback gracefully instead of throwing exception
+            log.warn("[AI_RERANKER] No JSON found in response. Content: {}",
+                    content.length() > 100 ? content.substring(0, 100) + "..." : content);
+            return null;
+        }
+
+        return content.substring(startIndex, endIndex + 1);
+    }
+
     // --- DTOs ---
 
     static class AiOutput {
@@ -137,6 +270,18 @@ public class AiProductReranker {
         public String reason;
     }
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class AiBatchOutput {
+        public List<AiBatchItem> results;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class AiBatchItem {
+        public Integer item;
+        public String selectedId;
+        public String reason;
+    }
+
     static class GptRequest {
         public String model;
         public List<Message> messages = new ArrayList<>();
@@ -0,0 +1,245 @@
+package com.dietcoach.project.service.shopping;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.dietcoach.project.domain.ProductSearchCache;
+import com.dietcoach.project.mapper.shopping.ProductSearchCacheMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 상품 검색 결과 L2 캐시 (product_search_cache 테이블).
+ *
+ * - read: 로컬 캐시(L1) miss 시 read-through. 아직 flush 안 된 쓰기부터 보고, 없으면 TTL 안의 행만 조회
+ * - writeBehind: 검색 결과는 메모리 큐에만 넣고 flush-interval 마다 multi-row upsert (검색 경로에서 DB 쓰기 없음)
+ *   같은 key 는 마지막 값만 남기고, 큐가 max-pending 이면 새 key 는 버림 (캐시라서 유실 허용)
+ * - DB 오류는 miss / 다음 flush 재시도로 처리, 검색 자체를 실패시키지 않음
+ *   batch upsert 가 실패하면 그 batch 를 한 행씩 다시 써서 실패한 행만 되돌려 놓고,
+ *   max-flush-attempts 번 실패한 행은 버림 (한 행 때문에 batch 전체가 계속 재시도되다 큐가 차는 것을 막음)
+ * - TTL 지난 행은 purge-cron 으로 정리
+ *
+ * 지표: shopping.search_cache.reads{result=hit|miss|error}, shopping.search_cache.writes{result=flushed|dropped|error}
+ */
+@Slf4j
+@Component
+public class ProductSearchCacheStore {
+
+    public static final String PRODUCT = "PRODUCT";
+    public static final String PRICE_PER_100G = "PRICE_PER_100G";
+
+    private static final int PURGE_BATCH = 1_000;
+
+    private final ProductSearchCacheMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int batchSize;
+    private final int maxPending;
+    private final int maxFlushAttempts;
+
+    // category + '\n' + queryKey -> 마지막으로 쓴 값
+    private final ConcurrentHashMap<String, ProductSearchCache> pending = new ConcurrentHashMap<>();
+    // flush 실패 횟수 (성공하거나 버리면 제거)
+    private final ConcurrentHashMap<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+
+    private final Counter readHit;
+    private final Counter readMiss;
+    private final Counter readError;
+    private final Counter writeFlushed;
+    private final Counter writeDropped;
+    private final Counter writeError;
+
+    public ProductSearchCacheStore(
+            ProductSearchCacheMapper mapper,
+            ObjectMapper objectMapper,
+            MeterRegistry registry,
+            @Value("${shopping.search-cache.enabled:true}") boolean enabled,
+            @Value("${shopping.search-cache.ttl-minutes:720}") long ttlMinutes,
+            @Value("${shopping.search-cache.batch-size:200}") int batchSize,
+            @Value("${shopping.search-cache.max-pending:10000}") int maxPending,
+            @Value("${shopping.search-cache.max-flush-attempts:3}") int maxFlushAttempts
+    ) {
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ttl = Duration.ofMinutes(Math.max(1, ttlMinutes));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPending = Math.max(1, maxPending);
+        this.maxFlushAttempts = Math.max(1, maxFlushAttempts);
+
+        this.readHit = counter(registry, "shopping.search_cache.reads", "hit");
+        this.readMiss = counter(registry, "shopping.search_cache.reads", "miss");
+        this.readError = counter(registry, "shopping.search_cache.reads", "error");
+        this.writeFlushed = counter(registry, "shopping.search_cache.writes", "flushed");
+        this.writeDropped = counter(registry, "shopping.search_cache.writes", "dropped");
+        this.writeError = counter(registry, "shopping.search_cache.writes", "error");
+    }
+
+    /** L2 조회 (없거나 TTL 지났거나 DB/역직렬화 오류면 empty) */
+    public <T> Optional<T> read(String category, String queryKey, Class<T> type) {
+        return read(category, queryKey, type, ttl);
+    }
+
+    /**
+     * maxAge 안에 쓰인 행만 조회 (TTL 보다 길면 TTL).
+     * L1 백그라운드 갱신처럼 "지금 가진 값보다 새 값" 이 필요할 때 오래된 공유 행을 다시 가져오지 않도록.
+     */
+    public <T> Optional<T> read(String category, String queryKey, Class<T> type, Duration maxAge) {
+        if (!enabled || queryKey == null || queryKey.isEmpty()) return Optional.empty();
+
+        LocalDateTime fetchedAfter = LocalDateTime.now().minus(maxAge.compareTo(ttl) < 0 ? maxAge : ttl);
+        ProductSearchCache row = pending.get(pendingKey(category, queryKey));
+        if (row != null && row.getFetchedAt().isBefore(fetchedAfter)) row = null;
+        try {
+            if (row == null) row = mapper.findFresh(category, queryKey, fetchedAfter);
+            if (row == null) {
+                readMiss.increment();
+                return Optional.empty();
+            }
+            T value = objectMapper.readValue(row.getPayload(), type);
+            readHit.increment();
+            return Optional.ofNullable(value);
+        } catch (Exception e) {
+            readError.increment();
+            log.warn("[SEARCH_CACHE] read failed category={} key={} reason={}", category, queryKey, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** 다음 flush 때 DB 반영 */
+    public void writeBehind(String category, String queryKey, Object value) {
+        if (!enabled || queryKey == null || queryKey.isEmpty() || value == null) return;
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            writeError.increment();
+            log.warn("[SEARCH_CACHE] serialize failed category={} key={} reason={}", category, queryKey, e.getMessage());
+            return;
+        }
+
+        String key = pendingKey(category, queryKey);
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            writeDropped.increment();
+            return;
+        }
+        pending.put(key, ProductSearchCache.builder()
+                .category(category)
+                .queryKey(queryKey)
+                .payload(payload)
+                .fetchedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${shopping.search-cache.flush-interval-ms:2000}",
+            initialDelayString = "${shopping.search-cache.flush-interval-ms:2000}")
+    public int flush() {
+        int flushed = 0;
+        while (!pending.isEmpty()) {
+            List<ProductSearchCache> batch = drain();
+            if (batch.isEmpty()) break;
+            try {
+                mapper.upsertBatch(batch);
+                flushed += flushedRows(batch);
+            } catch (Exception e) {
+                log.warn("[SEARCH_CACHE] flush failed rows={} pending={} reason={}, retry row by row",
+                        batch.size(), pending.size(), e.getMessage());
+                flushed += flushRowByRow(batch);
+                // DB 장애일 수 있으므로 남은 pending 은 다음 주기에
+                break;
+            }
+        }
+        if (flushed > 0) log.debug("[SEARCH_CACHE] flushed rows={}", flushed);
+        return flushed;
+    }
+
+    private int flushRowByRow(List<ProductSearchCache> batch) {
+        int flushed = 0;
+        for (ProductSearchCache row : batch) {
+            try {
+                mapper.upsertBatch(List.of(row));
+                flushed += flushedRows(List.of(row));
+            } catch (Exception e) {
+                writeError.increment();
+                String key = pendingKey(row.getCategory(), row.getQueryKey());
+                int attempts = failedAttempts.merge(key, 1, Integer::sum);
+                if (attempts >= maxFlushAttempts) {
+                    failedAttempts.remove(key);
+                    writeDropped.increment();
+                    log.warn("[SEARCH_CACHE] drop row after attempts={} category={} key={} reason={}",
+                            attempts, row.getCategory(), row.getQueryKey(), e.getMessage());
+                } else {
+                    // 되돌려 놓고 다음 주기에 재시도 (그 사이 새로 쓴 값이 있으면 그쪽 유지)
+                    pending.putIfAbsent(key, row);
+                }
+            }
+        }
+        return flushed;
+    }
+
+    private int flushedRows(List<ProductSearchCache> rows) {
+        for (ProductSearchCache row : rows) failedAttempts.remove(pendingKey(row.getCategory(), row.getQueryKey()));
+        writeFlushed.increment(rows.size());
+        return rows.size();
+    }
+
+    @Scheduled(cron = "${shopping.search-cache.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        if (!enabled) return;
+        LocalDateTime before = LocalDateTime.now().minus(ttl);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = mapper.deleteFetchedBefore(before, PURGE_BATCH);
+            total += deleted;
+        } while (deleted >= PURGE_BATCH);
+        if (total > 0) log.info("[SEARCH_CACHE] purged rows={} before={}", total, before);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("[SEARCH_CACHE] shutdown flush failed pending={} reason={}", pending.size(), e.getMessage());
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private List<ProductSearchCache> drain() {
+        List<ProductSearchCache> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<Map.Entry<String, ProductSearchCache>> it = pending.entrySet().iterator();
+        while (batch.size() < batchSize && it.hasNext()) {
+            Map.Entry<String, ProductSearchCache> e = it.next();
+            if (pending.remove(e.getKey(), e.getValue())) batch.add(e.getValue());
+        }
+        return batch;
+    }
+
+    private static String pendingKey(String category, String queryKey) {
+        return category + "\n" + queryKey;
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String result) {
+        return Counter.builder(name).tag("result", result).register(registry);
+    }
+}
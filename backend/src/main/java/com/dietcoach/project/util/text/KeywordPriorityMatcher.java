@@ -0,0 +1,89 @@
+package com.dietcoach.project.util.text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick 기반 다중 키워드 매처.
+ *
+ * 키워드마다 우선순위(작을수록 우선)를 주고, 텍스트를 한 번만 훑어서
+ * "텍스트에 포함된 키워드 중 가장 높은 우선순위"를 돌려준다.
+ * (if/else 로 containsAny 를 순서대로 여러 번 도는 것과 같은 결과)
+ */
+public class KeywordPriorityMatcher {
+
+    public static final int NO_MATCH = -1;
+
+    private final List<Map<Character, Integer>> next = new ArrayList<>();
+    private int[] fail;
+    private int[] best;
+
+    public KeywordPriorityMatcher(Map<String, Integer> keywordPriorities) {
+        next.add(new HashMap<>());
+        List<Integer> outputs = new ArrayList<>();
+        outputs.add(Integer.MAX_VALUE);
+
+        for (Map.Entry<String, Integer> e : keywordPriorities.entrySet()) {
+            String keyword = e.getKey();
+            if (keyword == null || keyword.isEmpty()) continue;
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                Integer to = next.get(state).get(c);
+                if (to == null) {
+                    to = next.size();
+                    next.get(state).put(c, to);
+                    next.add(new HashMap<>());
+                    outputs.add(Integer.MAX_VALUE);
+                }
+                state = to;
+            }
+            outputs.set(state, Math.min(outputs.get(state), e.getValue()));
+        }
+
+        int size = next.size();
+        fail = new int[size];
+        best = new int[size];
+        for (int i = 0; i < size; i++) best[i] = outputs.get(i);
+
+        // BFS 로 failure link 계산, 출력은 failure 체인의 최솟값으로 접어둔다
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : next.get(0).values()) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : next.get(state).entrySet()) {
+                int child = edge.getValue();
+                int f = fail[state];
+                while (f != 0 && !next.get(f).containsKey(edge.getKey())) f = fail[f];
+                Integer to = next.get(f).get(edge.getKey());
+                fail[child] = (to != null && to != child) ? to : 0;
+                best[child] = Math.min(best[child], best[fail[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    /** 텍스트에 포함된 키워드 중 가장 작은 우선순위, 없으면 NO_MATCH */
+    public int bestPriority(CharSequence text) {
+        if (text == null) return NO_MATCH;
+        int state = 0;
+        int result = Integer.MAX_VALUE;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Integer to;
+            while ((to = next.get(state).get(c)) == null && state != 0) state = fail[state];
+            state = (to == null) ? 0 : to;
+            if (best[state] < result) {
+                result = best[state];
+                if (result == 0) break;
+            }
+        }
+        return result == Integer.MAX_VALUE ? NO_MATCH : result;
+    }
+}
@@ -4,7 +4,9 @@ use yumyum;
 
 
 -- Drop tables in reverse order of creation to avoid foreign key constraints
+DROP TABLE IF EXISTS product_search_cache;
 DROP TABLE IF EXISTS meal_intakes;
+DROP TABLE IF EXISTS meal_plan_jobs;
 DROP TABLE IF EXISTS refresh_tokens;
 DROP TABLE IF EXISTS shopping_cart_items;
 DROP TABLE IF EXISTS meal_items;
@@ -137,6 +139,37 @@ CREATE TABLE IF NOT EXISTS refresh_tokens (
   INDEX idx_refresh_user_id (user_id),
   INDEX idx_refresh_expires_at (expires_at)
 );
+-- Create meal_plan_jobs table (async chunk generation queue)
+CREATE TABLE meal_plan_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    meal_plan_id BIGINT NOT NULL,
+    chunk_offset INT NOT NULL,
+    chunk_days INT NOT NULL,
+    max_parallel INT NOT NULL DEFAULT 4,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_by VARCHAR(100) NULL,
+    locked_at DATETIME NULL,
+    last_error VARCHAR(500) NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_job_plan_chunk (meal_plan_id, chunk_offset),
+    INDEX idx_job_claim (status, next_attempt_at),
+    CONSTRAINT fk_job_meal_plan
+        FOREIGN KEY (meal_plan_id) REFERENCES meal_plans(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create product_search_cache table (상품 검색 결과 L2 캐시, 인스턴스 간 공유)
+CREATE TABLE product_search_cache (
+    category VARCHAR(30) NOT NULL,
+    query_key VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    fetched_at DATETIME NOT NULL,
+    PRIMARY KEY (category, query_key),
+    INDEX idx_psc_fetched_at (fetched_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 ALTER TABLE meal_items 
 ADD COLUMN carbs INT NOT NULL DEFAULT 0 AFTER calories,
 ADD COLUMN protein INT NOT NULL DEFAULT 0 AFTER carbs,
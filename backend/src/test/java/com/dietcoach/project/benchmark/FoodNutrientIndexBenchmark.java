@@ -0,0 +1,66 @@
+package com.dietcoach.project.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+
+import com.dietcoach.project.service.meal.FoodNutrientIndex;
+import com.dietcoach.project.service.meal.LegacyNutrientChain;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 음식명 -> 영양 프로필 조회: 기존 containsAny if/else 체인 vs FoodNutrientIndex(Aho-Corasick).
+ * 한 달 식단 기준 재료 이름 분포(채소/양념처럼 체인 뒤쪽에 걸리는 이름 포함)로 측정한다.
+ *
+ * 실행: MealPlanOverviewBenchmark 주석 참고 (클래스명만 바꿔서 실행)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FoodNutrientIndexBenchmark {
+
+    private static final List<String> NAMES = List.of(
+            "현미밥", "닭가슴살", "브로콜리", "샐러드 채소", "올리브오일", "연어", "고구마", "김치",
+            "방울토마토", "바나나", "그릭요거트", "두부", "버섯", "간장", "소고기 우둔살", "아몬드",
+            "참치 (기름 뺀)", "통밀빵", "콩나물", "애호박");
+
+    private FoodNutrientIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new FoodNutrientIndex(new ObjectMapper(), new ClassPathResource("mealplan/food-nutrients.json"));
+    }
+
+    @Benchmark
+    public void legacyChain(Blackhole bh) {
+        for (String name : NAMES) bh.consume(LegacyNutrientChain.lookup(name));
+    }
+
+    @Benchmark
+    public void ahoCorasickIndex(Blackhole bh) {
+        for (String name : NAMES) bh.consume(index.lookup(name));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(FoodNutrientIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.dietcoach.project.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.dietcoach.project.client.ai.GeminiResponseParser;
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 7일 skeleton 크기의 Gemini 응답 파싱:
+ * 기존 String -> readTree -> text String -> substring -> readValue vs GeminiResponseParser(InputStream 스트리밍).
+ *
+ * 할당량 비교는 -prof gc 로 실행 (gc.alloc.rate.norm):
+ *   java -cp ... org.openjdk.jmh.Main GeminiResponseParseBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeminiResponseParseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private GeminiResponseParser parser;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        parser = new GeminiResponseParser(objectMapper);
+
+        List<Map<String, Object>> days = new ArrayList<>();
+        for (int d = 1; d <= 7; d++) {
+            List<Map<String, Object>> meals = new ArrayList<>();
+            for (String mealTime : List.of("BREAKFAST", "LUNCH", "DINNER")) {
+                meals.add(Map.of(
+                        "mealTime", mealTime,
+                        "menuName", "현미밥과 닭가슴살 구이 " + d,
+                        "reasoning", "고단백 저지방 식단으로 체지방 감량 목표에 맞고 예산 안에서 구성 가능한 메뉴입니다.",
+                        "ingredients", List.of(
+                                Map.of("name", "현미밥", "grams", 210, "kcal", 300),
+                                Map.of("name", "닭가슴살", "grams", 150, "kcal", 165),
+                                Map.of("name", "브로콜리", "grams", 80, "kcal", 28),
+                                Map.of("name", "올리브오일", "grams", 5, "kcal", 44))));
+            }
+            days.add(Map.of(
+                    "dayIndex", d,
+                    "planDate", "2026-01-0" + d,
+                    "validation", Map.of("targetKcal", 1800, "actualTotalKcal", 1611, "estimatedCostKrw", 9000, "isBudgetSafe", true),
+                    "meals", meals));
+        }
+        String skeleton = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(Map.of("days", days));
+        String body = objectMapper.writeValueAsString(Map.of(
+                "candidates", List.of(Map.of(
+                        "finishReason", "STOP",
+                        "content", Map.of("role", "model", "parts", List.of(Map.of("text", "```json\n" + skeleton + "\n```"))))),
+                "usageMetadata", Map.of("promptTokenCount", 812, "candidatesTokenCount", 4000)));
+        responseBytes = body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public AiMonthlySkeletonResponse treeThenString() throws Exception {
+        // DietAiClient 기존 경로 (body(String.class) 포함)
+        String respBody = new String(new ByteArrayInputStream(responseBytes).readAllBytes(), StandardCharsets.UTF_8);
+        JsonNode root = objectMapper.readTree(respBody);
+        String content = root.path("candidates").get(0).path("content").path("parts").get(0).path("text").asText();
+        String t = content.trim();
+        if (t.startsWith("```")) {
+            t = t.replaceFirst("^```(json)?", "").trim();
+            if (t.endsWith("```")) t = t.substring(0, t.length() - 3).trim();
+        }
+        String json = t.substring(t.indexOf('{'), t.lastIndexOf('}') + 1).trim();
+        return objectMapper.readValue(json, AiMonthlySkeletonResponse.class);
+    }
+
+    @Benchmark
+    public AiMonthlySkeletonResponse streaming() throws Exception {
+        return parser.parseSkeleton(new ByteArrayInputStream(responseBytes));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(GeminiResponseParseBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
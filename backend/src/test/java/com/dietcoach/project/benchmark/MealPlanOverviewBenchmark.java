@@ -0,0 +1,242 @@
+package com.dietcoach.project.benchmark;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.logging.nologging.NoLoggingImpl;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.apache.ibatis.type.JdbcType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import com.dietcoach.project.domain.meal.MealItem;
+import com.dietcoach.project.domain.meal.MealPlan;
+import com.dietcoach.project.domain.meal.MealPlanDay;
+import com.dietcoach.project.domain.meal.MealPlanDayWithItems;
+import com.dietcoach.project.dto.meal.MealPlanDaySummaryResponse;
+import com.dietcoach.project.dto.meal.MealPlanOverviewResponse;
+import com.dietcoach.project.mapper.meal.MealPlanMapper;
+
+/**
+ * getMealPlan: 날짜별 아이템 조회(N+1) vs days/items JOIN 1회 비교.
+ *
+ * H2(MODE=MySQL, h2-schema.sql) 에 실제 MealPlanMapper.xml 을 올려서 측정한다.
+ * -> JOIN 쪽의 중복 컬럼 전송 + nested resultMap 행 매핑 비용과 N+1 쪽의 statement 수 비용이 모두 포함됨.
+ * rttMicros 는 statement 1회당 추가하는 왕복 지연 (0 이면 순수 H2 in-process, 원격 DB 는 200~1000 정도).
+ * 연산당 쿼리 수는 trial 종료 시 [BENCH] queries/op 로 출력된다.
+ *
+ * 실행: mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *       java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *           com.dietcoach.project.benchmark.MealPlanOverviewBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MealPlanOverviewBenchmark {
+
+    private static final String JDBC_URL =
+            "jdbc:h2:mem:overview-bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Param({"30"})
+    int days;
+
+    @Param({"9"})
+    int itemsPerDay;
+
+    @Param({"0", "200"})
+    long rttMicros;
+
+    private final AtomicLong queryCount = new AtomicLong();
+    private final AtomicLong opCount = new AtomicLong();
+    private PooledDataSource dataSource;
+    private SqlSessionFactory sessionFactory;
+    private Long planId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataSource = new PooledDataSource("org.h2.Driver", JDBC_URL, "sa", "");
+        try (Connection conn = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(conn, new ClassPathResource("schema/h2-schema.sql"));
+        }
+
+        // application.yml 의 mybatis.configuration 과 동일하게
+        Configuration configuration = new Configuration(
+                new Environment("bench", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.setJdbcTypeForNull(JdbcType.NULL);
+        // statement DEBUG 로그가 측정에 섞이지 않도록 (운영은 INFO)
+        configuration.setLogImpl(NoLoggingImpl.class);
+        String resource = "mapper/meal/MealPlanMapper.xml";
+        try (InputStream in = new ClassPathResource(resource).getInputStream()) {
+            new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+        }
+        sessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+
+        planId = insertPlan();
+        // 데이터 적재 이후부터 지연/횟수 측정
+        configuration.addInterceptor(new RoundTripInterceptor(rttMicros * 1_000L, queryCount));
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        long ops = Math.max(1, opCount.get());
+        System.out.printf("%n[BENCH] rttMicros=%d queries/op=%d%n", rttMicros, queryCount.get() / ops);
+        dataSource.forceCloseAll();
+    }
+
+    /** 변경 전 getMealPlan 조회 경로 */
+    @Benchmark
+    public MealPlanOverviewResponse nPlusOne() {
+        opCount.incrementAndGet();
+        try (SqlSession session = sessionFactory.openSession()) {
+            MealPlanMapper mapper = session.getMapper(MealPlanMapper.class);
+            MealPlan plan = mapper.findMealPlanById(planId);
+            List<MealPlanDay> dayList = mapper.findMealPlanDaysByPlanId(planId);
+
+            Map<Long, List<MealItem>> itemsByDayId = new HashMap<>();
+            for (MealPlanDay day : dayList) {
+                itemsByDayId.put(day.getId(), mapper.findMealItemsByDayId(day.getId()));
+            }
+            List<MealPlanDaySummaryResponse> summaries = dayList.stream()
+                    .map(day -> MealPlanDaySummaryResponse.from(day, itemsByDayId.getOrDefault(day.getId(), List.of())))
+                    .toList();
+            return MealPlanOverviewResponse.of(plan, summaries);
+        }
+    }
+
+    /** 변경 후 MealPlanServiceImpl.getMealPlan 과 같은 조회 (JOIN 1회 + nested resultMap) */
+    @Benchmark
+    public MealPlanOverviewResponse joined() {
+        opCount.incrementAndGet();
+        try (SqlSession session = sessionFactory.openSession()) {
+            MealPlanMapper mapper = session.getMapper(MealPlanMapper.class);
+            MealPlan plan = mapper.findMealPlanById(planId);
+            List<MealPlanDayWithItems> dayList = mapper.findMealPlanDaysWithItemsByPlanId(planId);
+            List<MealPlanDaySummaryResponse> summaries = dayList.stream()
+                    .map(day -> MealPlanDaySummaryResponse.from(day, day.getItems()))
+                    .toList();
+            return MealPlanOverviewResponse.of(plan, summaries);
+        }
+    }
+
+    private Long insertPlan() throws Exception {
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+            st.executeUpdate("INSERT INTO users (email, password, name) VALUES ('bench@dietcoach.local', 'x', 'bench')");
+        }
+
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            MealPlanMapper mapper = session.getMapper(MealPlanMapper.class);
+            MealPlan plan = MealPlan.builder()
+                    .userId(1L)
+                    .startDate(start)
+                    .endDate(start.plusDays(days - 1))
+                    .totalDays(days)
+                    .targetCaloriesPerDay(1800)
+                    .mealsPerDay(3)
+                    .build();
+            mapper.insertMealPlan(plan);
+
+            List<MealPlanDay> dayRows = new ArrayList<>();
+            for (int d = 0; d < days; d++) {
+                dayRows.add(MealPlanDay.builder()
+                        .mealPlanId(plan.getId())
+                        .planDate(start.plusDays(d))
+                        .dayIndex(d + 1)
+                        .totalCalories(1800)
+                        .isStamped(false)
+                        .build());
+            }
+            mapper.insertMealPlanDays(dayRows);
+
+            List<MealItem> items = new ArrayList<>();
+            for (MealPlanDay day : dayRows) {
+                for (int i = 0; i < itemsPerDay; i++) {
+                    items.add(MealItem.builder()
+                            .mealPlanDayId(day.getId())
+                            .mealTime(i % 3 == 0 ? "BREAKFAST" : i % 3 == 1 ? "LUNCH" : "DINNER")
+                            .foodName("food-" + i)
+                            .calories(200)
+                            .grams(100)
+                            .carbs(20)
+                            .protein(15)
+                            .fat(5)
+                            .isHighProtein(false)
+                            .memo("AI|bench")
+                            .build());
+                }
+            }
+            mapper.insertMealItems(items);
+            return plan.getId();
+        }
+    }
+
+    /** SELECT 1회당 고정 왕복 지연 + 호출 수 집계 */
+    @Intercepts(@Signature(type = Executor.class, method = "query",
+            args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}))
+    static class RoundTripInterceptor implements Interceptor {
+
+        private final long rttNanos;
+        private final AtomicLong counter;
+
+        RoundTripInterceptor(long rttNanos, AtomicLong counter) {
+            this.rttNanos = rttNanos;
+            this.counter = counter;
+        }
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            counter.incrementAndGet();
+            if (rttNanos > 0) LockSupport.parkNanos(rttNanos);
+            return invocation.proceed();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(MealPlanOverviewBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
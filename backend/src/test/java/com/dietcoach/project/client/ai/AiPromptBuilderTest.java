@@ -0,0 +1,103 @@
+package com.dietcoach.project.client.ai;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiPromptBuilderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Map<String, Object> payload() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("totalDays", 7);
+        payload.put("startDate", "2026-01-08");
+        payload.put("targetCaloriesPerDay", 1800);
+        payload.put("mealsPerDay", 3);
+        payload.put("goalType", "LOSE_WEIGHT");
+        payload.put("preferences", List.of("한식"));
+        payload.put("allergies", List.of("우유"));
+        return payload;
+    }
+
+    @Test
+    @DisplayName("Compact mode sends the cached static prefix as systemInstruction and only varying fields per chunk")
+    void compactBodyCarriesOnlyVaryingFields() throws Exception {
+        AiPromptBuilder builder = new AiPromptBuilder("COMPACT", true);
+
+        Map<String, Object> first = builder.buildBody(payload());
+        Map<String, Object> nextChunk = new HashMap<>(payload());
+        nextChunk.put("startDate", "2026-01-15");
+        Map<String, Object> second = builder.buildBody(nextChunk);
+
+        assertSame(systemText(first), systemText(second));
+        String user = builder.compactUserPrompt(payload());
+        assertTrue(user.contains("days=7") && user.contains("startDate=2026-01-08") && user.contains("kcalRange=1746-1854"));
+        assertTrue(user.contains("allergies=[우유]"));
+        assertFalse(user.contains("avoid="));
+
+        Map<String, Object> extension = new HashMap<>(payload());
+        extension.put("avoidMenus", List.of("현미밥 정식"));
+        assertTrue(builder.compactUserPrompt(extension).endsWith(" avoid=[현미밥 정식]"));
+
+        int compactSize = objectMapper.writeValueAsString(first).length();
+        int fullSize = objectMapper.writeValueAsString(builder.fullBody(payload())).length();
+        assertTrue(compactSize * 2 < fullSize, "compact=" + compactSize + " full=" + fullSize);
+        assertTrue(builder.estimateInputTokens(payload())
+                < new AiPromptBuilder("FULL", false).estimateInputTokens(payload()));
+    }
+
+    @Test
+    @DisplayName("Full mode keeps the legacy single user message layout")
+    void fullModeKeepsLegacyLayout() {
+        Map<String, Object> body = new AiPromptBuilder("FULL", false).buildBody(payload());
+
+        assertFalse(body.containsKey("systemInstruction"));
+        assertEquals(1, ((List<?>) body.get("contents")).size());
+    }
+
+    @Test
+    @DisplayName("Meal body asks for one meal with the meal target and menus to avoid")
+    void mealBodyIsScopedToOneMeal() throws Exception {
+        AiPromptBuilder builder = new AiPromptBuilder("COMPACT", false);
+        Map<String, Object> day = payload();
+        day.put("totalDays", 1);
+        Map<String, Object> meal = new HashMap<>(day);
+        meal.put("mealTime", "LUNCH");
+        meal.put("mealTargetKcal", 720);
+        meal.put("avoidMenus", List.of("닭가슴살 샐러드"));
+
+        String user = builder.mealUserPrompt(meal);
+        assertTrue(user.contains("mealTime=LUNCH") && user.contains("targetKcal=720") && user.contains("kcalRange=684-756"));
+        assertTrue(user.contains("avoid=[닭가슴살 샐러드]") && user.contains("allergies=[우유]"));
+        assertFalse(systemText(builder.buildMealBody(meal)).toString().contains("\"days\""));
+
+        int mealSize = objectMapper.writeValueAsString(builder.buildMealBody(meal)).length();
+        int daySize = objectMapper.writeValueAsString(builder.buildBody(day)).length();
+        assertTrue(mealSize <= daySize, "meal=" + mealSize + " day=" + daySize);
+    }
+
+    @Test
+    @DisplayName("Estimates about four ASCII characters or one Hangul character per token")
+    void estimatesTokens() {
+        assertEquals(0, AiPromptBuilder.estimateTokens(""));
+        assertEquals(2, AiPromptBuilder.estimateTokens("abcdefgh"));
+        assertEquals(3, AiPromptBuilder.estimateTokens("닭가슴"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object systemText(Map<String, Object> body) {
+        Map<String, Object> system = (Map<String, Object>) body.get("systemInstruction");
+        return ((List<Map<String, Object>>) system.get("parts")).get(0).get("text");
+    }
+}
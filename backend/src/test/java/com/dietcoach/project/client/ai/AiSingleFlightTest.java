@@ -0,0 +1,82 @@
+package com.dietcoach.project.client.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AiSingleFlightTest {
+
+    @Test
+    @DisplayName("Concurrent identical requests share one in-flight call")
+    void coalescesConcurrentCalls() throws Exception {
+        AiSingleFlight flight = new AiSingleFlight(true);
+        AiMonthlySkeletonResponse response = AiMonthlySkeletonResponse.builder().days(List.of()).build();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<AiMonthlySkeletonResponse>> results = new ArrayList<>();
+            results.add(pool.submit(() -> flight.execute("k", () -> {
+                calls.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return response;
+            })));
+            leaderStarted.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> flight.execute("k", () -> {
+                    calls.incrementAndGet();
+                    return response;
+                })));
+            }
+            while (flight.stats().coalesced() < 4) Thread.sleep(5);
+            release.countDown();
+
+            for (Future<AiMonthlySkeletonResponse> f : results) {
+                assertSame(response, f.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(new AiSingleFlight.Stats(1, 4, 0), flight.stats());
+    }
+
+    @Test
+    @DisplayName("Leader failure is propagated and the key is released")
+    void failureReleasesKey() {
+        AiSingleFlight flight = new AiSingleFlight(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> flight.execute("k", () -> { throw new IllegalStateException("AI_CALL_FAILED"); }));
+
+        AiMonthlySkeletonResponse next = AiMonthlySkeletonResponse.builder().build();
+        assertSame(next, flight.execute("k", () -> next));
+        assertEquals(2, flight.stats().leaders());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
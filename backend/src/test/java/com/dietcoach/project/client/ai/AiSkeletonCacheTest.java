@@ -0,0 +1,160 @@
+package com.dietcoach.project.client.ai;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse.AiDaySkeleton;
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse.AiMealSkeleton;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiSkeletonCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AiSkeletonCache cache = new AiSkeletonCache(true, 50, 10, 60, 28, 60, registry);
+
+    @Test
+    @DisplayName("Buckets calories and normalizes list order in the fingerprint")
+    void fingerprintNormalizesProfile() {
+        Map<String, Object> a = payload(1812, LocalDate.of(2025, 1, 1));
+        a.put("allergies", List.of("우유", " 땅콩"));
+        Map<String, Object> b = payload(1790, LocalDate.of(2025, 3, 1));
+        b.put("allergies", List.of("땅콩", "우유", "우유"));
+
+        assertEquals(cache.fingerprint(a), cache.fingerprint(b));
+        assertEquals("kcal=1800|meals=3|goal=LOSE_WEIGHT|allergies=땅콩,우유|prefs=", cache.fingerprint(a));
+    }
+
+    @Test
+    @DisplayName("Misses until the pool has enough days, then rotates windows by start date")
+    void rotatesWindowsOnceThePoolIsFull() {
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int week = 0; week < 4; week++) {
+            Map<String, Object> p = payload(1800, start.plusDays(week * 7L));
+            assertNull(cache.get(p));
+            cache.put(p, skeleton(week * 7, 7));
+        }
+
+        Set<String> menus = new HashSet<>();
+        for (int week = 0; week < 4; week++) {
+            AiMonthlySkeletonResponse hit = cache.get(payload(1810, start.plusDays(week * 7L)));
+            assertNotNull(hit);
+            assertEquals(7, hit.getDays().size());
+            assertEquals(start.plusDays(week * 7L).toString(), hit.getDays().get(0).getPlanDate());
+            hit.getDays().forEach(d -> menus.add(d.getMeals().get(0).getMenuName()));
+        }
+
+        assertEquals(28, menus.size());
+        assertEquals(4, cache.stats().hits());
+        assertEquals(4, cache.stats().misses());
+    }
+
+    @Test
+    @DisplayName("A rotationSeed (regenerate) returns days that do not overlap the plan's original window")
+    void rotationSeedShiftsTheWindow() {
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int week = 0; week < 4; week++) {
+            cache.put(payload(1800, start.plusDays(week * 7L)), skeleton(week * 7, 7));
+        }
+
+        Map<String, Object> original = payload(1800, start.plusDays(3));
+        Set<String> before = menus(cache.get(original));
+        for (int seed = 0; seed < 50; seed++) {
+            Map<String, Object> regenerate = payload(1800, start.plusDays(3));
+            regenerate.put("rotationSeed", seed);
+            Set<String> after = menus(cache.get(regenerate));
+            assertEquals(7, after.size());
+            after.retainAll(before);
+            assertTrue(after.isEmpty(), "seed=" + seed + " overlaps " + after);
+        }
+
+        // pool 이 작아도(구간 2개 미만) 최소 1일은 밀림
+        assertEquals(1, AiSkeletonCache.seedShift(0, 7, 10));
+        assertEquals(0, AiSkeletonCache.seedShift(null, 7, 28));
+    }
+
+    @Test
+    @DisplayName("Skips pooled days that reuse avoidMenus and misses when too few days remain")
+    void skipsAvoidedMenus() {
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int week = 0; week < 4; week++) {
+            cache.put(payload(1800, start.plusDays(week * 7L)), skeleton(week * 7, 7));
+        }
+
+        Map<String, Object> extend = payload(1800, start.plusDays(28));
+        List<String> recent = new ArrayList<>();
+        for (int i = 0; i < 7; i++) recent.add("menu-" + i);
+        extend.put("avoidMenus", recent);
+        AiMonthlySkeletonResponse hit = cache.get(extend);
+        assertNotNull(hit);
+        hit.getDays().forEach(d -> assertFalse(recent.contains(d.getMeals().get(0).getMenuName())));
+
+        List<String> most = new ArrayList<>();
+        for (int i = 0; i < 25; i++) most.add("menu-" + i);
+        extend.put("avoidMenus", most);
+        assertNull(cache.get(extend));
+    }
+
+    @Test
+    @DisplayName("Exported cache.gets match the cache's own hits/misses: puts and too-small pools are not hits")
+    void exportedGetsMatchOwnStats() {
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int week = 0; week < 4; week++) {
+            Map<String, Object> p = payload(1800, start.plusDays(week * 7L));
+            assertNull(cache.get(p));
+            cache.put(p, skeleton(week * 7, 7));
+        }
+        assertNotNull(cache.get(payload(1800, start)));
+
+        assertEquals(1, cache.stats().hits());
+        assertEquals(4, cache.stats().misses());
+        assertEquals(1.0, gets("hit"));
+        assertEquals(4.0, gets("miss"));
+    }
+
+    private double gets(String result) {
+        return registry.get("cache.gets").tag("cache", "ai.skeleton").tag("result", result).functionCounter().count();
+    }
+
+    private Set<String> menus(AiMonthlySkeletonResponse response) {
+        Set<String> menus = new HashSet<>();
+        response.getDays().forEach(d -> menus.add(d.getMeals().get(0).getMenuName()));
+        return menus;
+    }
+
+    private Map<String, Object> payload(int kcal, LocalDate startDate) {
+        Map<String, Object> p = new HashMap<>();
+        p.put("targetCaloriesPerDay", kcal);
+        p.put("mealsPerDay", 3);
+        p.put("goalType", "LOSE_WEIGHT");
+        p.put("startDate", startDate.toString());
+        p.put("totalDays", 7);
+        return p;
+    }
+
+    private AiMonthlySkeletonResponse skeleton(int firstMenu, int days) {
+        List<AiDaySkeleton> list = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            list.add(AiDaySkeleton.builder()
+                    .dayIndex(i + 1)
+                    .meals(List.of(AiMealSkeleton.builder().mealTime("LUNCH").menuName("menu-" + (firstMenu + i)).build()))
+                    .build());
+        }
+        return AiMonthlySkeletonResponse.builder().days(list).build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.dietcoach.project.client.ai;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeminiResponseParserTest {
+
+    private static final String SKELETON = """
+            {"days":[{"dayIndex":1,"planDate":"2026-01-01",
+              "meals":[{"mealTime":"BREAKFAST","menuName":"닭가슴살 샐러드",
+                "ingredients":[{"name":"닭가슴살","grams":120,"kcal":132}]}]}]}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GeminiResponseParser parser = new GeminiResponseParser(objectMapper);
+
+    @Test
+    @DisplayName("Parses the skeleton from candidates[0].content.parts[0].text, skipping unrelated fields")
+    void parsesTextPart() throws Exception {
+        String body = geminiBody("```json\n" + SKELETON + "\n```");
+
+        AiMonthlySkeletonResponse resp = parser.parseSkeleton(stream(body));
+
+        assertEquals(1, resp.getDays().size());
+        AiMonthlySkeletonResponse.AiMealSkeleton meal = resp.getDays().get(0).getMeals().get(0);
+        assertEquals("닭가슴살 샐러드", meal.getMenuName());
+        assertEquals("닭가슴살", meal.getIngredients().get(0).getIngredientName());
+        assertEquals(120, meal.getIngredients().get(0).getGrams());
+    }
+
+    @Test
+    @DisplayName("Parses a single-meal response for meal replacement")
+    void parsesMeal() throws Exception {
+        String body = geminiBody("""
+                {"mealTime":"LUNCH","menuName":"연어 덮밥",
+                 "ingredients":[{"name":"연어","grams":150,"kcal":310},{"name":"현미밥","grams":200,"kcal":300}]}""");
+
+        AiMonthlySkeletonResponse.AiMealSkeleton meal = parser.parseMeal(stream(body));
+
+        assertEquals("LUNCH", meal.getMealTime());
+        assertEquals("연어 덮밥", meal.getMenuName());
+        assertEquals(2, meal.getIngredients().size());
+        assertEquals(310, meal.getIngredients().get(0).getCalories());
+    }
+
+    @Test
+    @DisplayName("Fails with the same messages as the tree-based path")
+    void emptyResponses() {
+        RuntimeException noCandidates = assertThrows(RuntimeException.class,
+                () -> parser.parseSkeleton(stream("{\"candidates\":[]}")));
+        assertEquals("AI candidates empty", noCandidates.getMessage());
+
+        RuntimeException noContent = assertThrows(RuntimeException.class,
+                () -> parser.parseSkeleton(stream(geminiBody("  "))));
+        assertEquals("AI content empty", noContent.getMessage());
+    }
+
+    private String geminiBody(String text) throws Exception {
+        return objectMapper.writeValueAsString(Map.of(
+                "modelVersion", "gemini-2.0-flash",
+                "usageMetadata", Map.of("promptTokenCount", 812, "candidatesTokenCount", 3000),
+                "candidates", List.of(Map.of(
+                        "finishReason", "STOP",
+                        "safetyRatings", List.of(Map.of("category", "HARM", "probability", "NEGLIGIBLE")),
+                        "content", Map.of("role", "model", "parts", List.of(Map.of("text", text)))))));
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,90 @@
+package com.dietcoach.project.common.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedCacheTest {
+
+    @Test
+    @DisplayName("Frequently used keys survive a scan of one-off keys")
+    void frequentKeysSurviveScan() {
+        BoundedCache<String, Integer> cache = BoundedCache.<String, Integer>builder("test")
+                .maximumSize(100)
+                .build();
+
+        for (int i = 0; i < 20; i++) {
+            cache.put("hot-" + i, i);
+            for (int r = 0; r < 5; r++) cache.get("hot-" + i);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("cold-" + i, i);
+        }
+
+        int survived = 0;
+        for (int i = 0; i < 20; i++) {
+            if (cache.get("hot-" + i) != null) survived++;
+        }
+        // LRU 였다면 0개, sketch 충돌로 일부는 밀려날 수 있음
+        assertTrue(survived >= 16, "survived=" + survived);
+        assertEquals(100, cache.size());
+        assertTrue(cache.stats().evictions() >= 900);
+    }
+
+    @Test
+    @DisplayName("Total weight stays under maximumWeight")
+    void boundedByWeight() {
+        BoundedCache<Integer, String> cache = BoundedCache.<Integer, String>builder("weighted")
+                .maximumWeight(100, (k, v) -> v.length())
+                .build();
+
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, "x".repeat(10));
+        }
+        cache.put(999, "y".repeat(40));
+
+        BoundedCache.Stats stats = cache.stats();
+        assertTrue(stats.weightedSize() <= 100, "weight=" + stats.weightedSize());
+        assertTrue(stats.evictions() > 0);
+    }
+
+    @Test
+    @DisplayName("Entries expire after write and cleanUp removes them; stats count hits, misses and expirations")
+    void expiresAndCountsStats() {
+        AtomicLong now = new AtomicLong(1_000);
+        BoundedCache<String, String> cache = BoundedCache.<String, String>builder("ttl")
+                .maximumSize(10)
+                .expireAfterWrite(Duration.ofSeconds(1))
+                .sweepInterval(null)
+                .clock(now::get)
+                .build();
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("c"));
+
+        now.addAndGet(1_001);
+        assertEquals(2, cache.cleanUp());
+        assertNull(cache.get("a"));
+
+        BoundedCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(2, stats.expirations());
+        assertEquals(0, stats.size());
+    }
+
+    @Test
+    @DisplayName("Requires a size or weight bound")
+    void requiresBound() {
+        assertThrows(IllegalStateException.class, () -> BoundedCache.<String, String>builder("unbounded").build());
+    }
+}
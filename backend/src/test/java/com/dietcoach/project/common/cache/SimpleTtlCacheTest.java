@@ -0,0 +1,174 @@
+package com.dietcoach.project.common.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimpleTtlCacheTest {
+
+    @Test
+    @DisplayName("Concurrent misses for the same key run the loader once")
+    void loadsOncePerKey() throws Exception {
+        SimpleTtlCache<String> cache = SimpleTtlCache.<String>builder("loader")
+                .maximumSize(10)
+                .build();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get("k", k -> {
+                    calls.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "v-" + k;
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> f : results) assertEquals("v-k", f.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.stats().loads());
+    }
+
+    @Test
+    @DisplayName("Serves the old value and reloads in the background once past the refresh-ahead point")
+    void refreshesAhead() {
+        AtomicLong now = new AtomicLong(0);
+        List<Runnable> scheduled = new ArrayList<>();
+        SimpleTtlCache<Integer> cache = SimpleTtlCache.<Integer>builder("refresh")
+                .maximumSize(10)
+                .ttl(Duration.ofSeconds(10))
+                .refreshAhead(0.8, scheduled::add)
+                .sweepInterval(null)
+                .clock(now::get)
+                .build();
+        AtomicInteger version = new AtomicInteger();
+
+        assertEquals(1, cache.get("k", k -> version.incrementAndGet()));
+        now.set(5_000);
+        assertEquals(1, cache.get("k", k -> version.incrementAndGet()));
+        assertTrue(scheduled.isEmpty());
+
+        now.set(8_500);
+        assertEquals(1, cache.get("k", k -> version.incrementAndGet()));
+        assertEquals(1, cache.get("k", k -> version.incrementAndGet()));
+        assertEquals(1, scheduled.size(), "refresh is scheduled once per key");
+
+        scheduled.get(0).run();
+        now.set(12_000);
+        assertEquals(2, cache.get("k", k -> version.incrementAndGet()));
+        assertEquals(1, cache.stats().refreshes());
+    }
+
+    @Test
+    @DisplayName("Serves expired values up to maxStale while one background reload runs, then loads synchronously")
+    void servesStaleWhileRevalidating() {
+        AtomicLong now = new AtomicLong(0);
+        List<Runnable> scheduled = new ArrayList<>();
+        SimpleTtlCache<Integer> cache = SimpleTtlCache.<Integer>builder("swr")
+                .maximumSize(10)
+                .ttl(Duration.ofSeconds(10))
+                .staleWhileRevalidate(Duration.ofSeconds(5), scheduled::add)
+                .sweepInterval(null)
+                .clock(now::get)
+                .build();
+        AtomicInteger version = new AtomicInteger();
+
+        assertEquals(1, cache.get("k", k -> version.incrementAndGet()));
+        now.set(12_000);
+        assertTrue(cache.get("k").isEmpty(), "plain get only returns fresh values");
+        Function<String, Integer> failing = k -> {
+            throw new IllegalStateException("search down");
+        };
+        assertEquals(1, cache.get("k", failing));
+        assertEquals(1, cache.get("k", failing));
+        assertEquals(1, scheduled.size(), "one refresh per key while stale");
+
+        // 갱신 실패: 기존 값 유지
+        scheduled.get(0).run();
+        assertEquals(1, cache.stats().refreshFailures());
+        scheduled.clear();
+        assertEquals(1, cache.get("k", failing));
+        scheduled.clear();
+
+        now.set(15_001);
+        assertEquals(2, cache.get("k", k -> version.incrementAndGet()), "past maxStale loads synchronously");
+        assertTrue(scheduled.isEmpty());
+        assertEquals(3, cache.stats().staleHits());
+    }
+
+    @Test
+    @DisplayName("Expired entries are reloaded, failures are not cached and size stays bounded")
+    void expiresAndBounds() {
+        AtomicLong now = new AtomicLong(0);
+        SimpleTtlCache<String> cache = SimpleTtlCache.<String>builder("bounded")
+                .maximumSize(5)
+                .ttl(Duration.ofSeconds(1))
+                .sweepInterval(null)
+                .clock(now::get)
+                .build();
+
+        cache.put("a", "A");
+        now.set(1_001);
+        assertTrue(cache.get("a").isEmpty());
+        assertEquals("A2", cache.get("a", k -> "A2"));
+
+        assertThrows(IllegalStateException.class, () -> cache.get("b", k -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("B", cache.get("b", k -> "B"));
+
+        for (int i = 0; i < 50; i++) cache.put("x-" + i, "v");
+        SimpleTtlCache.Stats stats = cache.stats();
+        assertTrue(stats.size() <= 5, "size=" + stats.size());
+        assertTrue(stats.evictions() > 0);
+        assertEquals(1, stats.loadFailures());
+        assertEquals(1, stats.expirations());
+    }
+
+    @Test
+    @DisplayName("Metrics go to the injected registry only and are removed when the cache is closed")
+    void bindsMetricsToInjectedRegistry() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SimpleTtlCache<String> cache = SimpleTtlCache.<String>builder("metered")
+                .sweepInterval(null)
+                .build();
+        cache.bindTo(registry);
+
+        cache.get("a", k -> "A");
+        cache.get("a", k -> "A");
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "metered").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "metered").gauge().value());
+        assertThrows(IllegalStateException.class, () -> cache.bindTo(registry));
+
+        cache.close();
+        assertTrue(registry.find("cache.gets").tag("cache", "metered").meters().isEmpty());
+    }
+}
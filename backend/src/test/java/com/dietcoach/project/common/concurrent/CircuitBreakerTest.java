@@ -0,0 +1,127 @@
+package com.dietcoach.project.common.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private CircuitBreaker breaker(long minTimeoutMs, long maxTimeoutMs) {
+        CircuitBreaker.Settings settings = new CircuitBreaker.Settings(
+                10, 4, 0.5, 30_000, 20, 0.95, 2.0, minTimeoutMs, maxTimeoutMs);
+        return new CircuitBreaker("test", settings, now::get);
+    }
+
+    @Test
+    @DisplayName("Opens on failure rate, rejects without calling, then closes after a successful half-open probe")
+    void opensAndRecoversThroughProbe() {
+        CircuitBreaker breaker = breaker(10, 1_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        breaker.call(t -> calls.incrementAndGet());
+        breaker.call(t -> calls.incrementAndGet());
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalArgumentException.class, () -> breaker.call(t -> {
+                calls.incrementAndGet();
+                throw new IllegalArgumentException("boom");
+            }));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        assertThrows(CircuitOpenException.class, () -> breaker.call(t -> calls.incrementAndGet()));
+        assertEquals(4, calls.get());
+
+        now.addAndGet(30_000);
+        assertThrows(IllegalArgumentException.class, () -> breaker.call(t -> {
+            throw new IllegalArgumentException("probe failed");
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        now.addAndGet(30_000);
+        breaker.call(t -> calls.incrementAndGet());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0, breaker.stats().calls());
+        assertEquals(1, breaker.stats().rejected());
+    }
+
+    @Test
+    @DisplayName("Hands the adaptive timeout to the call and counts failures that used it up as timeouts")
+    void adaptiveTimeout() {
+        CircuitBreaker breaker = new CircuitBreaker("test", new CircuitBreaker.Settings(
+                10, 4, 0.5, 30_000, 20, 0.95, 2.0, 50, 5_000));
+
+        assertEquals(5_000, breaker.currentTimeoutMs());
+        for (int i = 0; i < 4; i++) breaker.call(t -> "fast");
+        assertEquals(50, breaker.currentTimeoutMs());
+
+        // 호출부가 받은 타임아웃으로 요청을 끊은 경우 (예: HTTP response timeout)
+        AtomicLong given = new AtomicLong();
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> breaker.call(timeoutMs -> {
+            given.set(timeoutMs);
+            sleep(timeoutMs + 20);
+            throw new IllegalStateException("Read timed out");
+        }));
+        assertEquals(50, given.get());
+        assertTrue(e.getMessage().startsWith("CIRCUIT_TIMEOUT"));
+        assertEquals(1, breaker.stats().timeouts());
+
+        // 타임아웃 전에 난 실패는 그대로 전달
+        assertThrows(IllegalArgumentException.class, () -> breaker.call(t -> {
+            throw new IllegalArgumentException("bad request");
+        }));
+        assertEquals(1, breaker.stats().timeouts());
+    }
+
+    @Test
+    @DisplayName("Many fast small calls do not lower the timeout of a slow large call in another bucket")
+    void fastSmallCallsDoNotTimeOutLargeCall() {
+        CircuitBreaker breaker = new CircuitBreaker("test", new CircuitBreaker.Settings(
+                10, 4, 0.5, 30_000, 20, 0.95, 2.0, 20, 5_000));
+
+        for (int i = 0; i < 20; i++) breaker.call("days-1", t -> "fast");
+        assertEquals(20, breaker.currentTimeoutMs("days-1"));
+        assertEquals(5_000, breaker.currentTimeoutMs("days-17+"));
+
+        AtomicLong given = new AtomicLong();
+        String result = breaker.call("days-17+", timeoutMs -> {
+            given.set(timeoutMs);
+            sleep(150);
+            if (150 >= timeoutMs) throw new IllegalStateException("Read timed out");
+            return "slow";
+        });
+        assertEquals("slow", result);
+        assertEquals(5_000, given.get());
+        assertEquals(0, breaker.stats().timeouts());
+    }
+
+    @Test
+    @DisplayName("A call that used up its timeout raises the next timeout of that bucket")
+    void timeoutRaisesBucketTimeout() {
+        CircuitBreaker breaker = new CircuitBreaker("test", new CircuitBreaker.Settings(
+                10, 4, 0.5, 30_000, 4, 1.0, 2.0, 20, 5_000));
+        for (int i = 0; i < 4; i++) breaker.call("days-8", t -> "fast");
+        assertEquals(20, breaker.currentTimeoutMs("days-8"));
+
+        assertThrows(IllegalStateException.class, () -> breaker.call("days-8", timeoutMs -> {
+            sleep(timeoutMs + 30);
+            throw new IllegalStateException("Read timed out");
+        }));
+        assertTrue(breaker.currentTimeoutMs("days-8") >= 100);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.dietcoach.project.common.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IoLimiterTest {
+
+    @Test
+    @DisplayName("Caps concurrent calls per stage")
+    void capsConcurrentCallsPerStage() throws Exception {
+        IoLimiter limiter = new IoLimiter(2, 1, 1, 5_000);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++) {
+                pool.execute(() -> {
+                    limiter.call(IoLimiter.Stage.ELEVENST, () -> {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        inFlight.decrementAndGet();
+                        return null;
+                    });
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(2, maxInFlight.get());
+        assertEquals(2, limiter.available(IoLimiter.Stage.ELEVENST));
+    }
+
+    @Test
+    @DisplayName("Fails fast when a permit cannot be acquired in time")
+    void failsWhenAcquireTimesOut() throws Exception {
+        IoLimiter limiter = new IoLimiter(1, 1, 1, 10);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> limiter.call(IoLimiter.Stage.GEMINI, () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        assertTrue(holding.await(1, TimeUnit.SECONDS));
+
+        assertThrows(IllegalStateException.class, () -> limiter.call(IoLimiter.Stage.GEMINI, () -> "x"));
+        assertEquals("ok", limiter.call(IoLimiter.Stage.GMS, () -> "ok"));
+
+        release.countDown();
+        holder.join();
+    }
+}
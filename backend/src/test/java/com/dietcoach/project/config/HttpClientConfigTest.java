@@ -0,0 +1,70 @@
+package com.dietcoach.project.config;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import com.dietcoach.project.dto.HttpPoolStatsResponse;
+import com.sun.net.httpserver.HttpServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpClientConfigTest {
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ping", exchange -> {
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Per-host limit applies to the route used by requests and connections are kept alive")
+    void routeLimitAndKeepAlive() throws Exception {
+        HttpClientConfig config = new HttpClientConfig();
+        PoolingHttpClientConnectionManager manager = config.outboundConnectionManager(
+                10, 4, 1000, 60_000, 3, 2, baseUrl + "/openapi/OpenApiService.tmall", "", 1000);
+        try (CloseableHttpClient client = config.outboundHttpClient(manager, config.outboundRequestConfig(1000, 30_000), 30_000)) {
+            RestTemplate restTemplate = config.restTemplate(client);
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals("{\"ok\":true}", restTemplate.getForObject(baseUrl + "/ping", String.class));
+            }
+
+            HttpRoute route = HttpClientConfig.routeOf(baseUrl);
+            assertEquals(1, manager.getRoutes().size());
+            assertEquals(route, manager.getRoutes().iterator().next());
+            assertEquals(3, manager.getMaxPerRoute(route));
+
+            HttpPoolStatsResponse stats = HttpPoolStatsResponse.from(manager);
+            assertEquals(0, stats.getLeased());
+            assertEquals(1, stats.getAvailable());   // 3번 호출에 커넥션 1개 재사용
+            assertEquals(3, stats.getRoutes().get(0).getMax());
+        } finally {
+            manager.close();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.dietcoach.project.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.dietcoach.project.security.JwtTokenProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * POST /api/meal-plans 부하 테스트 (H2 + stub Gemini 서버).
+ *
+ * 실행: mvn -B test -Pload-test [-Dload.users=20 -Dload.plans-per-user=2 -Dstub.fixed-ms=300 ...]
+ * 리포트: 요청 latency p50/p95/p99, 처리량, 요청당 DB statement 수(동기 구간 / 비동기 청크 포함), stub 호출 수,
+ *        /actuator/prometheus(management 포트)의 mealplan.* 지표 요약
+ */
+@Tag("load")
+@ActiveProfiles("loadtest")
+@AutoConfigureObservability(tracing = false)   // 테스트에서도 Prometheus registry 활성화
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MealPlanLoadTest {
+
+    private static final StubGeminiServer STUB = StubGeminiServer.start(StubGeminiServer.Settings.fromSystemProperties());
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("gms.openai.base-url", STUB::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @TestConfiguration
+    static class QueryCountConfig {
+        @Bean
+        QueryCountInterceptor queryCountInterceptor() {
+            return new QueryCountInterceptor();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private QueryCountInterceptor queryCounter;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    @DisplayName("Concurrent users create monthly plans against the stub AI server")
+    void createMonthlyPlans() throws Exception {
+        int users = Integer.getInteger("load.users", 20);
+        int plansPerUser = Integer.getInteger("load.plans-per-user", 2);
+        int warmup = Integer.getInteger("load.warmup", 2);
+        long jobsTimeoutMs = Long.getLong("load.jobs-timeout-ms", 120_000);
+
+        List<String> tokens = seedUsers(users);
+        for (int i = 0; i < warmup; i++) {
+            post(tokens.get(i % users));
+        }
+        awaitJobs(jobsTimeoutMs);
+        queryCounter.reset();
+        STUB.resetStats();
+
+        // 전원 동시에 출발
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        for (String token : tokens) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < plansPerUser; i++) {
+                    long t0 = System.nanoTime();
+                    int status = post(token);
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+                    if (status != 200) failures.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        long wallStart = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - wallStart);
+
+        int requests = users * plansPerUser;
+        long syncQueries = queryCounter.total();
+        Map<String, Long> syncByStatement = queryCounter.snapshot();
+        StubGeminiServer.Stats syncStub = STUB.stats();
+
+        long jobsMs = awaitJobs(jobsTimeoutMs);
+        long totalQueries = queryCounter.total();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("%n[LOAD] POST /api/meal-plans users=%d plansPerUser=%d requests=%d failures=%d stub=%s%n",
+                users, plansPerUser, requests, failures.get(), STUB.settings());
+        System.out.printf("[LOAD] latency ms p50=%d p95=%d p99=%d max=%d mean=%.0f | wall=%dms throughput=%.2f req/s%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), sorted[sorted.length - 1],
+                Arrays.stream(sorted).average().orElse(0), wallMs, requests * 1000.0 / wallMs);
+        System.out.printf("[LOAD] db statements sync=%d (%.1f/req) withAsyncChunks=%d (%.1f/req), async drain=%dms%n",
+                syncQueries, (double) syncQueries / requests, totalQueries, (double) totalQueries / requests, jobsMs);
+        System.out.printf("[LOAD] stub during requests=%s, total=%s%n", syncStub, STUB.stats());
+        syncByStatement.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> System.out.printf("[LOAD]   %-45s %6d (%.1f/req)%n",
+                        e.getKey(), e.getValue(), (double) e.getValue() / requests));
+
+        HttpResponse<String> scrape = http.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + managementPort + "/actuator/prometheus")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> anonymousTuning = http.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + managementPort + "/actuator/chunktuning")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> tuning = http.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + managementPort + "/actuator/chunktuning?days=23"))
+                .header("Authorization", "Bearer " + tokens.get(0)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        System.out.println("[LOAD] chunk tuning " + tuning.body());
+        HttpResponse<String> httpPool = http.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + managementPort + "/actuator/httppool"))
+                .header("Authorization", "Bearer " + tokens.get(0)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        System.out.println("[LOAD] http pool " + httpPool.body());
+        HttpResponse<String> publicScrape = http.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/actuator/prometheus")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        scrape.body().lines()
+                .filter(line -> line.startsWith("mealplan_") && !line.contains("_bucket"))
+                .forEach(line -> System.out.println("[LOAD]   " + line));
+
+        assertEquals(200, scrape.statusCode());
+        assertEquals(401, anonymousTuning.statusCode());
+        assertEquals(200, tuning.statusCode());
+        assertEquals(200, httpPool.statusCode());
+        assertFalse(publicScrape.body().contains("mealplan_"), "actuator must not be mapped on the application port");
+        assertTrue(scrape.body().contains("mealplan_create_seconds_count"));
+        assertEquals(requests, latencies.size());
+        assertEquals(0, failures.get());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM meal_plan_jobs WHERE status <> 'DONE'", Integer.class));
+    }
+
+    private List<String> seedUsers(int users) {
+        List<String> tokens = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            // 칼로리/목표를 섞어서 single-flight 로 전부 합쳐지지 않도록
+            int targetKcal = 1500 + (i % 10) * 100;
+            String goal = switch (i % 3) {
+                case 0 -> "LOSE_WEIGHT";
+                case 1 -> "MAINTAIN";
+                default -> "GAIN_WEIGHT";
+            };
+            String email = "load" + i + "@dietcoach.test";
+            jdbcTemplate.update("""
+                    INSERT INTO users (email, password, name, gender, birth_date, height, weight,
+                                       activity_level, goal_type, bmr, tdee, target_calories)
+                    VALUES (?, 'x', ?, 'MALE', DATE '1995-01-01', 175, 70, 'MODERATE', ?, 1650, 2550, ?)
+                    """, email, "load" + i, goal, targetKcal);
+            Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+            tokens.add(jwtTokenProvider.createAccessToken(userId));
+        }
+        return tokens;
+    }
+
+    private int post(String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/meal-plans"))
+                .timeout(Duration.ofMinutes(2))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                // 같은 유저의 같은 본문이라도 별개 요청으로 생성되도록 (본문 fingerprint 중복 제거 회피)
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString("{\"mealsPerDay\":3,\"preferences\":[\"한식\"]}"))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /** 2~4주차 청크 작업이 모두 끝날 때까지 대기, 걸린 시간(ms) */
+    private long awaitJobs(long timeoutMs) throws InterruptedException {
+        long t0 = System.currentTimeMillis();
+        while (System.currentTimeMillis() - t0 < timeoutMs) {
+            Integer open = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM meal_plan_jobs WHERE status IN ('PENDING', 'RUNNING')", Integer.class);
+            if (open == null || open == 0) break;
+            Thread.sleep(100);
+        }
+        return System.currentTimeMillis() - t0;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+}
@@ -0,0 +1,60 @@
+package com.dietcoach.project.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * mapper 호출(= SQL statement) 수를 statement id 별로 센다. 부하 테스트에서 요청당 DB 호출 수 리포트용.
+ * BATCH executor 의 update 도 addBatch 1건을 1회로 센다.
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class})
+})
+public class QueryCountInterceptor implements Interceptor {
+
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        counts.computeIfAbsent(shortId(ms.getId()), k -> new LongAdder()).increment();
+        total.increment();
+        return invocation.proceed();
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    /** statement id(Mapper.method) -> 호출 수 */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((id, count) -> result.put(id, count.sum()));
+        return result;
+    }
+
+    public void reset() {
+        counts.clear();
+        total.reset();
+    }
+
+    private static String shortId(String id) {
+        int method = id.lastIndexOf('.');
+        int type = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return id.substring(type + 1);
+    }
+}
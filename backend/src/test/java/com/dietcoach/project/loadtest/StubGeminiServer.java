@@ -0,0 +1,240 @@
+package com.dietcoach.project.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Gemini generateContent 계약을 흉내 내는 로컬 stub 서버 (부하 테스트 전용).
+ *
+ * - 요청 프롬프트(COMPACT / FULL / 한 끼)에서 일수, 시작일, 칼로리를 읽어 그만큼의 skeleton 을 만들어 준다.
+ * - latency = fixedMs + perDayMs * days + 지수분포 jitter(평균 jitterMs), slowRate 확률로 slowMs 추가 (꼬리 지연)
+ * - errorRate 확률로 503, rateLimitRate 확률로 429 (Gemini 에러 body 형식)
+ *
+ * 설정은 -Dstub.* 시스템 프로퍼티로 바꿀 수 있다. (Settings.fromSystemProperties 참고)
+ */
+public class StubGeminiServer implements AutoCloseable {
+
+    public record Settings(
+            long fixedMs,
+            long perDayMs,
+            long jitterMs,
+            double slowRate,
+            long slowMs,
+            double errorRate,
+            double rateLimitRate
+    ) {
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Long.getLong("stub.fixed-ms", 300),
+                    Long.getLong("stub.per-day-ms", 80),
+                    Long.getLong("stub.jitter-ms", 100),
+                    Double.parseDouble(System.getProperty("stub.slow-rate", "0.02")),
+                    Long.getLong("stub.slow-ms", 2000),
+                    Double.parseDouble(System.getProperty("stub.error-rate", "0")),
+                    Double.parseDouble(System.getProperty("stub.rate-limit-rate", "0")));
+        }
+    }
+
+    public record Stats(long requests, long errors, long rateLimited, long days) {
+    }
+
+    private static final Pattern DAYS = Pattern.compile("(?:days=|Create a )(\\d+)");
+    private static final Pattern START = Pattern.compile("(?:startDate|date)=(\\d{4}-\\d{2}-\\d{2})");
+    private static final Pattern KCAL = Pattern.compile("(?:targetKcal=|Daily Goal: )(\\d+)");
+    private static final Pattern MEALS = Pattern.compile("(?:mealsPerDay=|Meals Per Day: )(\\d)");
+    private static final Pattern MEAL_TIME = Pattern.compile("mealTime=([A-Z]+)");
+
+    private static final String[] PROTEINS = {"닭가슴살", "연어", "두부", "소고기", "계란", "고등어", "돼지고기 안심"};
+    private static final String[] CARBS = {"현미밥", "고구마", "귀리", "통밀빵", "잡곡밥", "감자"};
+    private static final String[] VEGETABLES = {"브로콜리", "시금치", "양배추", "토마토", "오이", "파프리카"};
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong days = new AtomicLong();
+
+    private StubGeminiServer(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public static StubGeminiServer start(Settings settings) {
+        try {
+            StubGeminiServer stub = new StubGeminiServer(settings);
+            stub.server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException("stub server start failed", e);
+        }
+    }
+
+    /** gms.openai.base-url 로 주입할 주소 (경로는 클라이언트가 붙임) */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    public Stats stats() {
+        return new Stats(requests.get(), errors.get(), rateLimited.get(), days.get());
+    }
+
+    public void resetStats() {
+        requests.set(0);
+        errors.set(0);
+        rateLimited.set(0);
+        days.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            if (!exchange.getRequestURI().getPath().endsWith(":generateContent")) {
+                send(exchange, 404, error(404, "NOT_FOUND", "unknown path"));
+                return;
+            }
+            String prompt = promptText(exchange.getRequestBody());
+            String mealTime = find(MEAL_TIME, prompt, null);
+            int dayCount = mealTime != null ? 1 : Integer.parseInt(find(DAYS, prompt, "1"));
+
+            double r = ThreadLocalRandom.current().nextDouble();
+            if (r < settings.errorRate()) {
+                errors.incrementAndGet();
+                sleep(settings.fixedMs());
+                send(exchange, 503, error(503, "UNAVAILABLE", "stub overloaded"));
+                return;
+            }
+            if (r < settings.errorRate() + settings.rateLimitRate()) {
+                rateLimited.incrementAndGet();
+                send(exchange, 429, error(429, "RESOURCE_EXHAUSTED", "stub quota"));
+                return;
+            }
+
+            sleep(latencyMs(dayCount));
+            int kcal = Integer.parseInt(find(KCAL, prompt, "2000"));
+            Object text = mealTime != null
+                    ? meal(mealTime, kcal, ThreadLocalRandom.current().nextInt(100))
+                    : skeleton(LocalDate.parse(find(START, prompt, LocalDate.now().toString())), dayCount, kcal,
+                            Integer.parseInt(find(MEALS, prompt, "3")));
+            days.addAndGet(dayCount);
+            send(exchange, 200, generateContentResponse(objectMapper.writeValueAsString(text)));
+        }
+    }
+
+    private long latencyMs(int dayCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = settings.fixedMs() + settings.perDayMs() * dayCount;
+        if (settings.jitterMs() > 0) latency += (long) (-settings.jitterMs() * Math.log(1 - random.nextDouble()));
+        if (random.nextDouble() < settings.slowRate()) latency += settings.slowMs();
+        return latency;
+    }
+
+    /** systemInstruction 은 고정 규칙이라 무시하고 마지막 user 메시지의 text 만 사용 */
+    private String promptText(InputStream body) throws IOException {
+        JsonNode contents = objectMapper.readTree(body).path("contents");
+        JsonNode parts = contents.path(contents.size() - 1).path("parts");
+        return parts.path(0).path("text").asText("");
+    }
+
+    private Map<String, Object> skeleton(LocalDate start, int dayCount, int kcal, int mealsPerDay) {
+        List<String> mealTimes = switch (mealsPerDay) {
+            case 1 -> List.of("LUNCH");
+            case 2 -> List.of("BREAKFAST", "DINNER");
+            default -> List.of("BREAKFAST", "LUNCH", "DINNER");
+        };
+        List<Map<String, Object>> dayList = new ArrayList<>(dayCount);
+        for (int d = 0; d < dayCount; d++) {
+            List<Map<String, Object>> meals = new ArrayList<>();
+            for (int m = 0; m < mealTimes.size(); m++) {
+                meals.add(meal(mealTimes.get(m), kcal / mealTimes.size(), d * mealTimes.size() + m));
+            }
+            dayList.add(Map.of(
+                    "dayIndex", d + 1,
+                    "planDate", start.plusDays(d).toString(),
+                    "validation", Map.of("targetKcal", kcal, "actualTotalKcal", kcal),
+                    "meals", meals));
+        }
+        return Map.of("days", dayList);
+    }
+
+    // 탄수 45% / 단백질 40% / 채소 15%, grams 는 조리 기준 100g 당 kcal 로 역산
+    private Map<String, Object> meal(String mealTime, int kcal, int seed) {
+        String protein = PROTEINS[seed % PROTEINS.length];
+        String carb = CARBS[seed % CARBS.length];
+        String vegetable = VEGETABLES[seed % VEGETABLES.length];
+        return Map.of(
+                "mealTime", mealTime,
+                "menuName", protein + " " + carb + " 정식 " + (seed + 1),
+                "ingredients", List.of(
+                        ingredient(carb, kcal * 45 / 100, 130),
+                        ingredient(protein, kcal * 40 / 100, 150),
+                        ingredient(vegetable, kcal * 15 / 100, 30)));
+    }
+
+    private Map<String, Object> ingredient(String name, int kcal, int kcalPer100g) {
+        return Map.of("name", name, "grams", Math.max(10, kcal * 100 / kcalPer100g), "kcal", kcal);
+    }
+
+    private byte[] generateContentResponse(String text) throws IOException {
+        return objectMapper.writeValueAsBytes(Map.of(
+                "candidates", List.of(Map.of(
+                        "content", Map.of("role", "model", "parts", List.of(Map.of("text", text))),
+                        "finishReason", "STOP")),
+                "usageMetadata", Map.of("promptTokenCount", 300, "candidatesTokenCount", text.length() / 3),
+                "modelVersion", "stub"));
+    }
+
+    private byte[] error(int code, String status, String message) throws IOException {
+        return objectMapper.writeValueAsBytes(Map.of("error", Map.of("code", code, "message", message, "status", status)));
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static String find(Pattern pattern, String text, String defaultValue) {
+        Matcher m = pattern.matcher(text);
+        return m.find() ? m.group(1) : defaultValue;
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.dietcoach.project.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dietcoach.project.client.ai.DietAiClient;
+import com.dietcoach.project.common.error.BusinessException;
+import com.dietcoach.project.common.metrics.MealPlanMetrics;
+import com.dietcoach.project.domain.meal.MealPlan;
+import com.dietcoach.project.domain.meal.MealPlanDay;
+import com.dietcoach.project.dto.meal.MealPlanIngredientResponse;
+import com.dietcoach.project.dto.meal.ShoppingListResponse;
+import com.dietcoach.project.mapper.UserMapper;
+import com.dietcoach.project.mapper.meal.MealIntakeMapper;
+import com.dietcoach.project.mapper.meal.MealPlanMapper;
+import com.dietcoach.project.service.meal.ChunkSizeTuner;
+import com.dietcoach.project.service.meal.MealPlanBatchWriter;
+import com.dietcoach.project.service.shopping.ProductSearchCacheStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MealPlanServiceImplTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private MealPlanMapper mealPlanMapper;
+
+    @Mock
+    private MealIntakeMapper mealIntakeMapper;
+
+    @Mock
+    private MealPlanBatchWriter batchWriter;
+
+    @Mock
+    private DietAiClient dietAiClient;
+
+    @Mock
+    private ChunkSizeTuner chunkSizeTuner;
+
+    @Mock
+    private ShoppingService shoppingService;
+
+    @Mock
+    private ShoppingCategoryService categoryService;
+
+    @Mock
+    private ProductSearchCacheStore productSearchCache;
+
+    @InjectMocks
+    private MealPlanServiceImpl mealPlanService;
+
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    private final TransactionStatus txStatus = mock(TransactionStatus.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mealPlanService, "transactionTemplate", new TransactionTemplate(txManager));
+        ReflectionTestUtils.setField(mealPlanService, "metrics", new MealPlanMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(mealPlanService, "ioExecutor", (Executor) Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Rejects a range whose start is after its end before calling AI or touching data")
+    void rejectsInvertedRange() {
+        when(mealPlanMapper.findMealPlanById(1L)).thenReturn(plan(30));
+
+        assertThrows(BusinessException.class,
+                () -> mealPlanService.regenerateDays(1L, START.plusDays(5), START.plusDays(2)));
+
+        verifyNoInteractions(dietAiClient, mealIntakeMapper, batchWriter, txManager);
+    }
+
+    @Test
+    @DisplayName("Rejects a range outside the plan period")
+    void rejectsRangeOutsidePlan() {
+        when(mealPlanMapper.findMealPlanById(1L)).thenReturn(plan(30));
+
+        assertThrows(BusinessException.class,
+                () -> mealPlanService.regenerateDays(1L, START.minusDays(1), START.plusDays(2)));
+        assertThrows(BusinessException.class,
+                () -> mealPlanService.regenerateDays(1L, START, START.plusDays(30)));
+
+        verifyNoInteractions(dietAiClient, mealIntakeMapper, batchWriter, txManager);
+    }
+
+    @Test
+    @DisplayName("Without from/to the whole plan is regenerated in tuner-sized skeleton chunks, not one 30-day call")
+    @SuppressWarnings("unchecked")
+    void wholePlanIsChunked() {
+        when(mealPlanMapper.findMealPlanById(1L)).thenReturn(plan(30));
+        when(mealPlanMapper.findMealPlanDaysByPlanId(1L)).thenReturn(days(30));
+        when(chunkSizeTuner.plan(30)).thenReturn(new ChunkSizeTuner.ChunkPlan(List.of(7, 7, 7, 7, 2), 4, 0, false));
+        when(txManager.getTransaction(any())).thenReturn(txStatus);
+
+        mealPlanService.regenerateDays(1L, null, null);
+
+        ArgumentCaptor<Map<String, Object>> payloads = ArgumentCaptor.forClass(Map.class);
+        verify(dietAiClient, times(5)).generateMonthlySkeleton(payloads.capture());
+        List<String> chunks = payloads.getAllValues().stream()
+                .map(p -> p.get("startDate") + "+" + p.get("totalDays"))
+                .toList();
+        assertEquals(List.of("2025-01-01+7", "2025-01-08+7", "2025-01-15+7", "2025-01-22+7", "2025-01-29+2"), chunks);
+
+        ArgumentCaptor<List<MealPlanBatchWriter.DayItems>> saved = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter).saveDayItems(saved.capture());
+        assertEquals(30, saved.getValue().size());
+        assertTrue(saved.getValue().stream().noneMatch(d -> d.items().isEmpty()), "days without a skeleton use the template");
+        verify(txManager).commit(txStatus);
+    }
+
+    @Test
+    @DisplayName("Intake deletion and item replacement share one transaction that rolls back when saving fails")
+    void replaceIsTransactional() {
+        when(mealPlanMapper.findMealPlanById(1L)).thenReturn(plan(30));
+        when(mealPlanMapper.findMealPlanDaysByPlanId(1L)).thenReturn(days(30));
+        when(chunkSizeTuner.plan(2)).thenReturn(new ChunkSizeTuner.ChunkPlan(List.of(2), 1, 0, false));
+        when(txManager.getTransaction(any())).thenReturn(txStatus);
+        doThrow(new IllegalStateException("insert failed")).when(batchWriter).saveDayItems(any());
+
+        assertThrows(IllegalStateException.class,
+                () -> mealPlanService.regenerateDays(1L, START.plusDays(2), START.plusDays(3)));
+
+        InOrder order = inOrder(dietAiClient, txManager, mealIntakeMapper, batchWriter);
+        order.verify(dietAiClient).generateMonthlySkeleton(any());
+        order.verify(txManager).getTransaction(any());
+        order.verify(mealIntakeMapper).deleteByDayIds(7L, List.of(3L, 4L));
+        order.verify(batchWriter).saveDayItems(any());
+        order.verify(txManager).rollback(txStatus);
+        verify(txManager, never()).commit(any());
+        verify(mealPlanMapper, never()).findMealPlanDaysWithItemsByPlanId(anyLong());
+    }
+
+    @Test
+    @DisplayName("The same product key twice in one shopping list is searched and reranked once")
+    @SuppressWarnings("unchecked")
+    void duplicateKeySearchedOnce() {
+        when(mealPlanMapper.findMealPlanById(1L)).thenReturn(plan(30));
+        when(mealPlanMapper.findIngredientsForPlan(1L)).thenReturn(List.of(
+                ingredient("닭가슴살"), ingredient(" 닭가슴살 ")));
+        stubSearch();
+
+        ShoppingListResponse response = mealPlanService.getShoppingList(1L, "MONTH", null);
+
+        verify(shoppingService, times(1)).searchCandidates(eq("닭가슴살"), anyInt(), eq(600L));
+        ArgumentCaptor<List<ShoppingService.SearchCandidates>> selected = ArgumentCaptor.forClass(List.class);
+        verify(shoppingService).selectProducts(selected.capture());
+        assertEquals(1, selected.getValue().size());
+        assertEquals(2, response.getItems().size());
+        assertTrue(response.getItems().stream().allMatch(i -> "닭가슴살 1kg".equals(i.getProduct().getProductName())));
+    }
+
+    @Test
+    @DisplayName("A concurrent request for a key that is already loading waits for that load instead of searching again")
+    void concurrentMissWaitsForInFlightLoad() throws Exception {
+        when(mealPlanMapper.findMealPlanById(1L)).thenReturn(plan(30));
+        when(mealPlanMapper.findIngredientsForPlan(1L)).thenReturn(List.of(ingredient("닭가슴살")));
+        CountDownLatch searching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        stubSearch(searching, release);
+
+        CompletableFuture<ShoppingListResponse> first =
+                CompletableFuture.supplyAsync(() -> mealPlanService.getShoppingList(1L, "MONTH", null));
+        assertTrue(searching.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ShoppingListResponse> second =
+                CompletableFuture.supplyAsync(() -> mealPlanService.getShoppingList(1L, "MONTH", null));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("닭가슴살 1kg", first.get(5, TimeUnit.SECONDS).getItems().get(0).getProduct().getProductName());
+        assertEquals("닭가슴살 1kg", second.get(5, TimeUnit.SECONDS).getItems().get(0).getProduct().getProductName());
+        verify(shoppingService, times(1)).searchCandidates(any(), anyInt(), any());
+        verify(shoppingService, times(1)).selectProducts(anyList());
+    }
+
+    private void stubSearch() {
+        stubSearch(new CountDownLatch(1), new CountDownLatch(0));
+    }
+
+    private void stubSearch(CountDownLatch searching, CountDownLatch release) {
+        when(shoppingService.searchCandidates(any(), anyInt(), any())).thenAnswer(inv -> {
+            searching.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return new ShoppingService.SearchCandidates(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2),
+                    "REAL", List.of());
+        });
+        when(shoppingService.selectProducts(anyList())).thenAnswer(inv -> {
+            List<ShoppingService.SearchCandidates> candidates = inv.getArgument(0);
+            return candidates.stream()
+                    .map(c -> new ShoppingService.SearchOneResult(ShoppingListResponse.ProductCard.builder()
+                            .productName(c.ingredientName() + " 1kg")
+                            .price(9_000L)
+                            .packageGram(1_000)
+                            .build(), "REAL"))
+                    .toList();
+        });
+    }
+
+    private MealPlanIngredientResponse ingredient(String name) {
+        return MealPlanIngredientResponse.builder()
+                .ingredientName(name)
+                .totalGram(600)
+                .totalCalories(990)
+                .daysCount(3)
+                .build();
+    }
+
+    private MealPlan plan(int totalDays) {
+        return MealPlan.builder()
+                .id(1L)
+                .userId(7L)
+                .startDate(START)
+                .endDate(START.plusDays(totalDays - 1))
+                .totalDays(totalDays)
+                .targetCaloriesPerDay(1800)
+                .mealsPerDay(3)
+                .build();
+    }
+
+    private List<MealPlanDay> days(int count) {
+        List<MealPlanDay> days = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            days.add(MealPlanDay.builder()
+                    .id((long) i + 1)
+                    .mealPlanId(1L)
+                    .planDate(START.plusDays(i))
+                    .dayIndex(i + 1)
+                    .totalCalories(1800)
+                    .isStamped(false)
+                    .build());
+        }
+        return days;
+    }
+}
@@ -0,0 +1,61 @@
+package com.dietcoach.project.service.meal;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.dietcoach.project.client.ai.AiLatencyModel;
+import com.dietcoach.project.common.concurrent.IoLimiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkSizeTunerTest {
+
+    private final AiLatencyModel model = new AiLatencyModel(100, 5);
+    private final ChunkSizeTuner tuner = new ChunkSizeTuner(model, new IoLimiter(8, 4, 4, 1_000), 7, 3, 10, 4);
+
+    @Test
+    @DisplayName("Falls back to 7-day chunks until the latency model has enough samples")
+    void defaultChunksWithoutModel() {
+        ChunkSizeTuner.ChunkPlan plan = tuner.plan(23);
+
+        assertFalse(plan.tuned());
+        assertEquals(List.of(7, 7, 7, 2), plan.chunkDays());
+        assertEquals(4, plan.parallelism());
+    }
+
+    @Test
+    @DisplayName("Fits latency = fixed + perDay * days by least squares")
+    void fitsLinearModel() {
+        for (int days : new int[] {2, 7, 7, 5, 10, 3}) {
+            model.record(days, 4_000 + 3_000L * days, 1_500L * days);
+        }
+
+        AiLatencyModel.Fit fit = model.fit();
+
+        assertTrue(fit.fitted());
+        assertEquals(4_000, fit.fixedMs(), 1e-6);
+        assertEquals(3_000, fit.perDayMs(), 1e-6);
+        assertEquals(1.0, fit.r2(), 1e-9);
+        assertEquals(1_500, fit.bytesPerDay(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Chooses the split with the lowest predicted completion time for the available parallelism")
+    void choosesSplitByParallelism() {
+        AiLatencyModel.Fit fit = new AiLatencyModel.Fit(true, 20, 4_000, 3_000, 0.9, 1_500, 2, 10);
+
+        // 4개 병렬: 23일을 4개로 나누면 한 wave (6일 = 22s) -> 7일 4개(25s)보다 빠름
+        ChunkSizeTuner.ChunkPlan wide = tuner.plan(23, fit, 4);
+        assertEquals(List.of(6, 6, 6, 5), wide.chunkDays());
+        assertEquals(22_000, wide.predictedMs(), 1e-6);
+
+        // 병렬 1개: 호출 수가 적을수록 고정 비용이 줄어듦 -> max-chunk-days 안에서 가장 적은 3개로 분할
+        ChunkSizeTuner.ChunkPlan serial = tuner.plan(23, fit, 1);
+        assertEquals(List.of(8, 8, 7), serial.chunkDays());
+        assertEquals(1, serial.parallelism());
+    }
+}
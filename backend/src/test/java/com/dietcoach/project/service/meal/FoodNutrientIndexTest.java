@@ -0,0 +1,52 @@
+package com.dietcoach.project.service.meal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FoodNutrientIndexTest {
+
+    private static final List<String> GOLDEN_NAMES = List.of(
+            "현미밥", "잡곡밥", "닭가슴살", "닭가슴살 샐러드", "참치 (기름 뺀)", "참치", "아몬드브리즈 언스위트",
+            "저지방 우유", "우유", "두유", "통밀빵", "베이글", "떡볶이 떡", "잔치국수", "땅콩버터", "아몬드",
+            "Almond Milk", "almond", "PEANUT butter", "올리브오일", "참기름", "마요네즈", "간장", "고추장",
+            "소고기 우둔살", "돼지 안심", "삼겹살", "연어", "Salmon Steak", "고등어구이", "고구마", "감자",
+            "옥수수", "Brown Rice", "김치", "브로콜리", "버섯", "샐러드 채소", "방울토마토", "바나나", "그릭요거트",
+            "계란", "달걀 흰자", "새우", "오징어", "명태", "지방제거 돼지목살", "양념 갈비", "케찹", "두부",
+            "", "  ", "UNKNOWN FOOD");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FoodNutrientIndex index = new FoodNutrientIndex(objectMapper,
+            new ClassPathResource("mealplan/food-nutrients.json"));
+
+    @Test
+    @DisplayName("Matches the legacy keyword chain on the golden name set")
+    void matchesLegacyChainOnGoldenSet() {
+        for (String name : GOLDEN_NAMES) {
+            assertEquals(LegacyNutrientChain.lookup(name), index.lookup(name), name);
+        }
+    }
+
+    @Test
+    @DisplayName("Matches the legacy keyword chain for every keyword pair combination")
+    void matchesLegacyChainOnKeywordPairs() throws Exception {
+        List<String> keywords = new ArrayList<>();
+        JsonNode root = objectMapper.readTree(new ClassPathResource("mealplan/food-nutrients.json").getInputStream());
+        root.path("rules").forEach(rule -> rule.path("keywords").forEach(k -> keywords.add(k.asText())));
+
+        for (String a : keywords) {
+            for (String b : keywords) {
+                String name = a + " " + b;
+                assertEquals(LegacyNutrientChain.lookup(name), index.lookup(name), name);
+            }
+        }
+    }
+}
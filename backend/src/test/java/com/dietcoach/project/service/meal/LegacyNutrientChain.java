@@ -0,0 +1,69 @@
+package com.dietcoach.project.service.meal;
+
+import java.util.Locale;
+
+import com.dietcoach.project.service.meal.FoodNutrientIndex.NutrientProfile;
+
+/**
+ * FoodNutrientIndex 도입 전 MealPlanServiceImpl.calculateAndSetNutrients 의 if/else 체인 사본.
+ * golden 테스트와 벤치마크 기준값으로만 사용한다.
+ */
+public final class LegacyNutrientChain {
+
+    private LegacyNutrientChain() {
+    }
+
+    public static NutrientProfile lookup(String foodName) {
+        String n = normalizeName(foodName).replace(" ", "");
+
+        double kpg = 1.2;
+        double cRatio = 0.4; double pRatio = 0.3; double fRatio = 0.3;
+        String tier = "DEFAULT";
+
+        boolean isFatRemoved = n.contains("기름뺀") || n.contains("기름제거") || n.contains("지방제거") || n.contains("저지방") || n.contains("언스위트");
+
+        if (containsAny(n, "아몬드브리즈", "아몬드유", "almondbreeze", "almondmilk", "우유", "두유", "음료")) {
+            kpg = 0.3; cRatio = 0.5; pRatio = 0.2; fRatio = 0.3; tier = "BEVERAGE";
+        }
+        else if (isFatRemoved || containsAny(n, "닭가슴살", "흰살생선", "새우", "오징어", "참치", "계란", "달걀", "명태", "동태")) {
+            kpg = 1.2; cRatio = 0.05; pRatio = 0.85; fRatio = 0.10; tier = "LEAN_PROTEIN";
+        }
+        else if (containsAny(n, "oil", "butter", "기름", "오일", "버터", "마요네즈", "참기름", "들기름", "식용유")) {
+            kpg = 8.5; cRatio = 0.0; pRatio = 0.0; fRatio = 1.0; tier = "OIL";
+        }
+        else if (containsAny(n, "면", "국수", "파스타", "라면", "칼국수", "우동", "잔치국수", "빵", "베이글", "떡")) {
+            kpg = 1.5; cRatio = 0.80; pRatio = 0.12; fRatio = 0.08; tier = "NOODLE_BREAD";
+        }
+        else if (containsAny(n, "nuts", "almond", "peanut", "walnut", "견과", "아몬드", "땅콩", "호두")) {
+            kpg = 6.0; cRatio = 0.15; pRatio = 0.15; fRatio = 0.70; tier = "NUTS";
+        }
+        else if (containsAny(n, "pork", "belly", "beef", "mackerel", "salmon", "돼지", "삼겹살", "소고기", "쇠고기", "고등어", "연어", "갈비")) {
+            kpg = 2.5; cRatio = 0.05; pRatio = 0.40; fRatio = 0.55; tier = "FATTY_PROTEIN";
+        }
+        else if (containsAny(n, "밥", "현미", "고구마", "감자", "옥수수", "rice", "potato")) {
+            kpg = 1.4; cRatio = 0.88; pRatio = 0.08; fRatio = 0.04; tier = "GRAIN";
+        }
+        else if (containsAny(n, "sauce", "장", "소스", "양념", "케찹", "마요")) {
+            kpg = 1.6; cRatio = 0.6; pRatio = 0.2; fRatio = 0.2; tier = "SAUCE";
+        }
+        else if (containsAny(n, "샐러드", "김치", "배추", "숙주", "나물", "채소", "상추", "깻잎", "오이", "당근", "버섯", "브로콜리")) {
+            kpg = 0.35; cRatio = 0.70; pRatio = 0.20; fRatio = 0.10; tier = "VEGETABLE";
+        }
+        return new NutrientProfile(tier, kpg, cRatio, pRatio, fRatio);
+    }
+
+    private static String normalizeName(String ingredientName) {
+        if (ingredientName == null) return "";
+        return ingredientName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean containsAny(String value, String... tokens) {
+        if (value == null) return false;
+        String v = value.toLowerCase(Locale.ROOT);
+        for (String token : tokens) {
+            if (token == null) continue;
+            if (v.contains(token.toLowerCase(Locale.ROOT))) return true;
+        }
+        return false;
+    }
+}
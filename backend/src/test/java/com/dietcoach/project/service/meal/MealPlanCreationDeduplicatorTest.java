@@ -0,0 +1,131 @@
+package com.dietcoach.project.service.meal;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.dietcoach.project.common.error.BusinessException;
+import com.dietcoach.project.dto.meal.MealPlanCreateRequest;
+import com.dietcoach.project.dto.meal.MealPlanOverviewResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MealPlanCreationDeduplicatorTest {
+
+    private final AtomicLong ids = new AtomicLong(100);
+    private final AtomicInteger creates = new AtomicInteger();
+
+    private final MealPlanCreateRequest request = MealPlanCreateRequest.builder()
+            .startDate(LocalDate.of(2025, 12, 1))
+            .mealsPerDay(3)
+            .preferences(List.of("한식"))
+            .build();
+
+    private Supplier<MealPlanOverviewResponse> create() {
+        return () -> {
+            creates.incrementAndGet();
+            return MealPlanOverviewResponse.builder().mealPlanId(ids.incrementAndGet()).build();
+        };
+    }
+
+    @Test
+    @DisplayName("Concurrent requests with the same key wait for the in-flight plan instead of creating another")
+    void joinsInFlightCreation() throws Exception {
+        MealPlanCreationDeduplicator dedup = new MealPlanCreationDeduplicator(true, 100, 600, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<MealPlanCreationDeduplicator.Result> leader = pool.submit(() ->
+                    dedup.execute(1L, "abc", "create", request, () -> {
+                        started.countDown();
+                        await(release);
+                        return create().get();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<MealPlanCreationDeduplicator.Result> follower = pool.submit(() ->
+                    dedup.execute(1L, "abc", "create", request, create()));
+
+            Thread.sleep(100);
+            assertFalse(follower.isDone());
+            release.countDown();
+
+            MealPlanCreationDeduplicator.Result first = leader.get(5, TimeUnit.SECONDS);
+            MealPlanCreationDeduplicator.Result second = follower.get(5, TimeUnit.SECONDS);
+            assertFalse(first.replayed());
+            assertTrue(second.replayed());
+            assertEquals(first.planId(), second.planId());
+            assertEquals(1, creates.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Completed keys replay the same plan; other users and reused keys with a new body are separate")
+    void replaysCompletedKey() {
+        MealPlanCreationDeduplicator dedup = new MealPlanCreationDeduplicator(true, 100, 600, 10);
+
+        Long planId = dedup.execute(1L, "abc", "create", request, create()).planId();
+        MealPlanCreationDeduplicator.Result retry = dedup.execute(1L, "abc", "create", request, create());
+        MealPlanCreationDeduplicator.Result otherUser = dedup.execute(2L, "abc", "create", request, create());
+
+        assertTrue(retry.replayed());
+        assertEquals(planId, retry.planId());
+        assertFalse(otherUser.replayed());
+        assertEquals(2, creates.get());
+
+        MealPlanCreateRequest changed = MealPlanCreateRequest.builder().startDate(request.getStartDate()).mealsPerDay(2).build();
+        assertThrows(BusinessException.class, () -> dedup.execute(1L, "abc", "create", changed, create()));
+    }
+
+    @Test
+    @DisplayName("A failed creation frees the key so the retry generates again")
+    void failureFreesKey() {
+        MealPlanCreationDeduplicator dedup = new MealPlanCreationDeduplicator(true, 100, 600, 10);
+
+        assertThrows(IllegalStateException.class, () -> dedup.execute(1L, null, "create", request, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        MealPlanCreationDeduplicator.Result retry = dedup.execute(1L, null, "create", request, create());
+
+        assertFalse(retry.replayed());
+        assertEquals(1, creates.get());
+    }
+
+    @Test
+    @DisplayName("Storage is bounded by max-entries (LRU)")
+    void boundedStorage() {
+        MealPlanCreationDeduplicator dedup = new MealPlanCreationDeduplicator(true, 3, 600, 10);
+
+        for (int i = 0; i < 10; i++) {
+            dedup.execute(1L, "key-" + i, "create", request, create());
+        }
+
+        assertEquals(3, dedup.size());
+        // 밀려난 key 는 새로 생성
+        assertFalse(dedup.execute(1L, "key-0", "create", request, create()).replayed());
+        assertTrue(dedup.execute(1L, "key-9", "create", request, create()).replayed());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
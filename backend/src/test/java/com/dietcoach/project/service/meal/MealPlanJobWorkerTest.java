@@ -0,0 +1,152 @@
+package com.dietcoach.project.service.meal;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dietcoach.project.common.metrics.MealPlanMetrics;
+import com.dietcoach.project.domain.meal.MealPlanJob;
+import com.dietcoach.project.domain.meal.MealPlanJobStatus;
+import com.dietcoach.project.mapper.meal.MealPlanJobMapper;
+import com.dietcoach.project.service.MealPlanService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MealPlanJobWorkerTest {
+
+    private final MealPlanJobMapper jobMapper = mock(MealPlanJobMapper.class);
+    private final MealPlanService mealPlanService = mock(MealPlanService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    // 제출한 작업을 호출 스레드에서 바로 실행 (여유 용량 계산은 실제 풀 기준)
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+        @Override
+        public void execute(Runnable task) {
+            task.run();
+        }
+    };
+
+    private MealPlanJobWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(2);
+        executor.initialize();
+
+        worker = new MealPlanJobWorker(jobMapper, mealPlanService, executor, eventPublisher,
+                new MealPlanMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "backoffBaseSeconds", 10L);
+        ReflectionTestUtils.setField(worker, "backoffMaxSeconds", 600L);
+        ReflectionTestUtils.setField(worker, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(worker, "configuredWorkerId", "worker-a");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Runs only the jobs this worker managed to claim and publishes progress after marking them done")
+    void runsClaimedJobs() {
+        MealPlanJob mine = job(1L, 1);
+        MealPlanJob taken = job(2L, 1);
+        when(jobMapper.findClaimable(anyInt())).thenReturn(List.of(mine, taken), List.of());
+        when(jobMapper.claim(1L, 10L, "worker-a")).thenReturn(1);
+        when(jobMapper.claim(2L, 10L, "worker-a")).thenReturn(0);
+        when(jobMapper.findById(1L)).thenReturn(mine);
+
+        worker.dispatchPending();
+
+        verify(mealPlanService).generatePlanChunk(10L, 7, 7, false);
+        InOrder order = inOrder(jobMapper, eventPublisher);
+        order.verify(jobMapper).markDone(1L);
+        order.verify(eventPublisher).publishEvent(any(MealPlanProgressEvent.class));
+        verify(jobMapper, never()).findById(2L);
+    }
+
+    @Test
+    @DisplayName("AI failures before the last attempt are retried with exponential backoff instead of falling back")
+    void retriesWithBackoff() {
+        MealPlanJob job = job(1L, 2);
+        claimOnly(job);
+        doThrow(new RuntimeException("AI_CALL_FAILED"))
+                .when(mealPlanService).generatePlanChunk(10L, 7, 7, false);
+
+        worker.dispatchPending();
+
+        verify(jobMapper).markRetry(eq(1L), eq(20L), startsWith("RuntimeException: AI_CALL_FAILED"));
+        verify(jobMapper, never()).markDone(anyLong());
+        verify(jobMapper, never()).markFailed(anyLong(), anyString());
+    }
+
+    @Test
+    @DisplayName("The last attempt allows the library/template fallback and a failure there marks the job FAILED")
+    void lastAttemptFallsBackThenFails() {
+        MealPlanJob job = job(1L, 3);
+        claimOnly(job);
+        doThrow(new IllegalStateException("db down"))
+                .when(mealPlanService).generatePlanChunk(10L, 7, 7, true);
+
+        worker.dispatchPending();
+
+        verify(jobMapper).markFailed(eq(1L), startsWith("IllegalStateException: db down"));
+        verify(jobMapper, never()).markRetry(anyLong(), anyLong(), anyString());
+        verify(eventPublisher).publishEvent(any(MealPlanProgressEvent.class));
+    }
+
+    @Test
+    @DisplayName("Polling releases jobs whose lease expired before dispatching again")
+    void pollReleasesStaleJobs() {
+        when(jobMapper.releaseStale(300L)).thenReturn(2);
+        when(jobMapper.findClaimable(anyInt())).thenReturn(List.of());
+
+        worker.poll();
+
+        verify(jobMapper).releaseStale(300L);
+        verify(jobMapper).findClaimable(4);
+        verify(mealPlanService, never()).generatePlanChunk(any(), anyInt(), anyInt(), anyBoolean());
+    }
+
+    private void claimOnly(MealPlanJob job) {
+        when(jobMapper.findClaimable(anyInt())).thenReturn(List.of(job), List.of());
+        when(jobMapper.claim(job.getId(), job.getMealPlanId(), "worker-a")).thenReturn(1);
+        when(jobMapper.findById(job.getId())).thenReturn(job);
+    }
+
+    private MealPlanJob job(Long id, int attempts) {
+        return MealPlanJob.builder()
+                .id(id)
+                .mealPlanId(10L)
+                .chunkOffset(7)
+                .chunkDays(7)
+                .maxParallel(2)
+                .status(MealPlanJobStatus.RUNNING)
+                .attempts(attempts)
+                .build();
+    }
+}
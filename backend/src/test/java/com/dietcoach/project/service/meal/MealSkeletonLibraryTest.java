@@ -0,0 +1,68 @@
+package com.dietcoach.project.service.meal;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse;
+import com.dietcoach.project.client.ai.dto.AiMonthlySkeletonResponse.AiDaySkeleton;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MealSkeletonLibraryTest {
+
+    private MealSkeletonLibrary library;
+
+    @BeforeEach
+    void setUp() {
+        library = new MealSkeletonLibrary(new ObjectMapper(),
+                new ClassPathResource("mealplan/skeleton-library.json"), 300, 90, 7);
+        library.load();
+    }
+
+    @Test
+    @DisplayName("Assembles 30 days locally, scaled to the target calories")
+    void assemblesThirtyDays() {
+        AiMonthlySkeletonResponse skeleton = library.assemble(payload(2200, "GAIN_WEIGHT", List.of()));
+
+        assertNotNull(skeleton);
+        assertEquals(30, skeleton.getDays().size());
+        for (AiDaySkeleton day : skeleton.getDays()) {
+            int kcal = day.getValidation().getActualTotalKcal();
+            assertTrue(Math.abs(kcal - 2200) <= 2200 * 0.05, "kcal=" + kcal);
+        }
+        assertEquals("2025-01-01", skeleton.getDays().get(0).getPlanDate());
+    }
+
+    @Test
+    @DisplayName("Excludes days containing the user's allergens")
+    void excludesAllergens() {
+        AiMonthlySkeletonResponse skeleton = library.assemble(payload(1500, "LOSE_WEIGHT", List.of("우유", "새우")));
+
+        assertNotNull(skeleton);
+        skeleton.getDays().forEach(day -> day.getMeals().forEach(meal -> meal.getIngredients().forEach(ing -> {
+            assertFalse(ing.getIngredientName().contains("우유"));
+            assertFalse(ing.getIngredientName().contains("요거트"));
+            assertFalse(ing.getIngredientName().contains("새우"));
+        })));
+    }
+
+    private Map<String, Object> payload(int kcal, String goal, List<String> allergies) {
+        Map<String, Object> p = new HashMap<>();
+        p.put("targetCaloriesPerDay", kcal);
+        p.put("goalType", goal);
+        p.put("allergies", allergies);
+        p.put("startDate", "2025-01-01");
+        p.put("totalDays", 30);
+        return p;
+    }
+}
@@ -0,0 +1,174 @@
+package com.dietcoach.project.service.shopping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.dietcoach.project.common.concurrent.IoLimiter;
+import com.dietcoach.project.domain.ShoppingProduct;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AiProductRerankerTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private AiProductReranker reranker =
+            new AiProductReranker(restTemplate, new ObjectMapper(), new IoLimiter(1, 1, 1, 5_000), (Executor) Runnable::run);
+
+    @Test
+    @DisplayName("Sends many ingredients in one prompt and maps results back by item number")
+    void selectsManyIngredientsInOneCall() {
+        configure(15);
+        List<AiProductReranker.RerankRequest> requests = List.of(
+                request("닭가슴살", "c1", "c2", "c3"),
+                request("두부", "t1", "t2", "t3"),
+                request("현미", "r1", "r2", "r3"));
+        respond("```json\n{\"results\": ["
+                + "{\"item\": 1, \"selectedId\": \"c2\", \"reason\": \"lean\"},"
+                + "{\"item\": 2, \"selectedId\": \"unknown\", \"reason\": \"?\"},"
+                + "{\"item\": 3, \"selectedId\": \"r1\", \"reason\": \"cheap\"}"
+                + "]}\n```");
+
+        AiProductReranker.BatchResult result = reranker.rerankBatch(requests);
+        Map<Integer, ShoppingProduct> selected = result.selected();
+
+        assertEquals("c2", selected.get(0).getExternalId());
+        assertFalse(selected.containsKey(1), "ids outside the candidates are left for per-item fallback");
+        assertFalse(result.failed().contains(1), "a missing item in a successful response is not a failed call");
+        assertEquals("r1", selected.get(2).getExternalId());
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                eq(AiProductReranker.GptResponse.class));
+    }
+
+    @Test
+    @DisplayName("Splits large batches into chunks and numbers items per chunk")
+    void chunksLargeBatches() {
+        configure(2);
+        List<AiProductReranker.RerankRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) requests.add(request("재료" + i, "p" + i + "a", "p" + i + "b", "p" + i + "c"));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(AiProductReranker.GptResponse.class)))
+                .thenReturn(response("{\"results\": [{\"item\": 1, \"selectedId\": \"p0b\"}, {\"item\": 2, \"selectedId\": \"p1a\"}]}"))
+                .thenReturn(response("{\"results\": [{\"item\": 1, \"selectedId\": \"p2c\"}]}"));
+
+        Map<Integer, ShoppingProduct> selected = reranker.rerankBatch(requests).selected();
+
+        assertEquals(3, selected.size());
+        assertEquals("p2c", selected.get(2).getExternalId());
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArgumentCaptor<HttpEntity<AiProductReranker.GptRequest>> bodies = (ArgumentCaptor) ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.POST), bodies.capture(),
+                eq(AiProductReranker.GptResponse.class));
+        String secondPrompt = bodies.getAllValues().get(1).getBody().messages.get(1).content;
+        assertTrue(secondPrompt.contains("## Item 1") && secondPrompt.contains("재료2"));
+    }
+
+    @Test
+    @DisplayName("Marks every item of a failed call as failed so callers use the score top-1 instead of retrying per item")
+    void failedCallMarksChunkFailed() {
+        configure(15);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(AiProductReranker.GptResponse.class)))
+                .thenThrow(new IllegalStateException("gms down"));
+
+        AiProductReranker.BatchResult result = reranker.rerankBatch(List.of(
+                request("두부", "t1", "t2", "t3"), request("현미", "r1", "r2", "r3")));
+
+        assertTrue(result.selected().isEmpty());
+        assertEquals(Set.of(0, 1), result.failed());
+    }
+
+    @Test
+    @DisplayName("Only the chunk whose call failed is marked failed; the other chunks keep their selections")
+    void failedChunkIsIsolated() {
+        configure(2);
+        List<AiProductReranker.RerankRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) requests.add(request("재료" + i, "p" + i + "a", "p" + i + "b", "p" + i + "c"));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(AiProductReranker.GptResponse.class)))
+                .thenThrow(new IllegalStateException("gms timeout"))
+                .thenReturn(response("{\"results\": [{\"item\": 1, \"selectedId\": \"p2c\"}]}"));
+
+        AiProductReranker.BatchResult result = reranker.rerankBatch(requests);
+
+        assertEquals(Set.of(0, 1), result.failed());
+        assertEquals("p2c", result.selected().get(2).getExternalId());
+    }
+
+    @Test
+    @DisplayName("Chunks are sent concurrently on the io executor instead of one after another")
+    void chunksRunInParallel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            reranker = new AiProductReranker(restTemplate, new ObjectMapper(), new IoLimiter(1, 2, 1, 5_000), executor);
+            configure(1);
+            CountDownLatch bothInFlight = new CountDownLatch(2);
+            when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(AiProductReranker.GptResponse.class)))
+                    .thenAnswer(inv -> {
+                        bothInFlight.countDown();
+                        // 순차 호출이면 두 번째 호출이 오지 않아서 타임아웃
+                        if (!bothInFlight.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("not parallel");
+                        return response("{\"results\": [{\"item\": 1, \"selectedId\": \"x\"}]}");
+                    });
+
+            AiProductReranker.BatchResult result = reranker.rerankBatch(List.of(
+                    request("두부", "x", "t2", "t3"), request("현미", "x", "r2", "r3")));
+
+            assertEquals(2, result.selected().size());
+            assertTrue(result.failed().isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void configure(int batchSize) {
+        ReflectionTestUtils.setField(reranker, "gmsKey", "test-key");
+        ReflectionTestUtils.setField(reranker, "gmsUrl", "http://localhost/v1/chat/completions");
+        ReflectionTestUtils.setField(reranker, "model", "gpt-4o-mini");
+        ReflectionTestUtils.setField(reranker, "batchSize", batchSize);
+    }
+
+    private void respond(String content) {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(AiProductReranker.GptResponse.class)))
+                .thenReturn(response(content));
+    }
+
+    private ResponseEntity<AiProductReranker.GptResponse> response(String content) {
+        AiProductReranker.Choice choice = new AiProductReranker.Choice();
+        choice.message = new AiProductReranker.Message("assistant", content);
+        AiProductReranker.GptResponse body = new AiProductReranker.GptResponse();
+        body.choices = List.of(choice);
+        return ResponseEntity.ok(body);
+    }
+
+    private AiProductReranker.RerankRequest request(String ingredient, String... ids) {
+        List<ShoppingProduct> candidates = new ArrayList<>();
+        for (String id : ids) {
+            candidates.add(ShoppingProduct.builder().externalId(id).title(ingredient + " " + id).price(5_000).build());
+        }
+        return new AiProductReranker.RerankRequest(ingredient, 10_000, candidates);
+    }
+}
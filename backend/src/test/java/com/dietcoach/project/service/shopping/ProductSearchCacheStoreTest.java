@@ -0,0 +1,128 @@
+package com.dietcoach.project.service.shopping;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.dietcoach.project.domain.ProductSearchCache;
+import com.dietcoach.project.dto.meal.ShoppingListResponse.ProductCard;
+import com.dietcoach.project.mapper.shopping.ProductSearchCacheMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductSearchCacheStoreTest {
+
+    private final ProductSearchCacheMapper mapper = mock(ProductSearchCacheMapper.class);
+    private final ProductSearchCacheStore store =
+            new ProductSearchCacheStore(mapper, new ObjectMapper(), new SimpleMeterRegistry(), true, 60, 2, 100, 3);
+
+    @Test
+    @DisplayName("Reads through to the table and deserializes the payload")
+    void readsThrough() {
+        when(mapper.findFresh(eq(ProductSearchCacheStore.PRODUCT), eq("닭가슴살:4000:500"), any()))
+                .thenReturn(ProductSearchCache.builder()
+                        .category(ProductSearchCacheStore.PRODUCT)
+                        .queryKey("닭가슴살:4000:500")
+                        .payload("{\"productName\":\"닭가슴살 1kg\",\"price\":9900}")
+                        .fetchedAt(LocalDateTime.now())
+                        .build());
+
+        ProductCard card = store.read(ProductSearchCacheStore.PRODUCT, "닭가슴살:4000:500", ProductCard.class).orElseThrow();
+        assertEquals("닭가슴살 1kg", card.getProductName());
+        assertEquals(9900L, card.getPrice());
+        assertTrue(store.read(ProductSearchCacheStore.PRODUCT, "두부:2000:300", ProductCard.class).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Buffers writes, keeps the latest value per key and flushes in batches")
+    void writesBehindInBatches() {
+        store.writeBehind(ProductSearchCacheStore.PRICE_PER_100G, "두부", 300);
+        store.writeBehind(ProductSearchCacheStore.PRICE_PER_100G, "두부", 320);
+        store.writeBehind(ProductSearchCacheStore.PRICE_PER_100G, "계란", 450);
+        store.writeBehind(ProductSearchCacheStore.PRICE_PER_100G, "현미", 800);
+
+        // flush 전에도 같은 인스턴스에서는 보임 (DB 조회 없음)
+        assertEquals(320, store.read(ProductSearchCacheStore.PRICE_PER_100G, "두부", Integer.class).orElseThrow());
+        verify(mapper, never()).upsertBatch(anyList());
+
+        assertEquals(3, store.flush());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProductSearchCache>> batches = ArgumentCaptor.forClass(List.class);
+        verify(mapper, times(2)).upsertBatch(batches.capture());
+        List<ProductSearchCache> rows = new ArrayList<>();
+        batches.getAllValues().forEach(rows::addAll);
+        assertEquals(3, rows.size());
+        assertTrue(rows.stream().anyMatch(r -> r.getQueryKey().equals("두부") && r.getPayload().equals("320")));
+        assertEquals(0, store.pendingCount());
+    }
+
+    @Test
+    @DisplayName("Keeps pending rows for the next flush when the table is unavailable")
+    void retriesFailedFlush() {
+        doThrow(new IllegalStateException("db down")).when(mapper).upsertBatch(anyList());
+        store.writeBehind(ProductSearchCacheStore.PRICE_PER_100G, "두부", 300);
+
+        assertEquals(0, store.flush());
+        assertEquals(1, store.pendingCount());
+
+        when(mapper.findFresh(any(), eq("계란"), any())).thenThrow(new IllegalStateException("db down"));
+        assertTrue(store.read(ProductSearchCacheStore.PRICE_PER_100G, "계란", Integer.class).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A permanently failing row is isolated row by row and dropped after max attempts")
+    void isolatesPoisonRow() {
+        doThrow(new IllegalStateException("data too long"))
+                .when(mapper).upsertBatch(argThat(rows -> rows.stream().anyMatch(r -> r.getQueryKey().equals("bad"))));
+        store.writeBehind(ProductSearchCacheStore.PRICE_PER_100G, "bad", 1);
+        store.writeBehind(ProductSearchCacheStore.PRICE_PER_100G, "두부", 300);
+
+        assertEquals(1, store.flush(), "the good row in the failed batch is still written");
+        assertEquals(1, store.pendingCount());
+
+        assertEquals(0, store.flush());
+        assertEquals(1, store.pendingCount());
+        assertEquals(0, store.flush());
+        assertEquals(0, store.pendingCount(), "dropped after 3 failed attempts");
+
+        store.writeBehind(ProductSearchCacheStore.PRICE_PER_100G, "계란", 450);
+        assertEquals(1, store.flush());
+    }
+
+    @Test
+    @DisplayName("A max-age read ignores shared rows older than the requested age, even if they are within the TTL")
+    void maxAgeReadSkipsOlderRows() {
+        store.writeBehind(ProductSearchCacheStore.PRICE_PER_100G, "두부", 300);
+        LocalDateTime before = LocalDateTime.now();
+
+        assertEquals(300, store.read(ProductSearchCacheStore.PRICE_PER_100G, "두부", Integer.class, Duration.ofMinutes(12))
+                .orElseThrow(), "a just-written pending row is fresh enough");
+        assertTrue(store.read(ProductSearchCacheStore.PRICE_PER_100G, "두부", Integer.class, Duration.ofSeconds(-1))
+                .isEmpty(), "pending rows older than maxAge fall through to the table");
+
+        ArgumentCaptor<LocalDateTime> fetchedAfter = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(mapper).findFresh(eq(ProductSearchCacheStore.PRICE_PER_100G), eq("두부"), fetchedAfter.capture());
+        assertFalse(fetchedAfter.getValue().isBefore(before), "cutoff=" + fetchedAfter.getValue());
+    }
+}
@@ -0,0 +1,159 @@
+-- 부하 테스트용 H2 (MODE=MySQL) 스키마: src/main/resources/schema/schema.sql 과 같은 테이블/제약
+-- (database drop/use, ENGINE/CHARSET, ALTER ... AFTER 처럼 H2가 받지 않는 구문만 정리)
+
+DROP TABLE IF EXISTS product_search_cache;
+DROP TABLE IF EXISTS meal_intakes;
+DROP TABLE IF EXISTS meal_plan_jobs;
+DROP TABLE IF EXISTS refresh_tokens;
+DROP TABLE IF EXISTS shopping_cart_items;
+DROP TABLE IF EXISTS meal_items;
+DROP TABLE IF EXISTS meal_plan_days;
+DROP TABLE IF EXISTS meal_plans;
+DROP TABLE IF EXISTS weight_records;
+DROP TABLE IF EXISTS users;
+
+CREATE TABLE users (
+    id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email            VARCHAR(100) NOT NULL UNIQUE,
+    password         VARCHAR(255) NOT NULL,
+    name             VARCHAR(50)  NOT NULL,
+    gender           VARCHAR(10)  NULL,
+    birth_date       DATE         NULL,
+    height           DOUBLE       NULL,
+    weight           DOUBLE       NULL,
+    activity_level   VARCHAR(20)  NULL,
+    goal_type        VARCHAR(20)  NULL,
+    bmr              DOUBLE       NULL,
+    tdee             DOUBLE       NULL,
+    target_calories  DOUBLE       NULL,
+    target_weight    DOUBLE       NULL,
+    created_at       TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at       TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE weight_records (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    record_date DATE NOT NULL,
+    weight DECIMAL(5,2) NOT NULL,
+    memo VARCHAR(255) NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT uk_user_date UNIQUE (user_id, record_date),
+    CONSTRAINT fk_weight_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE TABLE meal_plans (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    total_days INT NOT NULL,
+    target_calories_per_day INT NOT NULL,
+    monthly_budget BIGINT NULL,
+    meals_per_day INT NULL,
+    preferences TEXT NULL,
+    allergies TEXT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_meal_plans_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE TABLE meal_plan_days (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    meal_plan_id BIGINT NOT NULL,
+    plan_date DATE NOT NULL,
+    day_index INT NOT NULL,
+    total_calories INT NOT NULL DEFAULT 0,
+    is_stamped BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_meal_plan_days_meal_plan FOREIGN KEY (meal_plan_id) REFERENCES meal_plans(id)
+);
+
+CREATE TABLE meal_items (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    meal_plan_day_id BIGINT NOT NULL,
+    meal_time VARCHAR(20) NOT NULL,
+    food_name VARCHAR(255) NOT NULL,
+    calories INT NOT NULL,
+    carbs INT NOT NULL DEFAULT 0,
+    protein INT NOT NULL DEFAULT 0,
+    fat INT NOT NULL DEFAULT 0,
+    is_high_protein BOOLEAN NOT NULL DEFAULT FALSE,
+    grams INT NOT NULL DEFAULT 100,
+    memo VARCHAR(500),
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_meal_items_meal_plan_day FOREIGN KEY (meal_plan_day_id) REFERENCES meal_plan_days(id)
+);
+
+CREATE TABLE meal_intakes (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    meal_plan_day_id BIGINT NOT NULL,
+    meal_time VARCHAR(20) NOT NULL,
+    is_consumed TINYINT NOT NULL DEFAULT 0,
+    consumed_at DATETIME NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT uk_intake UNIQUE (user_id, meal_plan_day_id, meal_time),
+    CONSTRAINT fk_intake_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_intake_day FOREIGN KEY (meal_plan_day_id) REFERENCES meal_plan_days(id) ON DELETE CASCADE
+);
+
+CREATE TABLE shopping_cart_items (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    product_code VARCHAR(255) NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    price INT NOT NULL,
+    image_url VARCHAR(512),
+    product_url VARCHAR(512),
+    mall_name VARCHAR(100),
+    quantity INT NOT NULL DEFAULT 1,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_cart_user FOREIGN KEY (user_id) REFERENCES users(id),
+    CONSTRAINT uk_user_product UNIQUE (user_id, product_code)
+);
+
+CREATE TABLE refresh_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    expires_at DATETIME NOT NULL,
+    revoked TINYINT NOT NULL DEFAULT 0,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash)
+);
+CREATE INDEX idx_refresh_user_id ON refresh_tokens (user_id);
+CREATE INDEX idx_refresh_expires_at ON refresh_tokens (expires_at);
+
+CREATE TABLE meal_plan_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    meal_plan_id BIGINT NOT NULL,
+    chunk_offset INT NOT NULL,
+    chunk_days INT NOT NULL,
+    max_parallel INT NOT NULL DEFAULT 4,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_by VARCHAR(100) NULL,
+    locked_at DATETIME NULL,
+    last_error VARCHAR(500) NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT uk_job_plan_chunk UNIQUE (meal_plan_id, chunk_offset),
+    CONSTRAINT fk_job_meal_plan FOREIGN KEY (meal_plan_id) REFERENCES meal_plans(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_job_claim ON meal_plan_jobs (status, next_attempt_at);
+
+CREATE TABLE product_search_cache (
+    category VARCHAR(30) NOT NULL,
+    query_key VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    fetched_at DATETIME NOT NULL,
+    PRIMARY KEY (category, query_key)
+);
+CREATE INDEX idx_psc_fetched_at ON product_search_cache (fetched_at);